@@ -0,0 +1,36 @@
+package benchmarks;
+
+import java.util.Random;
+
+import geometry.Line;
+
+/**
+ * The Benchmarks class holds the helpers that are shared by the benchmarks.
+ * Run all the benchmarks (with the allocation rate of each one) with:
+ * java -cp target/benchmarks.jar:../biuoop-1.4.jar org.openjdk.jmh.Main -prof gc
+ */
+public final class Benchmarks {
+
+    /**
+     * The class has only static methods, so it can't be created.
+     */
+    private Benchmarks() {
+    }
+
+    /**
+     * Create a random segment that starts inside the given area.
+     * @param random the random generator.
+     * @param width the width of the area.
+     * @param height the height of the area.
+     * @param maxLength the longest length of the segment (in each axis).
+     * @return the segment.
+     */
+    public static Line randomLine(Random random, int width, int height, double maxLength) {
+        double x = random.nextDouble() * width;
+        double y = random.nextDouble() * height;
+        double dx = (random.nextDouble() * 2 - 1) * maxLength;
+        double dy = (random.nextDouble() * 2 - 1) * maxLength;
+        return new Line(x, y, x + dx, y + dy);
+    }
+
+} // class Benchmarks
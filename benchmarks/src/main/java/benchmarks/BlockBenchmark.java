@@ -0,0 +1,101 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import collision.HitListener;
+import geometry.Point;
+import invadersgame.Paddle;
+import invadersgame.Velocity;
+import sprites.Ball;
+import sprites.Block;
+import sprites.BlockColorBackground;
+import sprites.Shield;
+
+/**
+ * The BlockBenchmark class measures Block.notifyHit (through Block.hit, which calls it) with a different number of
+ * hit listeners.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockBenchmark {
+
+    /**
+     * A listener that only hands the events to the black hole, so they aren't optimized away.
+     */
+    private static final class ConsumingListener implements HitListener {
+        private final Blackhole blackhole;
+
+        /**
+         * Constructor.
+         * @param blackhole the black hole of the benchmark.
+         */
+        private ConsumingListener(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void hitEvent(Block beingHit, Ball hitter) {
+            this.blackhole.consume(beingHit);
+        }
+
+        @Override
+        public void hitEvent(Paddle beingHit, Ball hitter) {
+            this.blackhole.consume(beingHit);
+        }
+
+        @Override
+        public void hitEvent(Shield beingHit, Ball hitter) {
+            this.blackhole.consume(beingHit);
+        }
+    } // class ConsumingListener
+
+    // Declare the members of the class.
+    @Param({"1", "3", "10"})
+    private int listeners;
+    private Block block;
+    private Ball ball;
+    private Point collisionPoint;
+    private Velocity velocity;
+
+    /**
+     * Create a block with its listeners, and a ball that hits it.
+     * @param blackhole the black hole of the benchmark.
+     */
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.block = new Block(new Point(100, 100), 40, 30, 1, new BlockColorBackground(Color.GREEN));
+        for (int i = 0; i < this.listeners; i++) {
+            this.block.addHitListener(new ConsumingListener(blackhole));
+        }
+        this.ball = new Ball(new Point(120, 135), 4, Color.WHITE, null);
+        this.collisionPoint = new Point(120, 130);
+        this.velocity = new Velocity(0, -350);
+    }
+
+    /**
+     * @return the velocity that the block returns after it notified its listeners.
+     */
+    @Benchmark
+    public Velocity notifyHit() {
+        return this.block.hit(this.ball, this.collisionPoint, this.velocity, 1.0 / 60);
+    }
+
+} // class BlockBenchmark
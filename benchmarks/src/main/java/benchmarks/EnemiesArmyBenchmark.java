@@ -0,0 +1,94 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import geometry.Point;
+import invadersgame.Counter;
+import invadersgame.EnemiesArmy;
+import levels.BattleLevel;
+import levels.GameLevel;
+import sprites.Block;
+import sprites.BlockColorBackground;
+import sprites.ShotPool;
+
+/**
+ * The EnemiesArmyBenchmark class measures EnemiesArmy.timePassed (moving the formation and choosing the shooters) for
+ * formations of different sizes. When the formation reaches the shields, it goes back to its place, as it does in the
+ * game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnemiesArmyBenchmark {
+    // A single frame of the game.
+    private static final double DT = 1.0 / 60;
+
+    // Declare the members of the class.
+    @Param({"5x10", "10x20", "20x40"})
+    private String formation;
+    private GameLevel level;
+    private EnemiesArmy army;
+
+    /**
+     * Build a level and a formation of rows x columns enemies in it. The formation gets a new level in every
+     * iteration.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        String[] sizes = this.formation.split("x");
+        int rows = Integer.parseInt(sizes[0]);
+        int columns = Integer.parseInt(sizes[1]);
+        this.level = new GameLevel(new BattleLevel(), key -> false, null, new Counter(0), new Counter(3), 65);
+        this.army = new EnemiesArmy(this.level, 65);
+        this.level.getGameEnvironment().addCollidableGroup(this.army);
+        // The formation takes the same area of the screen as the formation of the game, whatever its size is.
+        double columnWidth = 500.0 / columns;
+        double rowHeight = 200.0 / rows;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                Block block = new Block(new Point(150 + j * columnWidth, 40 + i * rowHeight), columnWidth * 0.8,
+                        rowHeight * 0.75, 1, new BlockColorBackground(Color.GREEN));
+                block.setAsEnemy();
+                this.army.addBlock(block);
+            }
+        }
+    }
+
+    /**
+     * @return the army, after it moved and shot for a frame.
+     */
+    @Benchmark
+    public EnemiesArmy timePassed() {
+        // The army shoots by the clock of the level, which moves with the steps of the level.
+        this.level.getClock().advance(DT);
+        this.army.timePassed(DT);
+        if (this.army.arrivedToShields()) {
+            this.army.initialize(DT);
+            this.level.removeShots();
+        }
+        // The shots aren't stepped, so they are released when the pool is full, and the army can go on shooting.
+        ShotPool shots = this.level.getShotPool();
+        if (shots.getActiveCount() == shots.getCapacity()) {
+            this.level.removeShots();
+        }
+        return this.army;
+    }
+
+} // class EnemiesArmyBenchmark
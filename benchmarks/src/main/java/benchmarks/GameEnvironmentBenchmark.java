@@ -0,0 +1,88 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import collision.CollisionInfo;
+import geometry.Line;
+import geometry.Point;
+import invadersgame.GameEnvironment;
+import sprites.Block;
+import sprites.BlockColorBackground;
+
+/**
+ * The GameEnvironmentBenchmark class measures GameEnvironment.getClosestCollision with a growing number of
+ * collidables, both for the short steps that the shots make in every frame and for long rays across the screen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEnvironmentBenchmark {
+    // The number of the prepared trajectories (a power of 2, so the next trajectory is found with a mask).
+    private static final int INPUTS = 1024;
+
+    // Declare the members of the class.
+    @Param({"10", "100", "1000", "10000"})
+    private int collidables;
+    private GameEnvironment environment;
+    private Line[] steps;
+    private Line[] rays;
+    private int next;
+
+    /**
+     * Fill the environment with random blocks, and prepare random trajectories.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        this.environment = new GameEnvironment();
+        // The more blocks there are, the smaller they are, so they still fit in the screen.
+        int size = Math.max(4, (int) (40 / Math.sqrt(this.collidables / 10.0)));
+        for (int i = 0; i < this.collidables; i++) {
+            Point upperLeft = new Point(random.nextInt(800 - size), random.nextInt(600 - size));
+            this.environment.addCollidable(new Block(upperLeft, size, size, 1,
+                    new BlockColorBackground(Color.GRAY)));
+        }
+        this.steps = new Line[INPUTS];
+        this.rays = new Line[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            // A shot moves about 6 pixels in a frame.
+            this.steps[i] = Benchmarks.randomLine(random, 800, 600, 6);
+            this.rays[i] = Benchmarks.randomLine(random, 800, 600, 800);
+        }
+        this.next = 0;
+    }
+
+    /**
+     * @return the closest collision of a short step.
+     */
+    @Benchmark
+    public CollisionInfo shortStep() {
+        return this.environment.getClosestCollision(this.steps[this.next++ & (INPUTS - 1)]);
+    }
+
+    /**
+     * @return the closest collision of a long ray.
+     */
+    @Benchmark
+    public CollisionInfo longRay() {
+        return this.environment.getClosestCollision(this.rays[this.next++ & (INPUTS - 1)]);
+    }
+
+} // class GameEnvironmentBenchmark
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import highscores.Leaderboard;
+import highscores.ScoreInfo;
+import invadersgame.SplitMixRandom;
+
+/**
+ * The LeaderboardBenchmark class measures the operations of a Leaderboard of different sizes: adding a score (and
+ * removing it, so the size stays the same), finding the rank of a score, and getting a page of scores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaderboardBenchmark {
+    // The scores are drawn from 0 to this bound.
+    private static final int SCORE_BOUND = 100000;
+    // The number of the scores of a page.
+    private static final int PAGE_SIZE = 20;
+
+    // Declare the members of the class.
+    @Param({"1000", "1000000"})
+    private int scores;
+    private Leaderboard leaderboard;
+    private SplitMixRandom random;
+    private ScoreInfo info;
+
+    /**
+     * Fill a leaderboard with random scores.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.random = new SplitMixRandom(1);
+        this.leaderboard = new Leaderboard();
+        for (int i = 0; i < this.scores; i++) {
+            this.leaderboard.add(new ScoreInfo("bot", this.random.nextInt(SCORE_BOUND)));
+        }
+        this.info = new ScoreInfo("player", SCORE_BOUND / 2);
+    }
+
+    /**
+     * @return the score that was added and removed.
+     */
+    @Benchmark
+    public ScoreInfo addAndRemove() {
+        int rank = this.leaderboard.add(this.info);
+        return this.leaderboard.removeAt(rank - 1);
+    }
+
+    /**
+     * @return the rank of a random score.
+     */
+    @Benchmark
+    public int getRank() {
+        return this.leaderboard.getRank(this.random.nextInt(SCORE_BOUND));
+    }
+
+    /**
+     * @return a page of the scores from a random index.
+     */
+    @Benchmark
+    public List<ScoreInfo> getPage() {
+        return this.leaderboard.getPage(this.random.nextInt(this.scores), PAGE_SIZE);
+    }
+
+} // class LeaderboardBenchmark
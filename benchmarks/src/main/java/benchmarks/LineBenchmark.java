@@ -0,0 +1,77 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import geometry.Line;
+import geometry.Point;
+import geometry.Rectangle;
+
+/**
+ * The LineBenchmark class measures the intersection methods of Line, on random segments and rectangles of the size of
+ * the game screen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineBenchmark {
+    // The number of the prepared inputs (a power of 2, so the next input is found with a mask).
+    private static final int INPUTS = 1024;
+
+    // Declare the members of the class.
+    private Line[] lines;
+    private Line[] others;
+    private Rectangle[] rectangles;
+    private int next;
+
+    /**
+     * Prepare random segments and rectangles.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        this.lines = new Line[INPUTS];
+        this.others = new Line[INPUTS];
+        this.rectangles = new Rectangle[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            this.lines[i] = Benchmarks.randomLine(random, 800, 600, 200);
+            this.others[i] = Benchmarks.randomLine(random, 800, 600, 200);
+            this.rectangles[i] = new Rectangle(new Point(random.nextInt(760), random.nextInt(570)),
+                    10 + random.nextInt(30), 10 + random.nextInt(20));
+        }
+        this.next = 0;
+    }
+
+    /**
+     * @return the intersection point of two segments (or null).
+     */
+    @Benchmark
+    public Point intersectionWith() {
+        int i = this.next++ & (INPUTS - 1);
+        return this.lines[i].intersectionWith(this.others[i]);
+    }
+
+    /**
+     * @return the intersection point of a segment and a rectangle that is the closest to the start of the segment.
+     */
+    @Benchmark
+    public Point closestIntersectionToStartOfLine() {
+        int i = this.next++ & (INPUTS - 1);
+        return this.lines[i].closestIntersectionToStartOfLine(this.rectangles[i]);
+    }
+
+} // class LineBenchmark
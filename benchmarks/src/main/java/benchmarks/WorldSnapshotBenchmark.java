@@ -0,0 +1,96 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import invadersgame.Counter;
+import levels.BattleLevel;
+import levels.GameLevel;
+import levels.WorldSnapshot;
+import training.ActionKeyboardSensor;
+import training.BatchEnvironment;
+
+/**
+ * The WorldSnapshotBenchmark class measures taking a snapshot of a level and restoring it, and a short rollout from a
+ * snapshot - restoring it and playing a second of the game - which is what a search bot does for every move it tries.
+ * The level is played for a while before, so it has flying shots, broken shields and missing enemies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldSnapshotBenchmark {
+    // A single frame of the game.
+    private static final double DT = 1.0 / 60;
+    // The number of the frames of a rollout.
+    private static final int ROLLOUT_FRAMES = 60;
+
+    // Declare the members of the class.
+    private ActionKeyboardSensor keyboard;
+    private GameLevel level;
+    private WorldSnapshot start;
+    private WorldSnapshot scratch;
+
+    /**
+     * Build a level, play it with the paddle shooting and moving for 10 seconds, and take the snapshot to start from.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.keyboard = new ActionKeyboardSensor();
+        this.level = new GameLevel(new BattleLevel(), this.keyboard, null, new Counter(0), new Counter(3), 65, 1);
+        this.level.initialize();
+        this.level.startTurn();
+        for (int i = 0; i < 600 && !this.level.shouldStop(); i++) {
+            this.keyboard.setAction(BatchEnvironment.FIRE | (i / 60 % 2 == 0 ? BatchEnvironment.LEFT
+                : BatchEnvironment.RIGHT));
+            this.level.step(DT);
+        }
+        this.start = this.level.snapshot();
+        this.scratch = new WorldSnapshot();
+    }
+
+    /**
+     * @return the snapshot, after the state of the level was taken into it.
+     */
+    @Benchmark
+    public WorldSnapshot snapshot() {
+        this.level.snapshot(this.scratch);
+        return this.scratch;
+    }
+
+    /**
+     * @return the level, after the snapshot was restored.
+     */
+    @Benchmark
+    public GameLevel restore() {
+        this.level.restore(this.start);
+        return this.level;
+    }
+
+    /**
+     * @return the level, after a rollout from the snapshot.
+     */
+    @Benchmark
+    public GameLevel rollout() {
+        this.level.restore(this.start);
+        this.keyboard.setAction(BatchEnvironment.FIRE | BatchEnvironment.LEFT);
+        for (int i = 0; i < ROLLOUT_FRAMES && !this.level.shouldStop(); i++) {
+            this.level.step(DT);
+        }
+        return this.level;
+    }
+
+} // class WorldSnapshotBenchmark
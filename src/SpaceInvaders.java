@@ -34,7 +34,12 @@ public class SpaceInvaders {
         // Initialize some elementary objects that will be used for building the game.
         GUI gui = new GUI("Space Invaders", SURFACE_WIDTH, SURFACE_HEIGHT);
         DialogManager dialogManager = gui.getDialogManager();
-        AnimationRunner animationRunner = new AnimationRunner(gui, FRAMES_PER_SECOND);
+        AnimationRunner animationRunner = new AnimationRunner(gui, FRAMES_PER_SECOND, true);
+        // Measure the frames and write their timings to the given file on exit (java -Dprofiler.dump=frames.txt).
+        String profilerDump = System.getProperty("profiler.dump");
+        if (profilerDump != null) {
+            animationRunner.getProfiler().dumpOnExit(new File(profilerDump));
+        }
         KeyboardSensor keyboard = gui.getKeyboardSensor();
         List<LevelInformation> levels = new ArrayList<>();
         levels.add(new BattleLevel());
@@ -50,8 +55,14 @@ public class SpaceInvaders {
             }
         }
         MenuAnimation<Task<Void>> menu = new MenuAnimation<>(animationRunner, keyboard);
-        menu.addSelection("s", "to start a new game", new StartGameTask(keyboard, dialogManager, animationRunner,
-            highScoresTable, levels, 3));
+        StartGameTask startGameTask = new StartGameTask(keyboard, dialogManager, animationRunner, highScoresTable,
+            levels, 3);
+        // Record the keys of the games, to replay them later (java -Dreplay.record=game.sir).
+        String replayRecord = System.getProperty("replay.record");
+        if (replayRecord != null) {
+            startGameTask.setReplayFile(new File(replayRecord));
+        }
+        menu.addSelection("s", "to start a new game", startGameTask);
         menu.addSelection("h", "for high scores table",  new ShowHighScoresTask(animationRunner, new KeyPressStoppableAnimation(keyboard,
                 KeyboardSensor.SPACE_KEY, new HighScoresAnimation(highScoresTable))));
         menu.addSelection("q", "to quit",
@@ -2,27 +2,239 @@ package animation;
 
 import biuoop.DrawSurface;
 import biuoop.GUI;
-import biuoop.Sleeper;
+import jdk.jfr.EventType;
+import profiler.FrameEvent;
+import profiler.FrameProfiler;
+import profiler.FrameStatistics;
 
 /**
  * The AnimationRunner class takes a non-specific Animation object and runs it.
+ * A SteppedAnimation is simulated in fixed steps of 1 / framesPerSecond seconds: the runner measures the real time
+ * that has passed with System.nanoTime(), performs as many steps as needed to catch up with it, and draws the
+ * animation once after the steps.
+ * Optionally, the frames are drawn on the GUI by a RenderThread: the animation is drawn into a display list, which is
+ * published to the render thread, and the simulation goes on without waiting for gui.show.
+ * A headless runner has no GUI at all: it draws every frame on a given surface and runs as fast as the CPU allows,
+ * one step after the other, without waiting for the real time.
+ * Every runner has a FrameProfiler, which measures the steps, the drawing and the showing of the frames when it's
+ * enabled. An animation that isn't stepped is measured as drawing. Every frame is also a Flight Recorder event
+ * (FrameEvent), which is recorded when it's enabled and the frame takes longer than its threshold.
  */
 public class AnimationRunner {
+    // The most steps that are performed before a frame is drawn, so a slow machine doesn't fall further behind.
+    private static final int MAX_STEPS_PER_FRAME = 5;
+    // The most time (in nanoseconds) that a single frame is allowed to count, e.g. after the window was dragged.
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+    // The type of the Flight Recorder events of the frames, which tells whether they are enabled without creating one.
+    private static final EventType FRAME_EVENT_TYPE = EventType.getEventType(FrameEvent.class);
+
     // Declare the members of the class.
     private GUI gui;
     private int framesPerSecond;
-    private Sleeper sleeper;
+    private PreciseSleeper sleeper;
+    // The number of the runs that have ended, so a run can tell that another run was nested inside one of its steps.
+    private int finishedRuns;
+    // The thread that draws the frames on the GUI (null if the frames are drawn by the thread that runs the animation).
+    private RenderThread renderThread;
+    // The surface that a headless runner draws on (null if the runner draws on the GUI).
+    private DrawSurface headlessSurface;
+    // The number of the steps (or frames) that were run so far, and a listener that is called before each of them.
+    private long ticks;
+    private Runnable tickListener;
+    private FrameProfiler profiler;
 
     /**
-     * Constructor.
+     * Constructor - the frames are drawn by the thread that runs the animation.
      * @param gui a Graphical User Interface that the game is displayed on it.
      * @param framesPerSecond the number of frames that should be displayed in any second.
      */
     public AnimationRunner(GUI gui, int framesPerSecond) {
+        this(gui, framesPerSecond, false);
+    }
+
+    /**
+     * Constructor.
+     * @param gui a Graphical User Interface that the game is displayed on it.
+     * @param framesPerSecond the number of frames that should be displayed in any second.
+     * @param useRenderThread true if the frames should be drawn on the GUI by a render thread of their own.
+     */
+    public AnimationRunner(GUI gui, int framesPerSecond, boolean useRenderThread) {
         // Use a platform of GUI in the animation runner.
         this.gui = gui;
         this.framesPerSecond = framesPerSecond;
-        this.sleeper = new Sleeper();
+        this.sleeper = new PreciseSleeper();
+        this.finishedRuns = 0;
+        this.renderThread = null;
+        this.headlessSurface = null;
+        this.ticks = 0;
+        this.tickListener = null;
+        this.profiler = new FrameProfiler();
+        if (useRenderThread) {
+            this.renderThread = new RenderThread(gui, this.profiler);
+            this.renderThread.start();
+        }
+    }
+
+    /**
+     * Constructor - create a headless runner, which draws on the given surface instead of a GUI and doesn't wait
+     * between the frames.
+     * @param surface the surface that all the frames are drawn on.
+     * @param framesPerSecond the number of the simulated frames in any simulated second.
+     */
+    public AnimationRunner(DrawSurface surface, int framesPerSecond) {
+        this.gui = null;
+        this.framesPerSecond = framesPerSecond;
+        this.sleeper = new PreciseSleeper();
+        this.finishedRuns = 0;
+        this.renderThread = null;
+        this.headlessSurface = surface;
+        this.ticks = 0;
+        this.tickListener = null;
+        this.profiler = new FrameProfiler();
+    }
+
+    /**
+     * @return true if the runner draws on a given surface instead of a GUI, false otherwise.
+     */
+    public boolean isHeadless() {
+        return this.headlessSurface != null;
+    }
+
+    /**
+     * @return the profiler of the frames that the runner runs.
+     */
+    public FrameProfiler getProfiler() {
+        return this.profiler;
+    }
+
+    /**
+     * @return the number of the steps (or frames, for animations that aren't stepped) that were run so far.
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Set a listener that is called before each step (or frame), for example to advance a scripted keyboard.
+     * @param listener the listener to call, or null to remove the current listener.
+     */
+    public void setTickListener(Runnable listener) {
+        this.tickListener = listener;
+    }
+
+    /**
+     * Count the next step (or frame) and tell the listener about it.
+     */
+    private void tick() {
+        this.ticks++;
+        if (this.tickListener != null) {
+            this.tickListener.run();
+        }
+    }
+
+    /**
+     * @return the render thread of the runner, or null if the frames are drawn by the thread that runs the animation.
+     */
+    public RenderThread getRenderThread() {
+        return this.renderThread;
+    }
+
+    /**
+     * Stop the render thread (if there is one). The frames are drawn by the thread that runs the animation from now on.
+     */
+    public void stopRenderThread() {
+        if (this.renderThread != null) {
+            this.renderThread.stop();
+            this.renderThread = null;
+        }
+    }
+
+    /**
+     * @return the surface that the next frame should be drawn on.
+     */
+    private DrawSurface beginFrame() {
+        if (this.headlessSurface != null) {
+            return this.headlessSurface;
+        }
+        if (this.renderThread != null) {
+            return this.renderThread.beginFrame();
+        }
+        return this.gui.getDrawSurface();
+    }
+
+    /**
+     * Show the frame that was drawn on the given surface, and end the frame of the profiler. With a render thread,
+     * the show phase is only the publishing of the frame, and the drawing on the GUI is the render phase.
+     * @param drawSurface the surface that was returned by beginFrame.
+     */
+    private void showFrame(DrawSurface drawSurface) {
+        long start = this.profiler.start();
+        if (this.renderThread != null) {
+            this.renderThread.publish();
+        } else if (this.headlessSurface == null) {
+            this.gui.show(drawSurface);
+        }
+        this.profiler.stop(FrameProfiler.SHOW, start);
+        this.profiler.endFrame();
+    }
+
+    /**
+     * Begin the Flight Recorder event of a frame. No event is created while the events of the frames are disabled, so
+     * the frames don't allocate anything for them.
+     * @return the event, or null if the events of the frames are disabled.
+     */
+    private static FrameEvent beginFrameEvent() {
+        if (!FRAME_EVENT_TYPE.isEnabled()) {
+            return null;
+        }
+        FrameEvent event = new FrameEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Record the Flight Recorder event of a frame, if it's enabled and the frame took long enough.
+     * @param event the event, which began when the frame started, or null if the events are disabled.
+     * @param animation the animation that was run in the frame.
+     * @param steps the number of the steps that were performed in the frame.
+     */
+    private void commitFrameEvent(FrameEvent event, Object animation, int steps) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setAnimation(animation.getClass().getSimpleName());
+            event.setSteps(steps);
+            if (animation instanceof FrameStatistics) {
+                FrameStatistics statistics = (FrameStatistics) animation;
+                event.setSprites(statistics.getSpriteCount());
+                event.setCollidables(statistics.getCollidableCount());
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * Perform a single step of the animation, and measure it.
+     * @param animation the animation.
+     * @param dt the time of the step, in seconds.
+     */
+    private void step(SteppedAnimation animation, double dt) {
+        long start = this.profiler.start();
+        animation.step(dt);
+        this.profiler.stop(FrameProfiler.UPDATE, start);
+    }
+
+    /**
+     * Draw the animation, and measure it.
+     * @param animation the animation.
+     * @param drawSurface the surface to draw on.
+     */
+    private void draw(SteppedAnimation animation, DrawSurface drawSurface) {
+        long start = this.profiler.start();
+        animation.draw(drawSurface);
+        this.profiler.stop(FrameProfiler.DRAW, start);
     }
 
     /**
@@ -30,25 +242,101 @@ public class AnimationRunner {
      * @param animation the animation that should run.
      */
     public void run(Animation animation) {
+        if (animation instanceof SteppedAnimation) {
+            this.runSteps((SteppedAnimation) animation);
+        } else {
+            this.runFrames(animation);
+        }
+        this.finishedRuns++;
+    } // run
+
+    /**
+     * Run an animation that draws and changes its state together, one call of doOneFrame in every frame.
+     * @param animation the animation that should run.
+     */
+    private void runFrames(Animation animation) {
         double dt = 1.0 / this.framesPerSecond;
-        // Each frame in the animation can last 1000 / framesPerSecond milliseconds.
-        int millisecondsPerFrame = 1000 / framesPerSecond;
+        // Each frame in the animation lasts 1000000000 / framesPerSecond nanoseconds.
+        long nanosPerFrame = 1_000_000_000L / this.framesPerSecond;
+        long nextFrame = System.nanoTime();
         // As long as the animation should not be stopped, continue to run the animation.
         while (!animation.shouldStop()) {
-            long startTime = System.currentTimeMillis(); // Timing.
             // Do one frame of the animation and show it.
-            DrawSurface drawSurface = gui.getDrawSurface();
+            this.tick();
+            FrameEvent event = beginFrameEvent();
+            DrawSurface drawSurface = this.beginFrame();
+            long start = this.profiler.start();
             animation.doOneFrame(drawSurface, dt);
-            gui.show(drawSurface);
-            // Timing - the time it takes to perform the work in the loop may be non-negligible.
-            // Therefore, subtract the time it takes to do the work from the number of milliseconds per frame.
-            // If the subtraction result is > 0, the sleeper should sleep for this number of milliseconds.
-            long usedTime = System.currentTimeMillis() - startTime;
-            long milliSecondLeftToSleep = millisecondsPerFrame - usedTime;
-            if (milliSecondLeftToSleep > 0) {
-                this.sleeper.sleepFor(milliSecondLeftToSleep);
+            this.profiler.stop(FrameProfiler.DRAW, start);
+            this.showFrame(drawSurface);
+            this.commitFrameEvent(event, animation, 1);
+            if (this.headlessSurface != null) {
+                continue;
+            }
+            // Timing - the next frame starts a whole frame after the previous one was due, unless we are already late.
+            nextFrame += nanosPerFrame;
+            long now = System.nanoTime();
+            if (now - nextFrame > nanosPerFrame) {
+                nextFrame = now;
             }
+            this.sleeper.sleepUntil(nextFrame);
         }
-    } // run
+    } // runFrames
+
+    /**
+     * Run an animation in fixed simulation steps, drawing it once per frame.
+     * @param animation the animation that should run.
+     */
+    private void runSteps(SteppedAnimation animation) {
+        double dt = 1.0 / this.framesPerSecond;
+        if (this.headlessSurface != null) {
+            // Without a GUI there is no real time to keep up with - step and draw, as fast as possible.
+            while (!animation.shouldStop()) {
+                this.tick();
+                FrameEvent event = beginFrameEvent();
+                this.step(animation, dt);
+                this.draw(animation, this.headlessSurface);
+                this.showFrame(this.headlessSurface);
+                this.commitFrameEvent(event, animation, 1);
+            }
+            return;
+        }
+        long nanosPerStep = 1_000_000_000L / this.framesPerSecond;
+        long previousTime = System.nanoTime();
+        // The real time that has passed and wasn't simulated yet. The first step is performed right away.
+        long accumulator = nanosPerStep;
+        while (!animation.shouldStop()) {
+            FrameEvent event = beginFrameEvent();
+            long now = System.nanoTime();
+            accumulator += Math.min(now - previousTime, MAX_FRAME_NANOS);
+            previousTime = now;
+            // Catch up with the real time, one fixed step at a time.
+            int steps = 0;
+            while (accumulator >= nanosPerStep && steps < MAX_STEPS_PER_FRAME && !animation.shouldStop()) {
+                int runs = this.finishedRuns;
+                this.tick();
+                this.step(animation, dt);
+                accumulator -= nanosPerStep;
+                steps++;
+                // If the step ran another animation (like the pause screen), the time it took is not simulated.
+                if (runs != this.finishedRuns) {
+                    previousTime = System.nanoTime();
+                    accumulator = 0;
+                    break;
+                }
+            }
+            // If the machine can't keep up, drop the time that is left instead of spiraling further behind.
+            if (accumulator >= nanosPerStep) {
+                accumulator = accumulator % nanosPerStep;
+            }
+            // Draw the state after the steps, and show it.
+            DrawSurface drawSurface = this.beginFrame();
+            this.draw(animation, drawSurface);
+            this.showFrame(drawSurface);
+            this.commitFrameEvent(event, animation, steps);
+            // Wait until the next step is due.
+            this.sleeper.sleepUntil(previousTime + nanosPerStep - accumulator);
+        }
+    } // runSteps
 
 } // AnimationRunner
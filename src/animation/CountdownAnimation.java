@@ -1,4 +1,6 @@
 package animation;
+import java.util.Random;
+
 import invadersgame.Counter;
 import biuoop.DrawSurface;
 import sprites.Colors;
@@ -12,57 +14,52 @@ import sprites.SpriteCollection;
 public class CountdownAnimation implements Animation {
     // Declare the members of the class.
     private boolean stop;
-    private long startTimeMillis;
     private long passedTimeMillis;
     private long animationMillis;
     private int countFrom;
     private Counter currentNumber;
     private SpriteCollection gameScreen;
+    private Colors colors;
 
     /**
      * constructor.
      * @param numOfSeconds the number of seconds that the animation will be displayed for on the gameScreen.
      * @param countFrom a countdown from countFrom (some number) back to 1.
      * @param gameScreen the screen of the game that the animation will be displayed on.
+     * @param random the random generator that chooses the colors of the numbers.
      */
-    public CountdownAnimation(double numOfSeconds, int countFrom, SpriteCollection gameScreen) {
+    public CountdownAnimation(double numOfSeconds, int countFrom, SpriteCollection gameScreen, Random random) {
         this.stop = false;
         // The number of milliseconds that the animation will be displayed for. 1 second = 1000 milliseconds.
         this.animationMillis = (long) numOfSeconds * 1000;
-        // Save the time the animation started to calculate when the animation should stop.
-        this.startTimeMillis = System.currentTimeMillis();
         // The time that has passed in milliseconds since the first time that CountdownAnimation was called.
         this.passedTimeMillis = 0;
         this.countFrom = countFrom;
         // The current number in the countdown.
         this.currentNumber = new Counter(countFrom);
         this.gameScreen = gameScreen;
+        // Colors is an object that is in charge of the colors' creating.
+        this.colors = new Colors(random);
     }
 
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
         /*
          * The animation should be displayed for the given number of seconds.
-         * The System.currentTimeMillis() method is used to know when the animation has started and when it should stop.
-         * Each function call saves the startTimeMillis, calculates the differences of milliseconds between the calls,
-         * and adds it to passedTimeMillis.
+         * Each frame adds the time it stands for (dt seconds) to passedTimeMillis, so the countdown follows the time
+         * of the animation runner rather than the clock on the wall (and a headless run doesn't wait for it).
          */
-        this.passedTimeMillis = this.passedTimeMillis + System.currentTimeMillis() - this.startTimeMillis;
-        this.startTimeMillis = System.currentTimeMillis();
+        this.passedTimeMillis = this.passedTimeMillis + Math.round(dt * 1000);
         int textSize = 100;
-        // Colors is an object that is in charge of the colors' creating.
-        Colors colors = new Colors();
         // Each number of the countdown will appear on the screen for (num Of milliseconds / countFrom) milliseconds.
         long millisForNumber = this.animationMillis / countFrom;
         // The index of the current number (in an ascending counting).
         int numberIndex = (countFrom - currentNumber.getValue()) + 1;
         // Draw all the sprites of the game screen.
         this.gameScreen.drawAllOn(d);
-        d.setColor(colors.setRainbowColor(-1));
+        d.setColor(this.colors.setRainbowColor(-1));
         // Draw the current number in the countdown.
         d.drawText(d.getWidth() / 2 - 20, d.getHeight() / 2 + 20, Integer.toString(currentNumber.getValue()), textSize);
-        // Add the difference of the milliseconds between the calls to passedTimeMillis.
-        this.passedTimeMillis = this.passedTimeMillis + (System.currentTimeMillis() - startTimeMillis);
         // If the time limit of the current number has passed, continue to the next number.
         if (this.passedTimeMillis >= millisForNumber * numberIndex) {
             currentNumber.decrease(1);
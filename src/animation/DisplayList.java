@@ -0,0 +1,249 @@
+package animation;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.util.Arrays;
+
+import biuoop.DrawSurface;
+
+/**
+ * The DisplayList class is a DrawSurface that doesn't draw anything, but records the drawing commands (with their
+ * positions, colors, texts and images) in primitive arrays. A recorded frame can be replayed later on a real surface,
+ * possibly by another thread. The arrays are reused between frames, so recording a frame doesn't allocate objects.
+ */
+public class DisplayList implements DrawSurface {
+    // The codes of the drawing commands.
+    private static final int SET_COLOR = 0;
+    private static final int DRAW_LINE = 1;
+    private static final int DRAW_OVAL = 2;
+    private static final int FILL_OVAL = 3;
+    private static final int DRAW_RECTANGLE = 4;
+    private static final int FILL_RECTANGLE = 5;
+    private static final int DRAW_IMAGE = 6;
+    private static final int DRAW_CIRCLE = 7;
+    private static final int FILL_CIRCLE = 8;
+    private static final int DRAW_TEXT = 9;
+    private static final int DRAW_POLYGON = 10;
+    private static final int FILL_POLYGON = 11;
+
+    // Declare the members of the class.
+    private int width;
+    private int height;
+    private int[] commands = new int[256];
+    private int numberOfCommands = 0;
+    private int[] values = new int[1024];
+    private int numberOfValues = 0;
+    private Object[] objects = new Object[256];
+    private int numberOfObjects = 0;
+
+    /**
+     * Constructor.
+     * @param width the width of the recorded surface.
+     * @param height the height of the recorded surface.
+     */
+    public DisplayList(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Forget all the recorded commands, so a new frame can be recorded.
+     */
+    public void clear() {
+        Arrays.fill(this.objects, 0, this.numberOfObjects, null);
+        this.numberOfCommands = 0;
+        this.numberOfValues = 0;
+        this.numberOfObjects = 0;
+    }
+
+    /**
+     * @return the number of the recorded commands.
+     */
+    public int size() {
+        return this.numberOfCommands;
+    }
+
+    /**
+     * Draw all the recorded commands on the given surface, in the order they were recorded.
+     * @param d the surface to draw on.
+     */
+    public void replay(DrawSurface d) {
+        int value = 0;
+        int object = 0;
+        int[] v = this.values;
+        for (int i = 0; i < this.numberOfCommands; i++) {
+            switch (this.commands[i]) {
+                case SET_COLOR:
+                    d.setColor((Color) this.objects[object++]);
+                    break;
+                case DRAW_LINE:
+                    d.drawLine(v[value], v[value + 1], v[value + 2], v[value + 3]);
+                    value += 4;
+                    break;
+                case DRAW_OVAL:
+                    d.drawOval(v[value], v[value + 1], v[value + 2], v[value + 3]);
+                    value += 4;
+                    break;
+                case FILL_OVAL:
+                    d.fillOval(v[value], v[value + 1], v[value + 2], v[value + 3]);
+                    value += 4;
+                    break;
+                case DRAW_RECTANGLE:
+                    d.drawRectangle(v[value], v[value + 1], v[value + 2], v[value + 3]);
+                    value += 4;
+                    break;
+                case FILL_RECTANGLE:
+                    d.fillRectangle(v[value], v[value + 1], v[value + 2], v[value + 3]);
+                    value += 4;
+                    break;
+                case DRAW_IMAGE:
+                    d.drawImage(v[value], v[value + 1], (Image) this.objects[object++]);
+                    value += 2;
+                    break;
+                case DRAW_CIRCLE:
+                    d.drawCircle(v[value], v[value + 1], v[value + 2]);
+                    value += 3;
+                    break;
+                case FILL_CIRCLE:
+                    d.fillCircle(v[value], v[value + 1], v[value + 2]);
+                    value += 3;
+                    break;
+                case DRAW_TEXT:
+                    d.drawText(v[value], v[value + 1], (String) this.objects[object++], v[value + 2]);
+                    value += 3;
+                    break;
+                case DRAW_POLYGON:
+                    d.drawPolygon((Polygon) this.objects[object++]);
+                    break;
+                case FILL_POLYGON:
+                    d.fillPolygon((Polygon) this.objects[object++]);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown drawing command: " + this.commands[i]);
+            }
+        }
+    } // replay
+
+    /**
+     * Record a command with up to 4 values.
+     * @param command the code of the command.
+     * @param count the number of the values of the command.
+     * @param a the first value.
+     * @param b the second value.
+     * @param c the third value.
+     * @param e the fourth value.
+     */
+    private void record(int command, int count, int a, int b, int c, int e) {
+        if (this.numberOfCommands == this.commands.length) {
+            this.commands = Arrays.copyOf(this.commands, this.commands.length * 2);
+        }
+        if (this.numberOfValues + count > this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.values.length * 2);
+        }
+        this.commands[this.numberOfCommands++] = command;
+        int[] v = this.values;
+        int index = this.numberOfValues;
+        if (count > 0) {
+            v[index] = a;
+        }
+        if (count > 1) {
+            v[index + 1] = b;
+        }
+        if (count > 2) {
+            v[index + 2] = c;
+        }
+        if (count > 3) {
+            v[index + 3] = e;
+        }
+        this.numberOfValues += count;
+    }
+
+    /**
+     * Record an object (a color, an image, a text or a polygon) that the last command uses.
+     * @param object the object to record.
+     */
+    private void recordObject(Object object) {
+        if (this.numberOfObjects == this.objects.length) {
+            this.objects = Arrays.copyOf(this.objects, this.objects.length * 2);
+        }
+        this.objects[this.numberOfObjects++] = object;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.height;
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.record(SET_COLOR, 0, 0, 0, 0, 0);
+        this.recordObject(color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.record(DRAW_LINE, 4, x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        this.record(DRAW_OVAL, 4, x, y, w, h);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        this.record(FILL_OVAL, 4, x, y, w, h);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        this.record(DRAW_RECTANGLE, 4, x, y, w, h);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        this.record(FILL_RECTANGLE, 4, x, y, w, h);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        this.record(DRAW_IMAGE, 2, x, y, 0, 0);
+        this.recordObject(image);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.record(DRAW_CIRCLE, 3, x, y, r, 0);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.record(FILL_CIRCLE, 3, x, y, r, 0);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        this.record(DRAW_TEXT, 3, x, y, fontSize, 0);
+        this.recordObject(text);
+    }
+
+    @Override
+    public void drawPolygon(Polygon polygon) {
+        this.record(DRAW_POLYGON, 0, 0, 0, 0, 0);
+        // A polygon can be changed after it was drawn, so a copy of it is kept.
+        this.recordObject(new Polygon(polygon.xpoints, polygon.ypoints, polygon.npoints));
+    }
+
+    @Override
+    public void fillPolygon(Polygon polygon) {
+        this.record(FILL_POLYGON, 0, 0, 0, 0, 0);
+        this.recordObject(new Polygon(polygon.xpoints, polygon.ypoints, polygon.npoints));
+    }
+
+} // class DisplayList
@@ -1,14 +1,11 @@
 package animation;
 
 import java.awt.*;
-import java.io.IOException;
-import java.util.Objects;
 
 import biuoop.DrawSurface;
 import highscores.HighScoresTable;
 import highscores.ScoreInfo;
-
-import javax.imageio.ImageIO;
+import sprites.Assets;
 
 /**
  * The HighScoresAnimation class represents the animation of the current highest scores of the players.
@@ -28,22 +25,10 @@ public class HighScoresAnimation implements Animation {
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
         // Draw the high scores table.
-        Image backgroundImage = null;
-        try {
-            backgroundImage = ImageIO.read(
-                    Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResourceAsStream(
-                            "background_images/space.jpg")));
-        } catch (IOException ignored) {
-        }
+        Image backgroundImage = Assets.getImage("background_images/space.jpg");
         d.drawImage(0, 0, backgroundImage);
 
-        Image highScoresImage = null;
-        try {
-            highScoresImage = ImageIO.read(
-                    Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResourceAsStream(
-                            "general_images/HighScores.png")));
-        } catch (IOException ignored) {
-        }
+        Image highScoresImage = Assets.getImage("general_images/HighScores.png");
         d.drawImage(100, 20, highScoresImage);
 
         d.setColor(Color.darkGray);
@@ -1,17 +1,14 @@
 package animation;
 
 import java.awt.*;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 import animation.AnimationRunner;
 import biuoop.DrawSurface;
 import biuoop.KeyboardSensor;
 import menu.Task;
-
-import javax.imageio.ImageIO;
+import sprites.Assets;
 
 /**
  * The MenuAnimation class represents a menu animation. The menu is a screen stating a list of several options that the
@@ -48,22 +45,10 @@ public class MenuAnimation<T> implements menu.Menu<T> {
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
         // Draw the primary screen of the menu.
-        Image backgroundImage = null;
-        try {
-            backgroundImage = ImageIO.read(
-                    Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResourceAsStream(
-                            "background_images/space.jpg")));
-        } catch (IOException ignored) {
-        }
+        Image backgroundImage = Assets.getImage("background_images/space.jpg");
         d.drawImage(0, 0, backgroundImage);
 
-        Image spaceInvadersImage = null;
-        try {
-            spaceInvadersImage = ImageIO.read(
-                    Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResourceAsStream(
-                            "general_images/SpaceInvaders.png")));
-        } catch (IOException ignored) {
-        }
+        Image spaceInvadersImage = Assets.getImage("general_images/SpaceInvaders.png");
         d.drawImage(40, 80, spaceInvadersImage);
 
         d.setColor(new Color(255, 30, 0));
@@ -1,41 +1,90 @@
 package animation;
 
 import biuoop.DrawSurface;
+import biuoop.KeyboardSensor;
+import levels.GameLevel;
+import sprites.Assets;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.io.IOException;
-import java.util.Objects;
 
 /**
- * The PauseScreenAnimation is an animation displayed when the game is paused.
+ * The PauseScreenAnimation is an animation displayed when the game is paused. When it's given the level, the level
+ * can be quick-saved with "s" and a quick save can be loaded with "l".
  */
 public class PauseScreenAnimation implements Animation {
+    // The keys of the quick save and the quick load.
+    public static final String SAVE_KEY = "s";
+    public static final String LOAD_KEY = "l";
+
     // Declare the members of the class.
     private boolean stop;
+    private KeyboardSensor keyboard;
+    private GameLevel level;
+    // The keys are handled once per press.
+    private boolean savePressed;
+    private boolean loadPressed;
+    // What the last save or load did.
+    private String status;
 
     /**
      * constructor.
      */
     public PauseScreenAnimation() {
+        this(null, null);
+    }
+
+    /**
+     * Constructor - a pause screen that saves and loads the given level.
+     * @param keyboard the keyboard sensor.
+     * @param level the level that is paused, or null if it can't be saved.
+     */
+    public PauseScreenAnimation(KeyboardSensor keyboard, GameLevel level) {
         // Initialize the variable that is in charge of stopping the animation with false.
         this.stop = false;
+        this.keyboard = keyboard;
+        this.level = level;
+        this.savePressed = keyboard != null && keyboard.isPressed(SAVE_KEY);
+        this.loadPressed = keyboard != null && keyboard.isPressed(LOAD_KEY);
+        this.status = "";
     }
 
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
-        // Draw the pause screen.
-        Image backgroundImage = null;
-        try {
-            backgroundImage = ImageIO.read(
-                    Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResourceAsStream(
-                            "background_images/space.jpg")));
-        } catch (IOException ignored) {
+        if (this.level != null) {
+            this.handleKeys();
         }
+        // Draw the pause screen.
+        Image backgroundImage = Assets.getImage("background_images/space.jpg");
         d.drawImage(0, 0, backgroundImage);
         d.setColor(new Color(255, 30, 0));
         // If "c" key is pressed, the animation ends.
         d.drawText(165, d.getHeight() / 2, "Paused -- press \"c\" to continue", 32);
+        if (this.level != null) {
+            d.drawText(200, d.getHeight() / 2 + 50, "\"s\" to quick-save, \"l\" to quick-load", 24);
+            d.drawText(200, d.getHeight() / 2 + 90, this.status, 24);
+        }
+    }
+
+    /**
+     * Save or load the level when their keys are pressed.
+     */
+    private void handleKeys() {
+        boolean save = this.keyboard.isPressed(SAVE_KEY);
+        boolean load = this.keyboard.isPressed(LOAD_KEY);
+        try {
+            if (save && !this.savePressed) {
+                this.level.quickSave();
+                this.status = "Saved";
+            } else if (load && !this.loadPressed) {
+                this.level.quickLoad();
+                this.status = "Loaded -- the game goes on from the save";
+            }
+        } catch (IOException e) {
+            this.status = e.getMessage();
+        }
+        this.savePressed = save;
+        this.loadPressed = load;
     }
 
     @Override
@@ -43,4 +92,4 @@ public class PauseScreenAnimation implements Animation {
         return this.stop;
     }
 
-} // class PauseScreenAnimation
\ No newline at end of file
+} // class PauseScreenAnimation
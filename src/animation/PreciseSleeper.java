@@ -0,0 +1,47 @@
+package animation;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The PreciseSleeper class waits until a given moment with a sub-millisecond precision. It sleeps while the moment is
+ * far away, and spins for the last part of the wait, since the operating system may wake a sleeping thread late.
+ */
+public class PreciseSleeper {
+    // The last part of the wait (in nanoseconds) that is spent spinning instead of sleeping.
+    private static final long DEFAULT_SPIN_NANOS = 1_500_000;
+
+    // Declare the members of the class.
+    private long spinNanos;
+
+    /**
+     * Constructor - create a sleeper that spins for the last 1.5 milliseconds of every wait.
+     */
+    public PreciseSleeper() {
+        this(DEFAULT_SPIN_NANOS);
+    }
+
+    /**
+     * Constructor.
+     * @param spinNanos the last part of every wait (in nanoseconds) that is spent spinning.
+     */
+    public PreciseSleeper(long spinNanos) {
+        this.spinNanos = spinNanos;
+    }
+
+    /**
+     * Wait until System.nanoTime() reaches the given deadline.
+     * @param deadline the moment to wait for, in the time scale of System.nanoTime().
+     */
+    public void sleepUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > 0) {
+            if (remaining > this.spinNanos) {
+                LockSupport.parkNanos(remaining - this.spinNanos);
+            } else {
+                Thread.onSpinWait();
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+} // class PreciseSleeper
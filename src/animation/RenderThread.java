@@ -0,0 +1,174 @@
+package animation;
+
+import biuoop.DrawSurface;
+import biuoop.GUI;
+import profiler.FrameProfiler;
+
+/**
+ * The RenderThread class draws the frames of the game on the GUI in a thread of its own, so a slow gui.show doesn't
+ * hold the simulation back.
+ * The simulation records every frame in a DisplayList and publishes it. Three display lists take turns: the one that
+ * is being recorded, the latest published one, and the one that is being drawn. Publishing only swaps the recorded
+ * list with the latest one, so neither thread ever waits for the other, and a published frame isn't changed until the
+ * render thread is done with it. If the simulation publishes faster than the frames are drawn, the older frames are
+ * skipped.
+ * Every frame that is drawn is timed (the replay and gui.show), and the time is reported to the profiler of the runner,
+ * so a stutter of the drawing can be told apart from a stutter of the simulation.
+ */
+public class RenderThread implements Runnable {
+    // Declare the members of the class.
+    private GUI gui;
+    // The profiler that the time of drawing the frames is reported to (null if it isn't reported).
+    private FrameProfiler profiler;
+    private DisplayList recording;
+    private DisplayList latest;
+    private DisplayList drawing;
+    // True if the latest display list holds a frame that wasn't drawn yet.
+    private boolean hasNewFrame = false;
+    private volatile boolean running = false;
+    private Thread thread = null;
+    private long framesDrawn = 0;
+    private long framesSkipped = 0;
+
+    /**
+     * Constructor.
+     * @param gui the Graphical User Interface that the frames are drawn on.
+     */
+    public RenderThread(GUI gui) {
+        this(gui, null);
+    }
+
+    /**
+     * Constructor.
+     * @param gui the Graphical User Interface that the frames are drawn on.
+     * @param profiler the profiler that the time of drawing the frames is reported to, or null.
+     */
+    public RenderThread(GUI gui, FrameProfiler profiler) {
+        this.gui = gui;
+        this.profiler = profiler;
+        DrawSurface surface = gui.getDrawSurface();
+        int width = surface.getWidth();
+        int height = surface.getHeight();
+        this.recording = new DisplayList(width, height);
+        this.latest = new DisplayList(width, height);
+        this.drawing = new DisplayList(width, height);
+    }
+
+    /**
+     * Start the render thread. It's a daemon thread, so it doesn't keep the program alive.
+     */
+    public synchronized void start() {
+        if (this.running) {
+            return;
+        }
+        this.running = true;
+        this.thread = new Thread(this, "render");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Stop the render thread and wait for it to end.
+     */
+    public void stop() {
+        Thread renderer;
+        synchronized (this) {
+            this.running = false;
+            renderer = this.thread;
+            this.thread = null;
+            this.notifyAll();
+        }
+        if (renderer != null && renderer != Thread.currentThread()) {
+            try {
+                renderer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return true if the render thread is running, false otherwise.
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Get an empty display list to record the next frame in. Only the simulation thread may call this method.
+     * @return the display list of the next frame.
+     */
+    public DrawSurface beginFrame() {
+        this.recording.clear();
+        return this.recording;
+    }
+
+    /**
+     * Publish the frame that was recorded since the last call of beginFrame, so the render thread draws it.
+     */
+    public synchronized void publish() {
+        if (this.hasNewFrame) {
+            this.framesSkipped++;
+        }
+        DisplayList published = this.recording;
+        this.recording = this.latest;
+        this.latest = published;
+        this.hasNewFrame = true;
+        this.notifyAll();
+    }
+
+    /**
+     * @return the number of the frames that were drawn on the GUI.
+     */
+    public synchronized long getFramesDrawn() {
+        return this.framesDrawn;
+    }
+
+    /**
+     * @return the number of the published frames that were replaced by a newer frame before they were drawn.
+     */
+    public synchronized long getFramesSkipped() {
+        return this.framesSkipped;
+    }
+
+    /**
+     * Wait for a new frame and take it for drawing.
+     * @return true if there is a new frame to draw, false if the thread should stop.
+     */
+    private synchronized boolean takeFrame() {
+        while (this.running && !this.hasNewFrame) {
+            try {
+                this.wait();
+            } catch (InterruptedException e) {
+                this.running = false;
+            }
+        }
+        if (!this.running) {
+            return false;
+        }
+        DisplayList taken = this.latest;
+        this.latest = this.drawing;
+        this.drawing = taken;
+        this.hasNewFrame = false;
+        return true;
+    }
+
+    /**
+     * Draw the latest published frame on the GUI, again and again, until the thread is stopped.
+     */
+    public void run() {
+        while (this.takeFrame()) {
+            long start = System.nanoTime();
+            DrawSurface d = this.gui.getDrawSurface();
+            this.drawing.replay(d);
+            this.gui.show(d);
+            if (this.profiler != null) {
+                this.profiler.addRenderTime(System.nanoTime() - start);
+            }
+            synchronized (this) {
+                this.framesDrawn++;
+            }
+        }
+    } // run
+
+} // class RenderThread
@@ -10,11 +10,15 @@ import highscores.HighScoresTable;
 import levels.GameFlow;
 import levels.LevelInformation;
 import menu.Task;
+import replay.RecordingKeyboardSensor;
 
 /**
  * The StartGameTask class represents a task of starting the game.
  */
 public class StartGameTask implements Task<Void> {
+    // The file of the quick save of the game.
+    public static final String QUICK_SAVE_FILE = "quicksave.sav";
+
     // Declare the members of the class.
     private KeyboardSensor keyboard;
     private AnimationRunner animationRunner;
@@ -22,6 +26,8 @@ public class StartGameTask implements Task<Void> {
     private HighScoresTable highScoresTable;
     private List<LevelInformation> levels;
     private int numberOfLives;
+    // The file that the keys of every game are recorded in (null if the games aren't recorded).
+    private File replayFile;
 
     /**
      * Constructor.
@@ -40,15 +46,30 @@ public class StartGameTask implements Task<Void> {
         this.highScoresTable = highScoresTable;
         this.levels = levels;
         this.numberOfLives = lives;
+        this.replayFile = null;
+    }
+
+    /**
+     * Record the keys of every game that the task starts, so the game can be replayed.
+     * @param file the file to save the replay of the last game in, or null to stop recording.
+     */
+    public void setReplayFile(File file) {
+        this.replayFile = file;
     }
 
     /**
      * Run the task of starting the game.
      */
     public Void run() {
-        GameFlow game = new GameFlow(this.animationRunner, this.keyboard, this.dialogManager,
-            this.highScoresTable, this.numberOfLives);
-        game.runLevels(this.levels);
+        if (this.replayFile != null) {
+            this.runRecorded();
+        } else {
+            GameFlow game = new GameFlow(this.animationRunner, this.keyboard, this.dialogManager,
+                this.highScoresTable, this.numberOfLives);
+            // A recorded game isn't saved and loaded, so its replay plays the same game.
+            game.setQuickSaveFile(new File(QUICK_SAVE_FILE));
+            game.runLevels(this.levels);
+        }
         File highScoresFile = new File("highscores.txt");
         try {
             highScoresTable.save(highScoresFile);
@@ -57,4 +78,25 @@ public class StartGameTask implements Task<Void> {
         }
         return null;
     }
+
+    /**
+     * Run a game whose keys are recorded in every tick of the runner, and save its replay.
+     */
+    private void runRecorded() {
+        RecordingKeyboardSensor recorder = new RecordingKeyboardSensor(this.keyboard, System.nanoTime(),
+            this.numberOfLives);
+        this.animationRunner.setTickListener(recorder::tick);
+        GameFlow game = new GameFlow(this.animationRunner, recorder, this.dialogManager,
+            this.highScoresTable, this.numberOfLives, recorder.getSeed());
+        try {
+            game.runLevels(this.levels);
+        } finally {
+            this.animationRunner.setTickListener(null);
+        }
+        try {
+            recorder.finish(game.getScore()).save(this.replayFile);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package animation;
+
+import biuoop.DrawSurface;
+
+/**
+ * The SteppedAnimation interface represents an animation whose simulation is separated from its drawing, so the
+ * animation runner can advance it in fixed steps and draw it independently of the number of the steps.
+ */
+public interface SteppedAnimation extends Animation {
+
+    /**
+     * Advance the simulation of the animation by one step.
+     * @param dt the number of seconds that the step simulates.
+     */
+    void step(double dt);
+
+    /**
+     * Draw the current state of the animation.
+     * @param d a draw surface you can draw on.
+     */
+    void draw(DrawSurface d);
+
+} // interface SteppedAnimation
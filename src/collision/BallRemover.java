@@ -5,6 +5,7 @@ import invadersgame.Paddle;
 import levels.GameLevel;
 import sprites.Ball;
 import sprites.Block;
+import sprites.Shield;
 
 /**
  * The BallRemover class is in charge of removing balls and updating a counter of the available balls.
@@ -36,4 +37,10 @@ public class BallRemover implements HitListener {
         this.ballsToRemove.decrease(1);
     }
 
+    @Override
+    public void hitEvent(Shield shield, Ball hitter) {
+        hitter.removeFromGame(this.gameLevel);
+        this.ballsToRemove.decrease(1);
+    }
+
 } // class BallRemover
\ No newline at end of file
@@ -5,6 +5,7 @@ import invadersgame.Paddle;
 import levels.GameLevel;
 import sprites.Ball;
 import sprites.Block;
+import sprites.Shield;
 
 /**
  * The BlockRemover class is in charge of removing blocks from the game,
@@ -27,10 +28,11 @@ public class BlockRemover implements HitListener {
 
     @Override
     public void hitEvent(Block beingHit, Ball hitter) {
-        if (hitter.getVelocity().getDy() < 0 || (!beingHit.isEnemy()) ) {
+        // An enemy is removed only by the shots of the player.
+        if (hitter.getLayer() == CollisionLayers.PLAYER_SHOT || (!beingHit.isEnemy()) ) {
             if (beingHit.getHitPoints() == 0) {
-                // When a block is removed from the game, the hit listener of it also should be removed.
-                beingHit.removeHitListener(this);
+                // A removed block can't be hit again, so the listener stays on it - a block that comes back when a
+                // snapshot of the level is restored needs no listeners to be added again.
                 beingHit.removeFromGame(this.game);
                 this.remainingBlocks.decrease(1);
             }
@@ -42,4 +44,9 @@ public class BlockRemover implements HitListener {
     public void hitEvent(Paddle paddle, Ball hitter) {
     }
 
+    // The shield destroys its own cells, so do nothing when hit event occurs with the shield.
+    @Override
+    public void hitEvent(Shield shield, Ball hitter) {
+    }
+
 } // class BlockRemover
\ No newline at end of file
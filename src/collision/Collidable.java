@@ -13,6 +13,11 @@ public interface Collidable {
      */
     Rectangle getCollisionRectangle();
 
+    /**
+     * @return the layer of the object (one of the layers of CollisionLayers).
+     */
+    int getLayer();
+
     /**
      * Notify the object that we collided with at collisionPoint with a given velocity.
      * @param hitter the ball that collided with the object.
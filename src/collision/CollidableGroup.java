@@ -0,0 +1,37 @@
+package collision;
+
+import geometry.Rectangle;
+import geometry.SlabIntersection;
+
+/**
+ * The CollidableGroup interface represents a group of collidables that is kept in the game environment as a single
+ * object. The environment checks only the bounds of the group, and the group finds which of its members is hit.
+ */
+public interface CollidableGroup {
+    /**
+     * @return a rectangle that bounds all the members of the group.
+     */
+    Rectangle getBounds();
+
+    /**
+     * @return the smallest width or height of a member of the group.
+     */
+    double getSmallestMemberSize();
+
+    /**
+     * @return the layer of all the members of the group (one of the layers of CollisionLayers).
+     */
+    int getLayer();
+
+    /**
+     * Find the closest member of the group that a circle moving from (x1, y1) to (x2, y2) touches.
+     * @param x1 the x value of the start of the movement.
+     * @param y1 the y value of the start of the movement.
+     * @param x2 the x value of the end of the movement.
+     * @param y2 the y value of the end of the movement.
+     * @param radius the radius of the moving circle (0 for a point).
+     * @param result the intersection that is filled with the details of the collision (if there is one).
+     * @return the closest member that the movement collides with, or null if there isn't one.
+     */
+    Collidable castRay(double x1, double y1, double x2, double y2, double radius, SlabIntersection result);
+}
@@ -0,0 +1,39 @@
+package collision;
+
+/**
+ * The CollisionLayers class holds the layers of the objects of the game. Every collidable belongs to a single layer
+ * (a single bit), and every ball has a mask of the layers it can collide with, so the game environment doesn't even
+ * check the collidables that a ball can't hit (like the enemies for the shots of the enemies).
+ * The layer of a ball also tells the listeners who fired it.
+ */
+public final class CollisionLayers {
+    // The layers of the collidables.
+    public static final int BORDER = 1;
+    public static final int PADDLE = 1 << 1;
+    public static final int ENEMY = 1 << 2;
+    public static final int SHIELD = 1 << 3;
+    // The layers of the balls.
+    public static final int PLAYER_SHOT = 1 << 4;
+    public static final int ENEMY_SHOT = 1 << 5;
+    // A mask of all the layers.
+    public static final int ALL = -1;
+    // The layers that the shots of the player and of the enemies can collide with.
+    public static final int PLAYER_SHOT_MASK = BORDER | ENEMY | SHIELD;
+    public static final int ENEMY_SHOT_MASK = BORDER | PADDLE | SHIELD;
+
+    /**
+     * The class has only constants and static methods, so it can't be created.
+     */
+    private CollisionLayers() {
+    }
+
+    /**
+     * @param mask the mask of the layers that a ball can collide with.
+     * @param layer the layer of a collidable.
+     * @return true if a ball with the given mask can collide with a collidable of the given layer, false otherwise.
+     */
+    public static boolean canCollide(int mask, int layer) {
+        return (mask & layer) != 0;
+    }
+
+} // class CollisionLayers
@@ -3,6 +3,7 @@ package collision;
 import invadersgame.Paddle;
 import sprites.Ball;
 import sprites.Block;
+import sprites.Shield;
 
 /**
  * The HitListener interface is an interface in which objects that want to be notified of hit events should implement,
@@ -21,4 +22,10 @@ public interface HitListener {
      */
     void hitEvent(Paddle beingHit, Ball hitter);
 
+    /**
+     * @param beingHit the method is called whenever a cell of the shield is hit.
+     * @param hitter the ball that hit the shield.
+     */
+    void hitEvent(Shield beingHit, Ball hitter);
+
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package collision;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import invadersgame.Paddle;
+import sprites.Ball;
+import sprites.Block;
+import sprites.Shield;
+
+/**
+ * The HitListeners class keeps the hit listeners of a HitNotifier in a copy-on-write array. Adding or removing a
+ * listener (which is rare) replaces the array with a new one, so notifying the listeners (which happens on every hit)
+ * walks over the current array without copying it, even when a listener adds or removes listeners while it's
+ * notified. A listener that is already in the array isn't added again.
+ */
+public class HitListeners {
+    // The array of a notifier that has no listeners.
+    private static final HitListener[] EMPTY = new HitListener[0];
+
+    // Declare the members of the class.
+    private HitListener[] listeners = EMPTY;
+
+    /**
+     * Add a listener, unless it was already added.
+     * @param hl the listener to add.
+     * @return true if the listener was added, false if it was already there.
+     */
+    public boolean add(HitListener hl) {
+        if (this.indexOf(hl) >= 0) {
+            return false;
+        }
+        HitListener[] updated = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+        updated[this.listeners.length] = hl;
+        this.listeners = updated;
+        return true;
+    }
+
+    /**
+     * Remove a listener.
+     * @param hl the listener to remove.
+     * @return true if the listener was removed, false if it wasn't there.
+     */
+    public boolean remove(HitListener hl) {
+        int index = this.indexOf(hl);
+        if (index < 0) {
+            return false;
+        }
+        if (this.listeners.length == 1) {
+            this.listeners = EMPTY;
+            return true;
+        }
+        HitListener[] updated = new HitListener[this.listeners.length - 1];
+        System.arraycopy(this.listeners, 0, updated, 0, index);
+        System.arraycopy(this.listeners, index + 1, updated, index, updated.length - index);
+        this.listeners = updated;
+        return true;
+    }
+
+    /**
+     * @param hl a listener.
+     * @return the index of the listener in the array, or -1 if it isn't there.
+     */
+    private int indexOf(HitListener hl) {
+        for (int i = 0; i < this.listeners.length; i++) {
+            if (this.listeners[i] == hl) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of the listeners.
+     */
+    public int size() {
+        return this.listeners.length;
+    }
+
+    /**
+     * @return a list of the current listeners, that can't be changed.
+     */
+    public List<HitListener> toList() {
+        return Collections.unmodifiableList(Arrays.asList(this.listeners));
+    }
+
+    /**
+     * Notify the listeners that a block was hit.
+     * @param beingHit the block that was hit.
+     * @param hitter the ball that hit the block.
+     */
+    public void notifyHit(Block beingHit, Ball hitter) {
+        // Listeners that are added or removed during the loop change only the arrays that come after this one.
+        HitListener[] current = this.listeners;
+        for (int i = 0; i < current.length; i++) {
+            current[i].hitEvent(beingHit, hitter);
+        }
+    }
+
+    /**
+     * Notify the listeners that a paddle was hit.
+     * @param beingHit the paddle that was hit.
+     * @param hitter the ball that hit the paddle.
+     */
+    public void notifyHit(Paddle beingHit, Ball hitter) {
+        HitListener[] current = this.listeners;
+        for (int i = 0; i < current.length; i++) {
+            current[i].hitEvent(beingHit, hitter);
+        }
+    }
+
+    /**
+     * Notify the listeners that a shield was hit.
+     * @param beingHit the shield that was hit.
+     * @param hitter the ball that hit the shield.
+     */
+    public void notifyHit(Shield beingHit, Ball hitter) {
+        HitListener[] current = this.listeners;
+        for (int i = 0; i < current.length; i++) {
+            current[i].hitEvent(beingHit, hitter);
+        }
+    }
+
+} // class HitListeners
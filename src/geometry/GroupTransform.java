@@ -0,0 +1,59 @@
+package geometry;
+
+/**
+ * The GroupTransform class represents a translation that is shared by a group of shapes. Every shape of the group is
+ * kept as an offset from the origin of the group, so moving the whole group is a single change of its origin.
+ */
+public class GroupTransform {
+    // Declare the members of the class.
+    private double x;
+    private double y;
+    // The version is increased on every change, so the shapes of the group know when they should be updated.
+    private int version;
+
+    /**
+     * Constructor.
+     * @param x the x value of the origin of the group.
+     * @param y the y value of the origin of the group.
+     */
+    public GroupTransform(double x, double y) {
+        this.x = x;
+        this.y = y;
+        this.version = 0;
+    }
+
+    /**
+     * @return the x value of the origin of the group.
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * @return the y value of the origin of the group.
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * @return the number of the changes that were made to the origin.
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Move the origin of the group to the given position.
+     * @param newX the new x value of the origin.
+     * @param newY the new y value of the origin.
+     */
+    public void moveTo(double newX, double newY) {
+        if (newX != this.x || newY != this.y) {
+            this.x = newX;
+            this.y = newY;
+            this.version++;
+        }
+    }
+
+} // class GroupTransform
@@ -4,12 +4,17 @@ import java.util.List;
 
 /**
  * The Rectangle class represents a rectangle which have an upper-left point, width and height.
+ * A rectangle can be moved in place, so the things that move in every step don't create a new rectangle (or point)
+ * for it.
  */
 public class Rectangle {
     // Declare the members of the class.
-    private Point upperLeft;
+    private double x;
+    private double y;
     private double width;
     private double height;
+    // The upper left point, which is created when it's asked for (null after the rectangle moved).
+    private Point upperLeft;
 
     /**
      * Constructor - create a new rectangle with an upper left point, width and height.
@@ -18,6 +23,8 @@ public class Rectangle {
      * @param height the height of the rectangle.
      */
     public Rectangle(Point upperLeft, double width, double height) {
+        this.x = upperLeft.getX();
+        this.y = upperLeft.getY();
         this.upperLeft = upperLeft;
         this.width = width;
         this.height = height;
@@ -53,10 +60,27 @@ public class Rectangle {
         this.height = blockHeight;
     }
 
+    /**
+     * @return the x value of the upper left point of the rectangle.
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * @return the y value of the upper left point of the rectangle.
+     */
+    public double getY() {
+        return this.y;
+    }
+
     /**
      * @return the upper left point of the rectangle.
      */
     public Point getUpperLeft() {
+        if (this.upperLeft == null) {
+            this.upperLeft = new Point(this.x, this.y);
+        }
         return this.upperLeft;
     }
 
@@ -65,23 +89,51 @@ public class Rectangle {
      * @param newPosition the new upper left point of the rectangle.
      */
     public void setUpperLeft(Point newPosition) {
+        this.x = newPosition.getX();
+        this.y = newPosition.getY();
         this.upperLeft = newPosition;
     }
 
+    /**
+     * Move the rectangle, in place.
+     * @param newX the new x value of the upper left point of the rectangle.
+     * @param newY the new y value of the upper left point of the rectangle.
+     */
+    public void moveTo(double newX, double newY) {
+        if (newX != this.x || newY != this.y) {
+            this.x = newX;
+            this.y = newY;
+            this.upperLeft = null;
+        }
+    }
+
+    /**
+     * Move the rectangle and change its size, in place.
+     * @param newX the new x value of the upper left point of the rectangle.
+     * @param newY the new y value of the upper left point of the rectangle.
+     * @param newWidth the new width of the rectangle.
+     * @param newHeight the new height of the rectangle.
+     */
+    public void set(double newX, double newY, double newWidth, double newHeight) {
+        this.moveTo(newX, newY);
+        this.width = newWidth;
+        this.height = newHeight;
+    }
+
     /**
      * @return the left edge of the rectangle.
      */
     public Line getLeftEdge() {
-        Point lowerLeft = new Point(this.upperLeft.getX(), this.upperLeft.getY() + this.height);
-        return new Line(this.upperLeft, lowerLeft);
+        Point lowerLeft = new Point(this.x, this.y + this.height);
+        return new Line(this.getUpperLeft(), lowerLeft);
     }
 
     /**
      * @return the right edge of the rectangle.
      */
     public Line getRightEdge() {
-        Point upperRight = new Point(this.upperLeft.getX() + this.width, this.upperLeft.getY());
-        Point lowerRight = new Point(this.upperLeft.getX() + this.width, this.upperLeft.getY() + this.height);
+        Point upperRight = new Point(this.x + this.width, this.y);
+        Point lowerRight = new Point(this.x + this.width, this.y + this.height);
         return new Line(upperRight, lowerRight);
     }
 
@@ -89,16 +141,16 @@ public class Rectangle {
      * @return the upper edge of the rectangle.
      */
     public Line getUpperEdge() {
-        Point upperRight = new Point(this.upperLeft.getX() + this.width, this.upperLeft.getY());
-        return new Line(this.upperLeft, upperRight);
+        Point upperRight = new Point(this.x + this.width, this.y);
+        return new Line(this.getUpperLeft(), upperRight);
     }
 
     /**
      * @return the lower edge of the rectangle.
      */
     public Line getLowerEdge() {
-        Point lowerLeft = new Point(this.upperLeft.getX(), this.upperLeft.getY() + this.height);
-        Point lowerRight = new Point(this.upperLeft.getX() + this.width, this.upperLeft.getY() + this.height);
+        Point lowerLeft = new Point(this.x, this.y + this.height);
+        Point lowerRight = new Point(this.x + this.width, this.y + this.height);
         return new Line(lowerLeft, lowerRight);
     }
 
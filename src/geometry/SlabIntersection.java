@@ -0,0 +1,310 @@
+package geometry;
+
+/**
+ * The SlabIntersection class intersects a directed segment with an axis-aligned rectangle using the slab method
+ * (Liang-Barsky): the segment is clipped against the x-range and the y-range of the rectangle, working on primitive
+ * doubles only. An object of this class keeps the result of the last intersection, so it can be reused by the caller
+ * without allocating new points or lines.
+ * A circle that moves along the segment is intersected the same way: the rectangle is grown by the radius, and when
+ * the circle enters the grown rectangle near one of its corners, the circle is intersected with that corner (the
+ * rectangle grown by a radius has rounded corners).
+ */
+public class SlabIntersection {
+    // The faces of the rectangle that the segment can enter through.
+    public static final int NONE = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int TOP = 3;
+    public static final int BOTTOM = 4;
+    // The start of the segment is already inside the rectangle.
+    public static final int INSIDE = 5;
+    /*
+     * Epsilon is used to allow some tolerance in the comparison, since numeric computations involving floating
+     * point arithmetic may be imprecise (the same tolerance as the one of the Line class).
+     */
+    private static final double EPSILON = 0.007;
+
+    // Declare the members of the class.
+    private double entry;
+    private int face;
+    private double x;
+    private double y;
+    private double contactX;
+    private double contactY;
+
+    /**
+     * Constructor - create an empty result.
+     */
+    public SlabIntersection() {
+        this.face = NONE;
+    }
+
+    /**
+     * @param x1 the x value of the start of the segment.
+     * @param y1 the y value of the start of the segment.
+     * @param x2 the x value of the end of the segment.
+     * @param y2 the y value of the end of the segment.
+     * @param rect the rectangle that it's checked whether the segment enters.
+     * @return true if the segment enters the rectangle, false otherwise.
+     */
+    public boolean intersect(double x1, double y1, double x2, double y2, Rectangle rect) {
+        return this.intersect(x1, y1, x2, y2, rect.getX(), rect.getY(), rect.getX() + rect.getWidth(),
+            rect.getY() + rect.getHeight());
+    }
+
+    /**
+     * Intersect the segment that goes from (x1, y1) to (x2, y2) with the given rectangle.
+     * If they intersect, the entry part, the face and the entry point are kept in this object.
+     * A segment that starts inside the rectangle intersects it at its start (with the INSIDE face). A segment that
+     * starts on the border of the rectangle (within the tolerance) intersects it at its start if it moves into the
+     * rectangle, with the face it enters through, and doesn't intersect it if it leaves it or slides along it.
+     * @param x1 the x value of the start of the segment.
+     * @param y1 the y value of the start of the segment.
+     * @param x2 the x value of the end of the segment.
+     * @param y2 the y value of the end of the segment.
+     * @param left the x value of the left edge of the rectangle.
+     * @param top the y value of the upper edge of the rectangle.
+     * @param right the x value of the right edge of the rectangle.
+     * @param bottom the y value of the lower edge of the rectangle.
+     * @return true if the segment enters the rectangle, false otherwise.
+     */
+    public boolean intersect(double x1, double y1, double x2, double y2,
+        double left, double top, double right, double bottom) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        // The parts of the segment (0 is its start and 1 is its end) where it enters and leaves the rectangle.
+        double enter = Double.NEGATIVE_INFINITY;
+        double leave = Double.POSITIVE_INFINITY;
+        int enterFace = NONE;
+        // Clip the segment against the x-slab of the rectangle.
+        if (dx == 0) {
+            if (x1 < left - EPSILON || x1 > right + EPSILON) {
+                return false;
+            }
+        } else {
+            double toLeft = (left - EPSILON - x1) / dx;
+            double toRight = (right + EPSILON - x1) / dx;
+            if (dx > 0) {
+                enter = toLeft;
+                enterFace = LEFT;
+                leave = toRight;
+            } else {
+                enter = toRight;
+                enterFace = RIGHT;
+                leave = toLeft;
+            }
+        }
+        // Clip the segment against the y-slab of the rectangle.
+        if (dy == 0) {
+            if (y1 < top - EPSILON || y1 > bottom + EPSILON) {
+                return false;
+            }
+        } else {
+            double toTop = (top - EPSILON - y1) / dy;
+            double toBottom = (bottom + EPSILON - y1) / dy;
+            double near = dy > 0 ? toTop : toBottom;
+            double far = dy > 0 ? toBottom : toTop;
+            if (near > enter) {
+                enter = near;
+                enterFace = dy > 0 ? TOP : BOTTOM;
+            }
+            if (far < leave) {
+                leave = far;
+            }
+        }
+        if (enter > leave || leave < 0 || enter > 1) {
+            return false;
+        }
+        if (enter < 0) {
+            boolean onLeft = x1 <= left;
+            boolean onRight = x1 >= right;
+            boolean onTop = y1 <= top;
+            boolean onBottom = y1 >= bottom;
+            if (!onLeft && !onRight && !onTop && !onBottom) {
+                enterFace = INSIDE;
+            } else {
+                // The segment starts on the border, within the tolerance. It hits only if it moves into the rectangle
+                // across the faces it's on.
+                boolean outward = onLeft && dx < 0 || onRight && dx > 0 || onTop && dy < 0 || onBottom && dy > 0;
+                boolean inward = onLeft && dx > 0 || onRight && dx < 0 || onTop && dy > 0 || onBottom && dy < 0;
+                if (outward || !inward) {
+                    return false;
+                }
+            }
+            enter = 0;
+        }
+        this.entry = enter;
+        this.face = enterFace;
+        this.x = x1 + dx * enter;
+        this.y = y1 + dy * enter;
+        this.contactX = this.x;
+        this.contactY = this.y;
+        return true;
+    } // intersect
+
+    /**
+     * Intersect a circle that moves with its center from (x1, y1) to (x2, y2) with the given rectangle.
+     * If they intersect, the entry part, the face, the center of the circle when it touches the rectangle and the
+     * point of the rectangle that it touches are kept in this object. As with a segment, a circle that starts
+     * overlapping the rectangle intersects it at its start, and a circle that starts touching the rectangle and moves
+     * away from it doesn't intersect it.
+     * @param x1 the x value of the start of the center.
+     * @param y1 the y value of the start of the center.
+     * @param x2 the x value of the end of the center.
+     * @param y2 the y value of the end of the center.
+     * @param radius the radius of the circle.
+     * @param left the x value of the left edge of the rectangle.
+     * @param top the y value of the upper edge of the rectangle.
+     * @param right the x value of the right edge of the rectangle.
+     * @param bottom the y value of the lower edge of the rectangle.
+     * @return true if the circle touches the rectangle on its way, false otherwise.
+     */
+    public boolean intersect(double x1, double y1, double x2, double y2, double radius,
+        double left, double top, double right, double bottom) {
+        if (radius <= 0) {
+            return this.intersect(x1, y1, x2, y2, left, top, right, bottom);
+        }
+        // The center has to enter the rectangle grown by the radius.
+        if (!this.intersect(x1, y1, x2, y2, left - radius, top - radius, right + radius, bottom + radius)) {
+            /*
+             * A center that starts within the tolerance of a corner of the grown rectangle doesn't touch the rounded
+             * corner yet, so the circle may still touch the corner later on.
+             */
+            boolean inCorner = (x1 < left || x1 > right) && (y1 < top || y1 > bottom);
+            if (!inCorner || x1 < left - radius - EPSILON || x1 > right + radius + EPSILON
+                || y1 < top - radius - EPSILON || y1 > bottom + radius + EPSILON) {
+                return false;
+            }
+            this.x = x1;
+            this.y = y1;
+        }
+        boolean besideX = this.x < left || this.x > right;
+        boolean besideY = this.y < top || this.y > bottom;
+        if (besideX && besideY) {
+            // The center is in a corner of the grown rectangle, so the circle has to touch the corner itself.
+            double cornerX = this.x < left ? left : right;
+            double cornerY = this.y < top ? top : bottom;
+            if (!this.intersectCorner(x1, y1, x2, y2, radius, cornerX, cornerY)) {
+                return false;
+            }
+        }
+        this.contactX = Math.max(left, Math.min(right, this.x));
+        this.contactY = Math.max(top, Math.min(bottom, this.y));
+        return true;
+    } // intersect
+
+    /**
+     * Intersect a circle that moves with its center from (x1, y1) to (x2, y2) with a single corner of a rectangle,
+     * and keep the entry part, the face and the center at the entry in this object.
+     * @param x1 the x value of the start of the center.
+     * @param y1 the y value of the start of the center.
+     * @param x2 the x value of the end of the center.
+     * @param y2 the y value of the end of the center.
+     * @param radius the radius of the circle.
+     * @param cornerX the x value of the corner.
+     * @param cornerY the y value of the corner.
+     * @return true if the circle touches the corner on its way, false otherwise.
+     */
+    private boolean intersectCorner(double x1, double y1, double x2, double y2, double radius,
+        double cornerX, double cornerY) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double fromX = x1 - cornerX;
+        double fromY = y1 - cornerY;
+        double distance = fromX * fromX + fromY * fromY;
+        if (distance < radius * radius) {
+            // The circle already covers the corner at the start of the movement.
+            this.entry = 0;
+            this.face = INSIDE;
+            this.x = x1;
+            this.y = y1;
+            return true;
+        }
+        // Solve |from + t * d| = radius (with the tolerance) for the first t.
+        double grown = radius + EPSILON;
+        double a = dx * dx + dy * dy;
+        double b = fromX * dx + fromY * dy;
+        double c = distance - grown * grown;
+        double discriminant = b * b - a * c;
+        if (a == 0 || discriminant < 0) {
+            return false;
+        }
+        double enter = (-b - Math.sqrt(discriminant)) / a;
+        if (enter < 0) {
+            // The circle starts within the tolerance of the corner. It hits only if it moves towards the corner.
+            if (c > 0 || b >= 0) {
+                return false;
+            }
+            enter = 0;
+        }
+        if (enter > 1) {
+            return false;
+        }
+        this.entry = enter;
+        this.x = x1 + dx * enter;
+        this.y = y1 + dy * enter;
+        // The circle touches the corner from the side that the center is farther from.
+        if (Math.abs(this.x - cornerX) >= Math.abs(this.y - cornerY)) {
+            this.face = this.x < cornerX ? LEFT : RIGHT;
+        } else {
+            this.face = this.y < cornerY ? TOP : BOTTOM;
+        }
+        return true;
+    } // intersectCorner
+
+    /**
+     * Copy the result of another intersection into this one.
+     * @param other the intersection to copy.
+     */
+    public void set(SlabIntersection other) {
+        this.entry = other.entry;
+        this.face = other.face;
+        this.x = other.x;
+        this.y = other.y;
+        this.contactX = other.contactX;
+        this.contactY = other.contactY;
+    }
+
+    /**
+     * @return the part of the segment (between 0 and 1) at which it enters the rectangle.
+     */
+    public double getEntry() {
+        return this.entry;
+    }
+
+    /**
+     * @return the face of the rectangle that the segment enters through.
+     */
+    public int getFace() {
+        return this.face;
+    }
+
+    /**
+     * @return the x value of the entry point (for a moving circle, of its center when it touches the rectangle).
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * @return the y value of the entry point (for a moving circle, of its center when it touches the rectangle).
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * @return the x value of the point of the rectangle that is touched (the entry point for a segment).
+     */
+    public double getContactX() {
+        return this.contactX;
+    }
+
+    /**
+     * @return the y value of the point of the rectangle that is touched (the entry point for a segment).
+     */
+    public double getContactY() {
+        return this.contactY;
+    }
+
+} // class SlabIntersection
@@ -0,0 +1,133 @@
+package headless;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Polygon;
+
+/**
+ * The CountingDrawSurface class is a DrawSurface that doesn't draw anything, but counts the drawing calls of each
+ * kind. It's used to measure how much drawing the animations do.
+ */
+public class CountingDrawSurface extends NullDrawSurface {
+    // The kinds of the counted calls.
+    public static final int SET_COLOR = 0;
+    public static final int LINE = 1;
+    public static final int OVAL = 2;
+    public static final int RECTANGLE = 3;
+    public static final int IMAGE = 4;
+    public static final int CIRCLE = 5;
+    public static final int TEXT = 6;
+    public static final int POLYGON = 7;
+    private static final String[] NAMES = {"setColor", "line", "oval", "rectangle", "image", "circle", "text",
+        "polygon"};
+
+    // Declare the members of the class.
+    private long[] counts = new long[NAMES.length];
+
+    /**
+     * Constructor.
+     * @param width the width of the surface.
+     * @param height the height of the surface.
+     */
+    public CountingDrawSurface(int width, int height) {
+        super(width, height);
+    }
+
+    /**
+     * @param kind the kind of the calls (one of the constants of the class).
+     * @return the number of the calls of the given kind.
+     */
+    public long getCount(int kind) {
+        return this.counts[kind];
+    }
+
+    /**
+     * @return the number of all the drawing calls.
+     */
+    public long getTotal() {
+        long total = 0;
+        for (long count : this.counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Set all the counters to 0.
+     */
+    public void reset() {
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] = 0;
+        }
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.counts[SET_COLOR]++;
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.counts[LINE]++;
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        this.counts[OVAL]++;
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        this.counts[OVAL]++;
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        this.counts[RECTANGLE]++;
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        this.counts[RECTANGLE]++;
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image image) {
+        this.counts[IMAGE]++;
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.counts[CIRCLE]++;
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.counts[CIRCLE]++;
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        this.counts[TEXT]++;
+    }
+
+    @Override
+    public void drawPolygon(Polygon polygon) {
+        this.counts[POLYGON]++;
+    }
+
+    @Override
+    public void fillPolygon(Polygon polygon) {
+        this.counts[POLYGON]++;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("draw calls: ").append(this.getTotal());
+        for (int i = 0; i < NAMES.length; i++) {
+            builder.append(", ").append(NAMES[i]).append('=').append(this.counts[i]);
+        }
+        return builder.toString();
+    }
+
+} // class CountingDrawSurface
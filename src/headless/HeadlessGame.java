@@ -0,0 +1,176 @@
+package headless;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import animation.AnimationRunner;
+import biuoop.KeyboardSensor;
+import highscores.HighScoresTable;
+import levels.BattleLevel;
+import levels.GameFlow;
+import levels.LevelInformation;
+
+/**
+ * The HeadlessGame class plays whole games of Space Invaders without a window: the frames are drawn on a counting
+ * surface, the keys are pressed by a script, and the game runs as fast as the CPU allows. It's the base of the soak
+ * tests and the throughput measurements of the simulation.
+ */
+public class HeadlessGame {
+    // The sizes of the surface and the simulated frames per second (the same as in the real game).
+    public static final int SURFACE_WIDTH = 800;
+    public static final int SURFACE_HEIGHT = 600;
+    public static final int FRAMES_PER_SECOND = 60;
+    // The default limit of the ticks of a single game (an hour of simulated time).
+    public static final long DEFAULT_MAX_TICKS = 60L * 60 * FRAMES_PER_SECOND;
+    // The seed of the games that are created without one.
+    public static final long DEFAULT_SEED = 0;
+
+    // Declare the members of the class.
+    private CountingDrawSurface surface;
+    private TickedKeyboardSensor keyboard;
+    private ScriptedDialogManager dialogManager;
+    private AnimationRunner animationRunner;
+    private HighScoresTable highScoresTable;
+    private long maxTicks;
+    private long seed;
+    private int lastScore;
+    private int lastLevelsCleared;
+    private int initialEnemiesSpeed;
+    private int speedIncrement;
+
+    /**
+     * Constructor - create a game that is played by the given script.
+     * @param keyboard the script of the keys that the player presses.
+     * @param maxTicks the most ticks that a single game may last.
+     */
+    public HeadlessGame(TickedKeyboardSensor keyboard, long maxTicks) {
+        this(keyboard, maxTicks, DEFAULT_SEED);
+    }
+
+    /**
+     * Constructor - create a game that is played by the given script.
+     * @param keyboard the script of the keys that the player presses.
+     * @param maxTicks the most ticks that a single game may last.
+     * @param seed the seed of the games - the same seed and the same script give the same game.
+     */
+    public HeadlessGame(TickedKeyboardSensor keyboard, long maxTicks, long seed) {
+        this.surface = new CountingDrawSurface(SURFACE_WIDTH, SURFACE_HEIGHT);
+        this.keyboard = keyboard;
+        this.dialogManager = new ScriptedDialogManager("headless", true);
+        this.animationRunner = new AnimationRunner(this.surface, FRAMES_PER_SECOND);
+        this.animationRunner.setTickListener(keyboard::tick);
+        this.highScoresTable = new HighScoresTable(5);
+        this.maxTicks = maxTicks;
+        this.seed = seed;
+        this.lastScore = 0;
+        this.lastLevelsCleared = 0;
+        this.initialEnemiesSpeed = GameFlow.DEFAULT_ENEMIES_SPEED;
+        this.speedIncrement = GameFlow.DEFAULT_SPEED_INCREMENT;
+    }
+
+    /**
+     * Set the progression of the speed of the enemies in the games.
+     * @param initialSpeed the speed of the enemies in the first level.
+     * @param increment how much faster the enemies are in every next level.
+     */
+    public void setEnemiesSpeed(int initialSpeed, int increment) {
+        this.initialEnemiesSpeed = initialSpeed;
+        this.speedIncrement = increment;
+    }
+
+    /**
+     * @return a script that holds the space key (and the "c" key that closes the end screen) and moves the paddle
+     * from side to side.
+     */
+    public static ScriptedKeyboardSensor defaultScript() {
+        return new ScriptedKeyboardSensor()
+                .hold(KeyboardSensor.SPACE_KEY)
+                .hold("c")
+                .repeat(KeyboardSensor.LEFT_KEY, 0, 90, 180)
+                .repeat(KeyboardSensor.RIGHT_KEY, 90, 90, 180);
+    }
+
+    /**
+     * Play a whole game, from the first level until the player runs out of lives (or the game takes too long).
+     * @param lives the number of the lives that the player starts with.
+     * @return the number of the ticks that the game lasted.
+     */
+    public long play(int lives) {
+        List<LevelInformation> levels = new ArrayList<>();
+        levels.add(new BattleLevel());
+        long firstTick = this.animationRunner.getTicks();
+        this.animationRunner.setTickListener(() -> {
+            this.keyboard.tick();
+            if (this.animationRunner.getTicks() - firstTick > this.maxTicks) {
+                throw new IllegalStateException("The game didn't end after " + this.maxTicks + " ticks");
+            }
+        });
+        GameFlow game = new GameFlow(this.animationRunner, this.keyboard, this.dialogManager, this.highScoresTable,
+                lives, this.seed);
+        game.setEnemiesSpeed(this.initialEnemiesSpeed, this.speedIncrement);
+        game.runLevels(levels);
+        this.lastScore = game.getScore();
+        this.lastLevelsCleared = game.getLevelsCleared();
+        return this.animationRunner.getTicks() - firstTick;
+    }
+
+    /**
+     * @return the final score of the last game that was played.
+     */
+    public int getLastScore() {
+        return this.lastScore;
+    }
+
+    /**
+     * @return the number of the levels that the last game that was played cleared.
+     */
+    public int getLastLevelsCleared() {
+        return this.lastLevelsCleared;
+    }
+
+    /**
+     * @return the surface that counts the drawing calls of the games.
+     */
+    public CountingDrawSurface getSurface() {
+        return this.surface;
+    }
+
+    /**
+     * @return the runner that the games are played by.
+     */
+    public AnimationRunner getAnimationRunner() {
+        return this.animationRunner;
+    }
+
+    /**
+     * @return the table of the high scores of the games that were played.
+     */
+    public HighScoresTable getHighScoresTable() {
+        return this.highScoresTable;
+    }
+
+    /**
+     * Play headless games and print how fast they ran, and where the time of the frames went.
+     * @param args the number of the games to play (1 by default).
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        HeadlessGame headlessGame = new HeadlessGame(defaultScript(), DEFAULT_MAX_TICKS);
+        headlessGame.getAnimationRunner().getProfiler().setEnabled(true);
+        long totalTicks = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            long ticks = headlessGame.play(3);
+            totalTicks += ticks;
+            int bestScore = Math.max(0, headlessGame.getHighScoresTable().getHighScores().get(0).getScore());
+            System.out.println("game " + (i + 1) + ": " + ticks + " ticks, best score so far " + bestScore);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d ticks in %.2f seconds (%.0f ticks per second, %.1fx real time)%n", totalTicks, seconds,
+                totalTicks / seconds, totalTicks / seconds / FRAMES_PER_SECOND);
+        System.out.println(headlessGame.getSurface());
+        headlessGame.getAnimationRunner().getProfiler().writeReport(new PrintWriter(System.out));
+    }
+
+} // class HeadlessGame
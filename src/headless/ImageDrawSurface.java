@@ -0,0 +1,139 @@
+package headless;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Polygon;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import biuoop.DrawSurface;
+
+/**
+ * The ImageDrawSurface class is a DrawSurface that draws on an offscreen image instead of a window, so the frames of
+ * a headless run can be looked at (or compared) later.
+ */
+public class ImageDrawSurface implements DrawSurface {
+    // Declare the members of the class.
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    /**
+     * Constructor.
+     * @param width the width of the surface.
+     * @param height the height of the surface.
+     */
+    public ImageDrawSurface(int width, int height) {
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.graphics = this.image.createGraphics();
+        this.clear();
+    }
+
+    /**
+     * @return the image that the surface draws on.
+     */
+    public BufferedImage getImage() {
+        return this.image;
+    }
+
+    /**
+     * Fill the whole surface with white, like a new surface of the GUI.
+     */
+    public void clear() {
+        this.graphics.setColor(Color.white);
+        this.graphics.fillRect(0, 0, this.image.getWidth(), this.image.getHeight());
+        this.graphics.setColor(Color.black);
+    }
+
+    /**
+     * Save the current content of the surface as a PNG image.
+     * @param file the file to save the image to.
+     * @throws IOException if the image couldn't be written.
+     */
+    public void save(File file) throws IOException {
+        ImageIO.write(this.image, "png", file);
+    }
+
+    /**
+     * Release the graphics of the surface. The surface can't be drawn on afterwards.
+     */
+    public void dispose() {
+        this.graphics.dispose();
+    }
+
+    @Override
+    public int getWidth() {
+        return this.image.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return this.image.getHeight();
+    }
+
+    @Override
+    public void setColor(Color color) {
+        this.graphics.setColor(color);
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.graphics.drawLine(x1, y1, x2, y2);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int w, int h) {
+        this.graphics.drawOval(x, y, w, h);
+    }
+
+    @Override
+    public void fillOval(int x, int y, int w, int h) {
+        this.graphics.fillOval(x, y, w, h);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int w, int h) {
+        this.graphics.drawRect(x, y, w, h);
+    }
+
+    @Override
+    public void fillRectangle(int x, int y, int w, int h) {
+        this.graphics.fillRect(x, y, w, h);
+    }
+
+    @Override
+    public void drawImage(int x, int y, Image img) {
+        this.graphics.drawImage(img, x, y, null);
+    }
+
+    @Override
+    public void drawCircle(int x, int y, int r) {
+        this.graphics.drawOval(x - r, y - r, 2 * r, 2 * r);
+    }
+
+    @Override
+    public void fillCircle(int x, int y, int r) {
+        this.graphics.fillOval(x - r, y - r, 2 * r, 2 * r);
+    }
+
+    @Override
+    public void drawText(int x, int y, String text, int fontSize) {
+        this.graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, fontSize));
+        this.graphics.drawString(text, x, y);
+    }
+
+    @Override
+    public void drawPolygon(Polygon polygon) {
+        this.graphics.drawPolygon(polygon);
+    }
+
+    @Override
+    public void fillPolygon(Polygon polygon) {
+        this.graphics.fillPolygon(polygon);
+    }
+
+} // class ImageDrawSurface
@@ -0,0 +1,81 @@
+package headless;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import biuoop.DialogManager;
+
+/**
+ * The ScriptedDialogManager class is a DialogManager that doesn't show any dialog. The questions are answered with
+ * prepared answers (or a default answer when they run out), and the yes/no questions are answered with a fixed
+ * choice.
+ */
+public class ScriptedDialogManager implements DialogManager {
+    // Declare the members of the class.
+    private Queue<String> answers = new ArrayDeque<>();
+    private String defaultAnswer;
+    private boolean confirm;
+    private int dialogsShown = 0;
+
+    /**
+     * Constructor.
+     * @param defaultAnswer the answer to the questions when there are no prepared answers left.
+     * @param confirm the answer to the confirmation and yes/no questions.
+     */
+    public ScriptedDialogManager(String defaultAnswer, boolean confirm) {
+        this.defaultAnswer = defaultAnswer;
+        this.confirm = confirm;
+    }
+
+    /**
+     * Prepare an answer to the next question.
+     * @param answer the answer.
+     * @return the dialog manager, so the answers can be added in a chain of calls.
+     */
+    public ScriptedDialogManager addAnswer(String answer) {
+        this.answers.add(answer);
+        return this;
+    }
+
+    /**
+     * @return the number of the dialogs that would have been shown.
+     */
+    public int getDialogsShown() {
+        return this.dialogsShown;
+    }
+
+    @Override
+    public String showQuestionDialog(String title, String message, String defaultValue) {
+        this.dialogsShown++;
+        String answer = this.answers.poll();
+        return answer != null ? answer : this.defaultAnswer;
+    }
+
+    @Override
+    public void showInformationDialog(String title, String message) {
+        this.dialogsShown++;
+    }
+
+    @Override
+    public void showWarningDialog(String title, String message) {
+        this.dialogsShown++;
+    }
+
+    @Override
+    public void showErrorDialog(String title, String message) {
+        this.dialogsShown++;
+    }
+
+    @Override
+    public boolean showConfirmationDialog(String title, String message) {
+        this.dialogsShown++;
+        return this.confirm;
+    }
+
+    @Override
+    public boolean showYesNoDialog(String title, String message) {
+        this.dialogsShown++;
+        return this.confirm;
+    }
+
+} // class ScriptedDialogManager
@@ -0,0 +1,136 @@
+package headless;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The ScriptedKeyboardSensor class is a KeyboardSensor that presses the keys according to a script instead of a
+ * player. The script is written in ticks (steps of the animation runner): a key can be held from a tick to a tick, be
+ * pressed again and again with a period, or be held until it's released. The sensor is advanced by calling tick, which
+ * is usually done by the tick listener of the animation runner.
+ */
+public class ScriptedKeyboardSensor implements TickedKeyboardSensor {
+    /**
+     * A single line of the script - the key is pressed in the ticks from start to end (inclusive), and if period is
+     * positive, again in the same ticks of every period.
+     */
+    private static final class Press {
+        private final String key;
+        private final long start;
+        private final long end;
+        private final long period;
+
+        /**
+         * Constructor.
+         * @param key the pressed key.
+         * @param start the first tick that the key is pressed in.
+         * @param end the last tick that the key is pressed in.
+         * @param period the length of the repetition in ticks, or 0 if the press isn't repeated.
+         */
+        private Press(String key, long start, long end, long period) {
+            this.key = key;
+            this.start = start;
+            this.end = end;
+            this.period = period;
+        }
+
+        /**
+         * @param tick the current tick.
+         * @return true if the key is pressed in the given tick, false otherwise.
+         */
+        private boolean isPressed(long tick) {
+            if (tick < this.start) {
+                return false;
+            }
+            long time = tick;
+            if (this.period > 0) {
+                time = this.start + (tick - this.start) % this.period;
+            }
+            return time <= this.end;
+        }
+    } // class Press
+
+    // Declare the members of the class.
+    private List<Press> script = new ArrayList<>();
+    private Set<String> heldKeys = new HashSet<>();
+    private long tick = 0;
+
+    /**
+     * Press the given key from the start tick to the end tick (inclusive).
+     * @param key the key to press.
+     * @param start the first tick that the key is pressed in.
+     * @param end the last tick that the key is pressed in.
+     * @return the sensor, so the script can be written in a chain of calls.
+     */
+    public ScriptedKeyboardSensor press(String key, long start, long end) {
+        this.script.add(new Press(key, start, end, 0));
+        return this;
+    }
+
+    /**
+     * Press the given key for a number of ticks in every period, starting from the given tick.
+     * @param key the key to press.
+     * @param start the first tick that the key is pressed in.
+     * @param length the number of the ticks that the key is pressed in every period.
+     * @param period the length of the period in ticks.
+     * @return the sensor, so the script can be written in a chain of calls.
+     */
+    public ScriptedKeyboardSensor repeat(String key, long start, long length, long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("The period must be positive: " + period);
+        }
+        this.script.add(new Press(key, start, start + length - 1, period));
+        return this;
+    }
+
+    /**
+     * Hold the given key until it's released.
+     * @param key the key to hold.
+     * @return the sensor, so the script can be written in a chain of calls.
+     */
+    public ScriptedKeyboardSensor hold(String key) {
+        this.heldKeys.add(key);
+        return this;
+    }
+
+    /**
+     * Release a key that was held.
+     * @param key the key to release.
+     * @return the sensor, so the script can be written in a chain of calls.
+     */
+    public ScriptedKeyboardSensor release(String key) {
+        this.heldKeys.remove(key);
+        return this;
+    }
+
+    /**
+     * Advance the script by one tick.
+     */
+    @Override
+    public void tick() {
+        this.tick++;
+    }
+
+    /**
+     * @return the current tick of the script.
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        if (this.heldKeys.contains(key)) {
+            return true;
+        }
+        for (Press press : this.script) {
+            if (press.key.equals(key) && press.isPressed(this.tick)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+} // class ScriptedKeyboardSensor
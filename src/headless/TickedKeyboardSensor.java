@@ -0,0 +1,17 @@
+package headless;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * The TickedKeyboardSensor interface is a KeyboardSensor whose keys change only between the ticks of the animation
+ * runner. The runner's tick listener calls tick before every step (or frame), and the keys stay the same until the
+ * next call, however many times they are checked in between.
+ */
+public interface TickedKeyboardSensor extends KeyboardSensor {
+
+    /**
+     * Move the sensor to the next tick.
+     */
+    void tick();
+
+} // interface TickedKeyboardSensor
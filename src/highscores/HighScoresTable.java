@@ -4,33 +4,48 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 
+import profiler.HighScoresIoEvent;
+
 /**
- * The HighScoresTable class manages the table of the high scores.
+ * The HighScoresTable class manages the table of the high scores. The scores are kept in a Leaderboard, so a table
+ * can keep many more scores than the top ones it shows (the scores of tournaments of bots, for example), and adding a
+ * score and finding a rank take O(log n) time.
  */
 public class HighScoresTable {
     // Declare the members of the class.
+    private Leaderboard leaderboard;
+    // The top scores, padded with empty scores to the size of the table (null after the scores changed).
     private List<ScoreInfo> highScores;
     // Set a separator string to separate the different users & scores when reading and writing the data.
     private static final String SEPARATOR = ";";
     private int size;
+    private int capacity;
 
     /**
      * Create an empty high scores table of the specified size.
      * @param size the size of the high scores table - the amount of the top scores that the table holds.
      */
     public HighScoresTable(int size) {
+        this(size, size);
+    }
+
+    /**
+     * Create an empty high scores table that shows the specified number of top scores, and keeps more scores.
+     * @param size the size of the high scores table - the amount of the top scores that the table shows.
+     * @param capacity the amount of the top scores that the table keeps (at least the size).
+     */
+    public HighScoresTable(int size, int capacity) {
         this.size = size;
-        this.highScores = new ArrayList<>();
-        for (int i = 0; i < this.size; i++) {
-            this.highScores.add(new ScoreInfo("", -1));
-        }
+        this.capacity = Math.max(size, capacity);
+        this.leaderboard = new Leaderboard();
+        this.highScores = null;
     }
 
     /**
@@ -39,13 +54,12 @@ public class HighScoresTable {
      */
     public void add(ScoreInfo score) {
         int rank = getRank(score.getScore());
-        // Add the score only if its rank is not bigger than the size of the table.
-        if (rank <= this.size) {
-            this.highScores.add(rank - 1, score);
-            // Remove the last number in the list, to keep the size of the table.
-            if (this.highScores.size() > this.size) {
-                this.highScores.remove(this.highScores.size() - 1);
-            }
+        // Add the score only if its rank is not bigger than the capacity of the table.
+        if (rank <= this.capacity) {
+            this.leaderboard.add(score);
+            // Remove the lowest score, to keep the capacity of the table.
+            this.leaderboard.trimTo(this.capacity);
+            this.highScores = null;
         }
     }
 
@@ -57,31 +71,54 @@ public class HighScoresTable {
     }
 
     /**
-     * The list is sorted such that the highest scores come first.
+     * @return the amount of the top scores that the table keeps.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * The list is sorted such that the highest scores come first. The places that have no score yet hold an empty
+     * score of -1.
      * @return the current top high scores.
      */
     public List<ScoreInfo> getHighScores() {
+        if (this.highScores == null) {
+            List<ScoreInfo> top = this.leaderboard.getTop(this.size);
+            while (top.size() < this.size) {
+                top.add(new ScoreInfo("", -1));
+            }
+            this.highScores = Collections.unmodifiableList(top);
+        }
         return this.highScores;
     }
 
+    /**
+     * @return all the scores that the table keeps, for ranks and pages beyond the top scores.
+     */
+    public Leaderboard getLeaderboard() {
+        return this.leaderboard;
+    }
+
+    /**
+     * @param from the index of the first score of the page (0 for the highest score).
+     * @param count the largest number of the scores in the page.
+     * @return the scores from the index, from the highest one.
+     */
+    public List<ScoreInfo> getPage(int from, int count) {
+        return this.leaderboard.getPage(from, count);
+    }
+
     /**
      * Return the rank of the current score.
      * Rank 1 means this score is the current highest score in the high scores table.
      * Rank 'size' means this score is the current lowest score in the high scores table.
-     * Rank > 'size' means this score is too low and will not be added to the high scores table.
+     * Rank > 'size' means this score is too low and will not be shown in the high scores table.
      * @param score the current score we want to add to the high scores table.
      * @return the rank of the current score.
      */
     public int getRank(int score) {
-        if (this.highScores.size() == 0) {
-            return 1;
-        }
-        for (int i = 0; i < this.highScores.size(); i++) {
-            if (score > this.highScores.get(i).getScore()) {
-                return i + 1;
-            }
-        }
-        return this.highScores.size() + 1;
+        return this.leaderboard.getRank(score);
     }
 
     /**
@@ -90,11 +127,38 @@ public class HighScoresTable {
      * @throws IOException in case the file loading failed.
      */
     public void load(File filename) throws IOException {
-        HighScoresTable highScoresTable = loadFromFile(filename);
+        HighScoresIoEvent event = new HighScoresIoEvent();
+        event.begin();
+        HighScoresTable highScoresTable = null;
+        try {
+            highScoresTable = loadFromFile(filename, this.size, this.capacity);
+        } finally {
+            commitEvent(event, HighScoresIoEvent.LOAD, filename,
+                highScoresTable != null ? highScoresTable.leaderboard.size() : 0, highScoresTable != null);
+        }
         if (highScoresTable == null) {
             throw new IOException();
         } else {
-            this.highScores = highScoresTable.highScores;
+            this.leaderboard = highScoresTable.leaderboard;
+            this.highScores = null;
+        }
+    }
+
+    /**
+     * Record the given Flight Recorder event of loading or saving the table, if it's enabled.
+     * @param event the event, which began when the operation started.
+     * @param operation the operation (HighScoresIoEvent.LOAD or HighScoresIoEvent.SAVE).
+     * @param filename the file that was loaded or saved.
+     * @param scores the number of the scores that were loaded or saved.
+     * @param succeeded true if the operation succeeded, false otherwise.
+     */
+    private static void commitEvent(HighScoresIoEvent event, String operation, File filename, int scores,
+        boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setOperation(operation, filename.getPath());
+            event.setResult(scores, succeeded);
+            event.commit();
         }
     }
 
@@ -109,24 +173,29 @@ public class HighScoresTable {
         String nameOfFile = filename.getName();
 
         // Append all the fields, separating them with a separator.
-        for (int i = 0; i < this.highScores.size(); i++) {
-            sb.append(this.highScores.get(i).getName());
+        for (ScoreInfo score : this.leaderboard.getTop(this.leaderboard.size())) {
+            sb.append(score.getName());
             sb.append(SEPARATOR);
-            sb.append(this.highScores.get(i).getScore());
+            sb.append(score.getScore());
             sb.append(SEPARATOR);
         }
 
         PrintWriter writer = null;
+        HighScoresIoEvent event = new HighScoresIoEvent();
+        event.begin();
+        boolean succeeded = false;
         // Write the result in the file.
         try {
             writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(nameOfFile)));
             writer.print("");
             writer.print(sb.toString());
+            succeeded = true;
         // Finally block to make sure the writer is closed even if an exception occurred.
         } finally {
             if (writer != null) {
                 writer.close();
             }
+            commitEvent(event, HighScoresIoEvent.SAVE, filename, this.leaderboard.size(), succeeded);
         }
     }
 
@@ -137,6 +206,18 @@ public class HighScoresTable {
      * @return the data of the high scores table, or an empty table.
      */
     public static HighScoresTable loadFromFile(File filename) throws IOException {
+        return loadFromFile(filename, 5, 5);
+    }
+
+    /**
+     * Read the data of a high scores table of the given size and capacity from the specified file and return it.
+     * @param filename the name of the file to load the data from it.
+     * @param size the size of the table.
+     * @param capacity the amount of the top scores that the table keeps.
+     * @return the data of the high scores table, or null if the data is wrong.
+     * @throws IOException in case the file can't be read.
+     */
+    private static HighScoresTable loadFromFile(File filename, int size, int capacity) throws IOException {
         String nameOfFile = filename.getName();
         StringBuilder contentBuffer = new StringBuilder();
         BufferedReader reader = null;
@@ -165,7 +246,7 @@ public class HighScoresTable {
             }
         }
         try {
-            highScoresTable = new HighScoresTable(5);
+            highScoresTable = new HighScoresTable(size, capacity);
             String[] parts = contentBuffer.toString().split(SEPARATOR);
             String name = "";
             int score;
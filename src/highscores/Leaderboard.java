@@ -0,0 +1,308 @@
+package highscores;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import invadersgame.SplitMixRandom;
+
+/**
+ * The Leaderboard class keeps scores sorted from the highest one, in an indexed skip list: every link of the list
+ * knows how many scores it skips over, so adding a score, finding the rank of a score and getting the score at a rank
+ * take O(log n) time, and a page of k scores takes O(log n + k) time. Equal scores keep the order they were added in,
+ * so an earlier score comes first, as in the table of the game.
+ * The nodes are indexes into flat arrays rather than objects. The links of a node lie next to each other in a single
+ * int array, and every link holds the score of the node it leads to, so a search reads one row of ints at every step
+ * instead of following references to the next node - which matters with millions of scores, when most of the nodes
+ * aren't in the cache.
+ * The leaderboard isn't thread-safe.
+ */
+public class Leaderboard {
+    // The number of the levels of the list - enough for 4^MAX_LEVEL scores.
+    private static final int MAX_LEVEL = 16;
+    // The seed of the levels of the nodes, so the same scores build the same list.
+    private static final long LEVELS_SEED = 0x5349L;
+    // The node that every level starts from, and the end of a level.
+    private static final int HEAD = 0;
+    private static final int NIL = -1;
+    // The ints of a link: the next node, the number of the scores it skips over, and the score of the next node.
+    private static final int LINK = 3;
+    private static final int SPAN = 1;
+    private static final int NEXT_SCORE = 2;
+    // The number of the nodes that there's room for at first.
+    private static final int INITIAL_NODES = 16;
+
+    // Declare the members of the class.
+    private final SplitMixRandom levels;
+    // The score of every node (null for the head and the removed nodes).
+    private ScoreInfo[] infos;
+    // The index of the first link of every node in the links.
+    private int[] base;
+    private int[] links;
+    private int nodeCount;
+    private int linkCount;
+    // The first removed node of every level, whose place is reused by the next node of that level. The removed nodes
+    // of a level are chained by their first link.
+    private final int[] freeNodes;
+    private int level;
+    private int size;
+    // The link before the new node on every level and the index it's at, reused by add and removeAt.
+    private final int[] update;
+    private final int[] updateIndex;
+
+    /**
+     * Constructor - an empty leaderboard.
+     */
+    public Leaderboard() {
+        this.levels = new SplitMixRandom(LEVELS_SEED);
+        this.infos = new ScoreInfo[INITIAL_NODES];
+        this.base = new int[INITIAL_NODES];
+        this.links = new int[LINK * (MAX_LEVEL + 2 * INITIAL_NODES)];
+        this.freeNodes = new int[MAX_LEVEL];
+        this.update = new int[MAX_LEVEL];
+        this.updateIndex = new int[MAX_LEVEL];
+        this.clear();
+    }
+
+    /**
+     * Remove all the scores.
+     */
+    public void clear() {
+        Arrays.fill(this.infos, null);
+        Arrays.fill(this.freeNodes, NIL);
+        // The head is the first node, with a link on every level.
+        this.nodeCount = 1;
+        this.linkCount = LINK * MAX_LEVEL;
+        this.base[HEAD] = 0;
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            this.links[LINK * i] = NIL;
+            this.links[LINK * i + SPAN] = 0;
+        }
+        this.level = 1;
+        this.size = 0;
+        this.levels.setSeed(LEVELS_SEED);
+    }
+
+    /**
+     * @return the number of the scores.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Add a score, after the scores that are equal to it.
+     * @param info the score.
+     * @return the rank of the score (1 for the highest score).
+     */
+    public int add(ScoreInfo info) {
+        int score = info.getScore();
+        int x = HEAD;
+        int index = 0;
+        for (int i = this.level - 1; i >= 0; i--) {
+            int link = this.base[x] + LINK * i;
+            while (this.links[link] != NIL && this.links[link + NEXT_SCORE] >= score) {
+                index += this.links[link + SPAN];
+                x = this.links[link];
+                link = this.base[x] + LINK * i;
+            }
+            this.update[i] = link;
+            this.updateIndex[i] = index;
+        }
+        int nodeLevel = this.randomLevel();
+        for (int i = this.level; i < nodeLevel; i++) {
+            this.update[i] = LINK * i;
+            this.updateIndex[i] = 0;
+            this.links[LINK * i + SPAN] = this.size;
+        }
+        this.level = Math.max(this.level, nodeLevel);
+        int node = this.allocate(nodeLevel, info);
+        for (int i = 0; i < nodeLevel; i++) {
+            int before = this.update[i];
+            int link = this.base[node] + LINK * i;
+            this.links[link] = this.links[before];
+            this.links[link + NEXT_SCORE] = this.links[before + NEXT_SCORE];
+            // The scores that the link before skipped are split between it and the link of the new node.
+            this.links[link + SPAN] = this.links[before + SPAN] - (index - this.updateIndex[i]);
+            this.links[before] = node;
+            this.links[before + SPAN] = index - this.updateIndex[i] + 1;
+            this.links[before + NEXT_SCORE] = score;
+        }
+        // The links above the node skip over it.
+        for (int i = nodeLevel; i < this.level; i++) {
+            this.links[this.update[i] + SPAN]++;
+        }
+        this.size++;
+        return index + 1;
+    }
+
+    /**
+     * Remove the score at an index.
+     * @param index the index of the score (0 for the highest score).
+     * @return the score that was removed.
+     * @throws IndexOutOfBoundsException if there's no score at the index.
+     */
+    public ScoreInfo removeAt(int index) {
+        this.checkIndex(index);
+        int x = HEAD;
+        int passed = 0;
+        for (int i = this.level - 1; i >= 0; i--) {
+            int link = this.base[x] + LINK * i;
+            while (this.links[link] != NIL && passed + this.links[link + SPAN] <= index) {
+                passed += this.links[link + SPAN];
+                x = this.links[link];
+                link = this.base[x] + LINK * i;
+            }
+            this.update[i] = link;
+        }
+        int node = this.links[this.update[0]];
+        int nodeLevel = 0;
+        for (int i = 0; i < this.level; i++) {
+            int before = this.update[i];
+            if (this.links[before] == node) {
+                int link = this.base[node] + LINK * i;
+                this.links[before] = this.links[link];
+                this.links[before + SPAN] += this.links[link + SPAN] - 1;
+                this.links[before + NEXT_SCORE] = this.links[link + NEXT_SCORE];
+                nodeLevel++;
+            } else {
+                this.links[before + SPAN]--;
+            }
+        }
+        while (this.level > 1 && this.links[LINK * (this.level - 1)] == NIL) {
+            this.level--;
+        }
+        ScoreInfo info = this.infos[node];
+        this.infos[node] = null;
+        this.links[this.base[node]] = this.freeNodes[nodeLevel - 1];
+        this.freeNodes[nodeLevel - 1] = node;
+        this.size--;
+        return info;
+    }
+
+    /**
+     * Remove the lowest scores, until there are at most the given number of scores.
+     * @param capacity the number of the scores to keep.
+     */
+    public void trimTo(int capacity) {
+        while (this.size > capacity) {
+            this.removeAt(this.size - 1);
+        }
+    }
+
+    /**
+     * @param score a score.
+     * @return the rank that the score would get if it was added (1 for a score that is higher than all the others).
+     */
+    public int getRank(int score) {
+        int x = HEAD;
+        int index = 0;
+        for (int i = this.level - 1; i >= 0; i--) {
+            int link = this.base[x] + LINK * i;
+            while (this.links[link] != NIL && this.links[link + NEXT_SCORE] >= score) {
+                index += this.links[link + SPAN];
+                x = this.links[link];
+                link = this.base[x] + LINK * i;
+            }
+        }
+        return index + 1;
+    }
+
+    /**
+     * @param index the index of a score (0 for the highest score).
+     * @return the score at the index.
+     * @throws IndexOutOfBoundsException if there's no score at the index.
+     */
+    public ScoreInfo get(int index) {
+        this.checkIndex(index);
+        return this.infos[this.nodeAt(index)];
+    }
+
+    /**
+     * @param from the index of the first score of the page (0 for the highest score).
+     * @param count the largest number of the scores in the page.
+     * @return the scores from the index, from the highest one - fewer than count if the leaderboard ends before.
+     */
+    public List<ScoreInfo> getPage(int from, int count) {
+        if (from < 0 || from >= this.size || count <= 0) {
+            return new ArrayList<>();
+        }
+        List<ScoreInfo> page = new ArrayList<>(Math.min(count, this.size - from));
+        for (int x = this.nodeAt(from); x != NIL && page.size() < count; x = this.links[this.base[x]]) {
+            page.add(this.infos[x]);
+        }
+        return page;
+    }
+
+    /**
+     * @param k the number of the scores.
+     * @return the k highest scores, from the highest one.
+     */
+    public List<ScoreInfo> getTop(int k) {
+        return this.getPage(0, k);
+    }
+
+    /**
+     * @param index the index of a score, which is in the list.
+     * @return the node of the score.
+     */
+    private int nodeAt(int index) {
+        int x = HEAD;
+        // The head is at -1, so the node at the index is reached after index + 1 scores.
+        int passed = -1;
+        for (int i = this.level - 1; i >= 0; i--) {
+            int link = this.base[x] + LINK * i;
+            while (this.links[link] != NIL && passed + this.links[link + SPAN] <= index) {
+                passed += this.links[link + SPAN];
+                x = this.links[link];
+                link = this.base[x] + LINK * i;
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Take a node for a new score - a removed node of the same level, or a new one at the end of the arrays.
+     * @param nodeLevel the number of the levels of the node.
+     * @param info the score.
+     * @return the node.
+     */
+    private int allocate(int nodeLevel, ScoreInfo info) {
+        int node = this.freeNodes[nodeLevel - 1];
+        if (node != NIL) {
+            this.freeNodes[nodeLevel - 1] = this.links[this.base[node]];
+        } else {
+            node = this.nodeCount++;
+            if (node == this.infos.length) {
+                this.infos = Arrays.copyOf(this.infos, 2 * node);
+                this.base = Arrays.copyOf(this.base, 2 * node);
+            }
+            if (this.linkCount + LINK * nodeLevel > this.links.length) {
+                this.links = Arrays.copyOf(this.links, 2 * this.links.length);
+            }
+            this.base[node] = this.linkCount;
+            this.linkCount += LINK * nodeLevel;
+        }
+        this.infos[node] = info;
+        return node;
+    }
+
+    /**
+     * @param index an index of a score.
+     * @throws IndexOutOfBoundsException if there's no score at the index.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of a leaderboard of " + this.size + " scores");
+        }
+    }
+
+    /**
+     * @return the number of the levels of a new node: 1, and one more with a chance of 1/4 each time.
+     */
+    private int randomLevel() {
+        long bits = this.levels.nextLong();
+        return Math.min(MAX_LEVEL, 1 + Long.numberOfTrailingZeros(bits | Long.MIN_VALUE) / 2);
+    }
+
+} // class Leaderboard
@@ -29,6 +29,13 @@ public class Counter {
         this.value = this.value - number;
     }
 
+    /**
+     * @param number the new value of the counter.
+     */
+    public void setValue(int number) {
+        this.value = number;
+    }
+
     /**
      * @return the current value of the counter.
      */
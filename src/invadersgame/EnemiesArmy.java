@@ -1,35 +1,81 @@
 package invadersgame;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeMap;
 
 import biuoop.DrawSurface;
+import collision.Collidable;
+import collision.CollidableGroup;
+import collision.CollisionLayers;
 import collision.HitListener;
+import geometry.GroupTransform;
 import geometry.Point;
+import geometry.Rectangle;
+import geometry.SlabIntersection;
 import levels.GameLevel;
+import profiler.FrameProfiler;
+import profiler.WaveResetEvent;
 import sprites.Ball;
 import sprites.Block;
+import sprites.Shield;
 import sprites.Sprite;
 
 /**
  * The EnemiesArmy class builds the "enemies army" - the blocks of the enemies that move in a formation.
+ * The blocks of the army are kept as offsets from the origin of the army, so moving the whole formation is a single
+ * translation of the origin. The army is also kept in the game environment as a single group of collidables.
  */
-public class EnemiesArmy implements Sprite, HitListener {
+public class EnemiesArmy implements Sprite, HitListener, CollidableGroup {
+    // The number of the values that saveMotion writes.
+    public static final int MOTION_STATE_SIZE = 11;
+
     // Declare the members of the class.
     private GameLevel gameLevel;
     private List<Block> blocks;
-    private Map<Double, Set<Block>> blockByX;
-    private Map<Double, Set<Block>> blockByY;
+    // The blocks in the order they were added (their slots), whether each of them is still in the army, and the slot
+    // of every block.
+    private List<Block> slots;
+    private boolean[] alive;
+    private Map<Block, Integer> slotIndex;
+    // The blocks of the army by their x offset (columns) and by their y offset (rows).
+    private NavigableMap<Double, Set<Block>> blockByX;
+    private NavigableMap<Double, Set<Block>> blockByY;
+    // The columns as arrays for the collision queries (the x offsets in ascending order and the blocks of every one),
+    // which are built again only after a column changed, so a query doesn't create any object.
+    private double[] columnOffsets;
+    private Block[][] columnBlocks;
+    private int columnCount;
+    private boolean columnsChanged;
+    // The front line - the lowest block of every column, which is the only block of the column that can shoot.
+    private Map<Double, Block> frontLine;
+    private List<Block> shooters;
+    private Map<Block, Integer> shooterIndex;
+    private List<Block> volley;
+    // The blocks that are moved to keep the order of a column or a row when a block is brought back to it.
+    private List<Block> reordered;
+    private int shotsPerVolley;
+    private Random random;
+    private GroupTransform transform;
+    private Rectangle bounds;
+    private double maxBlockWidth;
+    private double maxBlockHeight;
+    private double smallestBlockSize;
+    private SlabIntersection candidate;
     private double movementDirection;
     private double originalSpeed;
     private double speed;
     private boolean movedDown;
     private boolean stop;
-    private long lastTime;
+    // The time (on the clock of the level, in milliseconds) after which the army can shoot again.
+    private long nextVolleyTime;
     private double maxX;
     private double minX;
     private double maxY;
@@ -43,14 +89,34 @@ public class EnemiesArmy implements Sprite, HitListener {
     public EnemiesArmy(GameLevel game, double speed) {
         this.gameLevel = game;
         this.blocks = new ArrayList<>();
+        this.slots = new ArrayList<>();
+        this.alive = new boolean[16];
+        this.slotIndex = new IdentityHashMap<>();
         this.blockByX = new TreeMap<>();
         this.blockByY = new TreeMap<>();
+        this.columnOffsets = new double[0];
+        this.columnBlocks = new Block[0][];
+        this.columnCount = 0;
+        this.columnsChanged = false;
+        this.frontLine = new HashMap<>();
+        this.shooters = new ArrayList<>();
+        this.shooterIndex = new IdentityHashMap<>();
+        this.volley = new ArrayList<>();
+        this.reordered = new ArrayList<>();
+        this.shotsPerVolley = 1;
+        this.random = game.getRandom();
+        this.transform = new GroupTransform(0, 0);
+        this.bounds = new Rectangle(new Point(0, 0), 0, 0);
+        this.maxBlockWidth = 0;
+        this.maxBlockHeight = 0;
+        this.smallestBlockSize = Double.POSITIVE_INFINITY;
+        this.candidate = new SlabIntersection();
         this.movementDirection = 90;
         this.originalSpeed = speed;
         this.speed = speed;
         this.movedDown = false;
         this.stop = false;
-        this.lastTime = 0;
+        this.nextVolleyTime = -1;
         this.maxX = 0;
         this.minX = 800;
         this.maxY = 0;
@@ -60,25 +126,17 @@ public class EnemiesArmy implements Sprite, HitListener {
      * Update the min/max values according to the state of the enemies.
      */
     public void updateMovement() {
-        this.maxX = 0;
-        this.minX = 800;
-        this.maxY = 0;
-        this.minY = 600;
-        for (Double x : this.blockByX.keySet()) {
-            if (this.maxX < x) {
-                this.maxX = x;
-            }
-            if (this.minX > x) {
-                this.minX = x;
-            }
-        }
-        for (Double y : this.blockByY.keySet()) {
-            if (this.maxY < y) {
-                this.maxY = y;
-            }
-            if (this.minY > y) {
-                this.minY = y;
-            }
+        if (this.blockByX.isEmpty()) {
+            this.maxX = 0;
+            this.minX = 800;
+            this.maxY = 0;
+            this.minY = 600;
+        } else {
+            // The columns and the rows are sorted, so the edges of the formation are the first and the last keys.
+            this.minX = this.transform.getX() + this.blockByX.firstKey();
+            this.maxX = this.transform.getX() + this.blockByX.lastKey();
+            this.minY = this.transform.getY() + this.blockByY.firstKey();
+            this.maxY = this.transform.getY() + this.blockByY.lastKey();
         }
         if (this.maxX >= 750) {
             this.movementDirection = 270;
@@ -104,75 +162,282 @@ public class EnemiesArmy implements Sprite, HitListener {
      * @param dt the dt value.
      */
     public void move(double dt) {
-        Velocity velocity = null;
+        double speed = this.speed;
         if (this.movementDirection == 180) {
-            velocity = Velocity.fromAngleAndSpeed(this.movementDirection, 1000);
-        } else {
-            velocity = Velocity.fromAngleAndSpeed(this.movementDirection, this.speed);
-        }
-        for (Block block : this.blocks) {
-            block.moveBlock(velocity, dt);
+            speed = 1000;
         }
+        // The velocity is calculated as in Velocity.fromAngleAndSpeed, without creating it in every step.
+        double angle = Math.toRadians(this.movementDirection);
+        double dx = speed * Math.sin(angle);
+        double dy = (-1) * speed * Math.cos(angle);
+        // Translate the origin of the formation. The formation moves in whole pixels, as each block used to.
+        int newX = (int) (this.transform.getX() + dx * dt);
+        int newY = (int) (this.transform.getY() + dy * dt);
+        this.transform.moveTo(newX, newY);
+        this.updateBounds();
     }
 
     /**
-     * Shoot a random ball from the paddle.
+     * Shoot random balls from the front line of the enemies.
      * @param game the game level we play on.
      */
     public void shoot(GameLevel game) {
-        List<Block> lowest = new ArrayList<>();
-        if (System.currentTimeMillis() - this.lastTime > 500) {
-            for (Double x : this.blockByX.keySet()) {
-                Set<Block> column = blockByX.get(x);
-                if (column.size() != 0) {
-                    Block lowestBlock = new Block(new Point(0, -1));
-                    for (Block block : column) {
-                        if (block.getCollisionRectangle().getUpperLeft().getY()
-                                > lowestBlock.getCollisionRectangle().getUpperLeft().getY()) {
-                            lowestBlock = block;
-                        }
-                    }
-                    lowest.add(lowestBlock);
-                 }
+        long now = game.getClock().getMillis();
+        if (now > this.nextVolleyTime && !this.shooters.isEmpty()) {
+            this.chooseShooters(this.shotsPerVolley, this.random, this.volley);
+            for (int i = 0; i < this.volley.size(); i++) {
+                Block shooter = this.volley.get(i);
+                // The shot starts at the middle of the lower edge of the shooter.
+                double x = this.transform.getX() + shooter.getOffsetX() + shooter.getWidth() / 2;
+                double y = this.transform.getY() + shooter.getOffsetY() + shooter.getHeight();
+                Ball shot = game.shotOfEnemy(new Point(x, y));
+                // All the shots of the level are flying - the rest of the volley isn't fired.
+                if (shot == null) {
+                    break;
+                }
+                shot.setVelocity(Velocity.fromAngleAndSpeed(170 + this.random.nextInt(20), 300));
+                shot.addToGame(game);
             }
-            Random random = new Random();
-            int shooting = random.nextInt(lowest.size());
-            Ball shot = game.shotOfEnemy(lowest.get(shooting).getCollisionRectangle().getLowerEdge().middle());
-            shot.setVelocity(Velocity.fromAngleAndSpeed(170 + random.nextInt(20), 300));
-            shot.addToGame(game);
-            this.lastTime = System.currentTimeMillis();
+            this.nextVolleyTime = now + 500;
         }
     } // shoot
 
+    /**
+     * Choose random shooters from the front line, without choosing the same shooter twice.
+     * @param count the number of the shooters to choose.
+     * @param rand the random generator that is used for the choice.
+     * @param chosen a list that is cleared and filled with the chosen shooters.
+     * @return the number of the chosen shooters (smaller than count if the front line is shorter).
+     */
+    public int chooseShooters(int count, Random rand, List<Block> chosen) {
+        chosen.clear();
+        int size = this.shooters.size();
+        int amount = Math.min(count, size);
+        // A partial Fisher-Yates shuffle: the i-th shooter is chosen from the shooters that were not chosen yet.
+        for (int i = 0; i < amount; i++) {
+            this.swapShooters(i, i + rand.nextInt(size - i));
+            chosen.add(this.shooters.get(i));
+        }
+        return amount;
+    }
+
+    /**
+     * @return the blocks that can currently shoot (the lowest block of every column).
+     */
+    public List<Block> getShooters() {
+        return this.shooters;
+    }
+
+    /**
+     * @param shots the number of the shots that the army fires together.
+     */
+    public void setShotsPerVolley(int shots) {
+        this.shotsPerVolley = shots;
+    }
+
     /**
      * Initialize the positions of the enemies to their original positions.
      * @param dt specifies the number of seconds passed since the last call.
      */
     public void initialize(double dt) {
-        while (this.minX > 30) {
-            this.updateMovement();
-            this.movementDirection = 270;
-            this.move(dt);
-            this.updateMaps();
-        }
-        while (this.minX + this.maxX < 750) {
-            this.updateMovement();
-            this.movementDirection = 90;
-            this.move(dt);
-            this.updateMaps();
-        }
-        while (this.minY > 60) {
-            this.updateMovement();
-            this.movementDirection = 0;
-            this.move(dt);
-            this.updateMaps();
+        WaveResetEvent event = new WaveResetEvent();
+        event.begin();
+        // An empty army has nowhere to go back to.
+        if (!this.blocks.isEmpty()) {
+            while (this.minX > 30) {
+                this.updateMovement();
+                this.movementDirection = 270;
+                this.move(dt);
+            }
+            while (this.minX + this.maxX < 750) {
+                this.updateMovement();
+                this.movementDirection = 90;
+                this.move(dt);
+            }
+            while (this.minY > 60) {
+                this.updateMovement();
+                this.movementDirection = 0;
+                this.move(dt);
+            }
         }
         this.movementDirection = 90;
         this.speed = this.originalSpeed;
         this.movedDown = false;
         this.stop = false;
+        event.end();
+        if (event.shouldCommit()) {
+            event.setEnemies(this.blocks.size());
+            event.commit();
+        }
     } // initialize
 
+    /**
+     * @return the number of the blocks that were ever added to the army (its slots).
+     */
+    public int getSlotCount() {
+        return this.slots.size();
+    }
+
+    /**
+     * @param slot the slot of a block - the order in which it was added to the army.
+     * @return true if the block of the slot is still in the army, false otherwise.
+     */
+    public boolean isAlive(int slot) {
+        return this.alive[slot];
+    }
+
+    /**
+     * @return the x value of the origin of the formation.
+     */
+    public double getOriginX() {
+        return this.transform.getX();
+    }
+
+    /**
+     * @return the y value of the origin of the formation.
+     */
+    public double getOriginY() {
+        return this.transform.getY();
+    }
+
+    /**
+     * Write the movement of the army - where it is, where it goes and how fast, and when it may shoot again.
+     * @param out an array of at least MOTION_STATE_SIZE values.
+     */
+    public void saveMotion(double[] out) {
+        out[0] = this.transform.getX();
+        out[1] = this.transform.getY();
+        out[2] = this.movementDirection;
+        out[3] = this.speed;
+        out[4] = this.movedDown ? 1 : 0;
+        out[5] = this.stop ? 1 : 0;
+        out[6] = this.nextVolleyTime;
+        out[7] = this.minX;
+        out[8] = this.maxX;
+        out[9] = this.minY;
+        out[10] = this.maxY;
+    }
+
+    /**
+     * Put back the movement that saveMotion wrote.
+     * @param in the values that saveMotion wrote.
+     */
+    public void restoreMotion(double[] in) {
+        this.transform.moveTo(in[0], in[1]);
+        this.movementDirection = in[2];
+        this.speed = in[3];
+        this.movedDown = in[4] != 0;
+        this.stop = in[5] != 0;
+        this.nextVolleyTime = (long) in[6];
+        this.minX = in[7];
+        this.maxX = in[8];
+        this.minY = in[9];
+        this.maxY = in[10];
+        this.updateBounds();
+    }
+
+    /**
+     * Write which blocks are still in the army, and their hit points, by their slots.
+     * @param aliveOut an array of at least getSlotCount() values, for whether each block is in the army.
+     * @param hitPointsOut an array of at least getSlotCount() values, for the hit points of each block.
+     * @return the number of the slots.
+     */
+    public int saveSlots(boolean[] aliveOut, int[] hitPointsOut) {
+        int count = this.slots.size();
+        System.arraycopy(this.alive, 0, aliveOut, 0, count);
+        for (int i = 0; i < count; i++) {
+            hitPointsOut[i] = this.slots.get(i).getHitPoints();
+        }
+        return count;
+    }
+
+    /**
+     * Write the slots of the shooters of the front line, in their order (which the random choices of the shooters
+     * depend on).
+     * @param out an array of at least getSlotCount() values.
+     * @return the number of the shooters.
+     */
+    public int saveShooters(int[] out) {
+        for (int i = 0; i < this.shooters.size(); i++) {
+            out[i] = this.slotIndex.get(this.shooters.get(i));
+        }
+        return this.shooters.size();
+    }
+
+    /**
+     * Put back the blocks and the shooters that saveSlots and saveShooters wrote. Only the blocks that were removed
+     * or brought back since are changed, and they are kept in the order of their slots, so the army goes on exactly
+     * as it did after they were saved.
+     * @param savedAlive whether each block was in the army, by its slot.
+     * @param savedHitPoints the hit points of each block, by its slot.
+     * @param savedShooters the slots of the shooters, in their order.
+     * @param shooterCount the number of the shooters.
+     */
+    public void restoreSlots(boolean[] savedAlive, int[] savedHitPoints, int[] savedShooters, int shooterCount) {
+        for (int i = 0; i < this.slots.size(); i++) {
+            Block block = this.slots.get(i);
+            block.setNumOfHits(savedHitPoints[i]);
+            if (savedAlive[i] && !this.alive[i]) {
+                this.reviveBlock(block);
+            } else if (!savedAlive[i] && this.alive[i]) {
+                this.removeBlock(block);
+            }
+        }
+        this.shooters.clear();
+        this.shooterIndex.clear();
+        this.frontLine.clear();
+        for (int i = 0; i < shooterCount; i++) {
+            Block shooter = this.slots.get(savedShooters[i]);
+            this.shooterIndex.put(shooter, i);
+            this.shooters.add(shooter);
+            this.frontLine.put(shooter.getOffsetX(), shooter);
+        }
+        this.updateBounds();
+    }
+
+    /**
+     * Bring a block that was removed back to the army, in the place of its slot.
+     * @param block the block.
+     */
+    private void reviveBlock(Block block) {
+        int slot = this.slotIndex.get(block);
+        int low = 0;
+        int high = this.blocks.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.slotIndex.get(this.blocks.get(middle)) < slot) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        this.blocks.add(low, block);
+        this.alive[slot] = true;
+        this.mapping(block);
+        this.keepSlotOrder(this.blockByX.get(block.getOffsetX()), slot);
+        this.keepSlotOrder(this.blockByY.get(block.getOffsetY()), slot);
+    }
+
+    /**
+     * Move the blocks of a column or a row that come after the given slot to its end, so the blocks are kept in the
+     * order of their slots after a block was added to the end.
+     * @param set the blocks of the column or the row.
+     * @param slot the slot of the block that was added.
+     */
+    private void keepSlotOrder(Set<Block> set, int slot) {
+        this.reordered.clear();
+        for (Block block : set) {
+            if (this.slotIndex.get(block) > slot) {
+                this.reordered.add(block);
+            }
+        }
+        for (int i = 0; i < this.reordered.size(); i++) {
+            set.remove(this.reordered.get(i));
+            set.add(this.reordered.get(i));
+        }
+        this.reordered.clear();
+    }
+
     /**
      * @return true if the enemies reached to the shields, false otherwise.
      */
@@ -184,16 +449,35 @@ public class EnemiesArmy implements Sprite, HitListener {
      * @param block a block to add to the block list.
      */
     public void addBlock(Block block) {
+        if (this.blocks.isEmpty()) {
+            // The origin of the formation is the position of its first block.
+            Point upperLeft = block.getCollisionRectangle().getUpperLeft();
+            this.transform = new GroupTransform(upperLeft.getX(), upperLeft.getY());
+        }
+        block.attachTo(this.transform);
+        this.maxBlockWidth = Math.max(this.maxBlockWidth, block.getWidth());
+        this.maxBlockHeight = Math.max(this.maxBlockHeight, block.getHeight());
+        this.smallestBlockSize = Math.min(this.smallestBlockSize, Math.min(block.getWidth(), block.getHeight()));
         this.blocks.add(block);
+        if (this.slots.size() == this.alive.length) {
+            this.alive = Arrays.copyOf(this.alive, this.alive.length * 2);
+        }
+        this.slotIndex.put(block, this.slots.size());
+        this.alive[this.slots.size()] = true;
+        this.slots.add(block);
         this.mapping(block);
+        this.updateBounds();
     }
 
     /**
      * @param block a block to remove from the block list.
      */
     public void removeBlock(Block block) {
-        this.blocks.remove(block);
-        this.removeBlockMapping(block);
+        if (this.blocks.remove(block)) {
+            this.alive[this.slotIndex.get(block)] = false;
+            this.removeBlockMapping(block);
+            this.updateBounds();
+        }
     }
 
     /**
@@ -206,42 +490,202 @@ public class EnemiesArmy implements Sprite, HitListener {
     }
 
     /**
-     * Map the given block according to its X and Y coordinates.
+     * Map the given block according to its X and Y offsets in the formation.
      * @param block the block to map.
      */
     public void mapping(Block block) {
-        if (!this.blockByX.containsKey(block.getCollisionRectangle().getUpperLeft().getX())) {
-            Set<Block> set = new HashSet<>();
-            this.blockByX.put(block.getCollisionRectangle().getUpperLeft().getX(), set);
+        if (!this.blockByX.containsKey(block.getOffsetX())) {
+            Set<Block> set = new LinkedHashSet<>();
+            this.blockByX.put(block.getOffsetX(), set);
+        }
+        if (!this.blockByY.containsKey(block.getOffsetY())) {
+            Set<Block> set = new LinkedHashSet<>();
+            this.blockByY.put(block.getOffsetY(), set);
         }
-        if (!this.blockByY.containsKey(block.getCollisionRectangle().getUpperLeft().getY())) {
-            Set<Block> set = new HashSet<>();
-            this.blockByY.put(block.getCollisionRectangle().getUpperLeft().getY(), set);
+        this.blockByX.get(block.getOffsetX()).add(block);
+        this.blockByY.get(block.getOffsetY()).add(block);
+        this.columnsChanged = true;
+        // The block joins the front line if it's the lowest one in its column.
+        Block front = this.frontLine.get(block.getOffsetX());
+        if (front == null) {
+            this.frontLine.put(block.getOffsetX(), block);
+            this.shooterIndex.put(block, this.shooters.size());
+            this.shooters.add(block);
+        } else if (block.getOffsetY() > front.getOffsetY()) {
+            this.replaceShooter(front, block);
         }
-        this.blockByX.get(block.getCollisionRectangle().getUpperLeft().getX()).add(block);
-        this.blockByY.get(block.getCollisionRectangle().getUpperLeft().getY()).add(block);
     }
 
     /**
-     * Removes the mapping of the given block
+     * Removes the mapping of the given block. A column or a row that became empty is removed as well.
      * @param block the block that its mapping should be removed.
      */
     public void removeBlockMapping(Block block) {
-        if (block.getCollisionRectangle().getUpperLeft().getY() < 500) {
-            this.blockByX.get(block.getCollisionRectangle().getUpperLeft().getX()).remove(block);
-                this.blockByY.get(block.getCollisionRectangle().getUpperLeft().getY()).remove(block);
+        Set<Block> column = this.blockByX.get(block.getOffsetX());
+        if (column != null && column.remove(block) && column.isEmpty()) {
+            this.blockByX.remove(block.getOffsetX());
+        }
+        this.columnsChanged = true;
+        if (this.frontLine.get(block.getOffsetX()) == block) {
+            this.updateFrontLine(block, column);
+        }
+        Set<Block> row = this.blockByY.get(block.getOffsetY());
+        if (row != null && row.remove(block) && row.isEmpty()) {
+            this.blockByY.remove(block.getOffsetY());
+        }
+    }
+
+    /**
+     * Find the new front of a column after its front block was removed.
+     * @param removed the block that was removed from the front line.
+     * @param column the blocks that are left in the column.
+     */
+    private void updateFrontLine(Block removed, Set<Block> column) {
+        Block lowest = null;
+        if (column != null) {
+            for (Block block : column) {
+                if (lowest == null || block.getOffsetY() > lowest.getOffsetY()) {
+                    lowest = block;
+                }
+            }
+        }
+        if (lowest != null) {
+            this.replaceShooter(removed, lowest);
+            return;
+        }
+        // The column is empty - remove its shooter by moving the last shooter to its place.
+        this.frontLine.remove(removed.getOffsetX());
+        int index = this.shooterIndex.remove(removed);
+        Block last = this.shooters.remove(this.shooters.size() - 1);
+        if (last != removed) {
+            this.shooters.set(index, last);
+            this.shooterIndex.put(last, index);
+        }
+    }
+
+    /**
+     * Put a new block in the place of a shooter of the front line.
+     * @param oldShooter the shooter that is replaced.
+     * @param newShooter the block that takes its place.
+     */
+    private void replaceShooter(Block oldShooter, Block newShooter) {
+        int index = this.shooterIndex.remove(oldShooter);
+        this.shooters.set(index, newShooter);
+        this.shooterIndex.put(newShooter, index);
+        this.frontLine.put(newShooter.getOffsetX(), newShooter);
+    }
+
+    /**
+     * @param i the index of a shooter.
+     * @param j the index of another shooter.
+     */
+    private void swapShooters(int i, int j) {
+        Block first = this.shooters.get(i);
+        Block second = this.shooters.get(j);
+        this.shooters.set(i, second);
+        this.shooters.set(j, first);
+        this.shooterIndex.put(second, i);
+        this.shooterIndex.put(first, j);
+    }
+
+    /**
+     * Update the bounds of the formation, and let the game environment know about the change.
+     */
+    private void updateBounds() {
+        double left = this.transform.getX();
+        double top = this.transform.getY();
+        double width = 0;
+        double height = 0;
+        if (!this.blockByX.isEmpty()) {
+            left += this.blockByX.firstKey();
+            top += this.blockByY.firstKey();
+            width = this.blockByX.lastKey() - this.blockByX.firstKey() + this.maxBlockWidth;
+            height = this.blockByY.lastKey() - this.blockByY.firstKey() + this.maxBlockHeight;
         }
+        this.bounds.set(left, top, width, height);
+        this.gameLevel.getGameEnvironment().updateCollidableGroup(this);
+    }
+
+    @Override
+    public Rectangle getBounds() {
+        return this.bounds;
+    }
+
+    @Override
+    public double getSmallestMemberSize() {
+        return this.smallestBlockSize;
+    }
+
+    @Override
+    public int getLayer() {
+        return CollisionLayers.ENEMY;
+    }
+
+    @Override
+    public Collidable castRay(double x1, double y1, double x2, double y2, double radius,
+        SlabIntersection result) {
+        if (this.columnsChanged) {
+            this.buildColumns();
+        }
+        Block closest = null;
+        double originX = this.transform.getX();
+        double originY = this.transform.getY();
+        // Only the columns that the movement (grown by the radius) passes over can be hit.
+        double fromColumn = Math.min(x1, x2) - originX - this.maxBlockWidth - radius - 1;
+        double toColumn = Math.max(x1, x2) - originX + radius + 1;
+        for (int i = this.firstColumnFrom(fromColumn); i < this.columnCount && this.columnOffsets[i] <= toColumn; i++) {
+            Block[] column = this.columnBlocks[i];
+            for (int j = 0; j < column.length; j++) {
+                Block block = column[j];
+                double left = originX + block.getOffsetX();
+                double top = originY + block.getOffsetY();
+                if (this.candidate.intersect(x1, y1, x2, y2, radius, left, top, left + block.getWidth(),
+                    top + block.getHeight()) && (closest == null || this.candidate.getEntry() < result.getEntry())) {
+                    result.set(this.candidate);
+                    closest = block;
+                }
+            }
+        }
+        return closest;
     }
 
     /**
-     * Update the mapping of the given block.
+     * Build the arrays of the columns again from the map of the columns.
      */
-    public void updateMaps() {
-        this.blockByX.clear();
-        this.blockByY.clear();
-        for (Block block : this.blocks) {
-            this.mapping(block);
+    private void buildColumns() {
+        this.columnCount = this.blockByX.size();
+        if (this.columnOffsets.length < this.columnCount) {
+            this.columnOffsets = new double[this.columnCount];
+            this.columnBlocks = new Block[this.columnCount][];
+        }
+        int i = 0;
+        for (Map.Entry<Double, Set<Block>> column : this.blockByX.entrySet()) {
+            this.columnOffsets[i] = column.getKey();
+            this.columnBlocks[i] = column.getValue().toArray(new Block[0]);
+            i++;
         }
+        for (int j = i; j < this.columnBlocks.length; j++) {
+            this.columnBlocks[j] = null;
+        }
+        this.columnsChanged = false;
+    }
+
+    /**
+     * @param offset an x offset.
+     * @return the index of the first column whose offset isn't smaller than the given one (columnCount if none).
+     */
+    private int firstColumnFrom(double offset) {
+        int low = 0;
+        int high = this.columnCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.columnOffsets[middle] < offset) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
     }
 
     /**
@@ -249,10 +693,12 @@ public class EnemiesArmy implements Sprite, HitListener {
      * @param dt the dt value.
      */
     public void timePassed(double dt) {
+        FrameProfiler profiler = this.gameLevel.getProfiler();
+        long start = profiler.start();
         this.updateMovement();
         this.move(dt);
-        this.updateMaps();
         this.shoot(this.gameLevel);
+        profiler.stop(FrameProfiler.ENEMIES, start);
     }
 
     /**
@@ -262,7 +708,7 @@ public class EnemiesArmy implements Sprite, HitListener {
      * @param hitter the hitting ball.
      */
     public void hitEvent(Block beingHit, Ball hitter) {
-        if (hitter.getVelocity().getDy() < 0) {
+        if (hitter.getLayer() == CollisionLayers.PLAYER_SHOT) {
         this.removeBlock(beingHit);
         }
     }
@@ -271,7 +717,11 @@ public class EnemiesArmy implements Sprite, HitListener {
     public void hitEvent(Paddle beingHit, Ball hitter) {
     }
 
+    @Override
+    public void hitEvent(Shield beingHit, Ball hitter) {
+    }
+
     @Override
     public void addToGame(GameLevel g) {
     }
-}
\ No newline at end of file
+}
@@ -1,34 +1,298 @@
 package invadersgame;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import collision.Collidable;
+import collision.CollidableGroup;
+import collision.CollisionLayers;
 import collision.CollisionInfo;
 import geometry.Line;
 import geometry.Point;
 import geometry.Rectangle;
+import geometry.SlabIntersection;
+import jdk.jfr.EventType;
+import profiler.CollisionQueryEvent;
+import profiler.FrameProfiler;
 
 /**
  * The GameEnvironment class represents a collection of objects that a ball can collide with them.
  * The ball should know the game environment, and use it to check for collisions and direct its movement.
+ * The collidables are kept in a uniform grid of cells (hashed into a fixed number of buckets), so a query only
+ * checks the collidables registered in the cells that the trajectory passes through, and the rectangles are checked
+ * with the allocation-free slab intersection.
+ * A query may also be made for a moving circle (a ball with a radius), as long as the radius isn't larger than
+ * MAX_RADIUS: the collidables are registered in the cells around them that such a circle may touch them from.
+ * A query checks only the collidables whose layer is in its mask (see CollisionLayers), so pairs of objects that
+ * can't interact are skipped before they are intersected.
  */
 public class GameEnvironment {
+    // The size (in pixels) of a single square cell of the grid.
+    public static final double DEFAULT_CELL_SIZE = 32;
+    // The largest radius of a moving circle that the environment can be queried with.
+    public static final double MAX_RADIUS = 8;
+    // The number of the buckets that the cells are hashed into (must be a power of 2).
+    private static final int NUMBER_OF_BUCKETS = 1024;
+    /*
+     * Every collidable is registered in the cells of its rectangle grown by this padding, so intersection points
+     * that are found thanks to the tolerance of the Line methods are never missed by the grid.
+     */
+    private static final double PADDING = 1;
+    // The type of the Flight Recorder events of the queries, which tells whether they are enabled without creating one.
+    private static final EventType COLLISION_EVENT_TYPE = EventType.getEventType(CollisionQueryEvent.class);
+
     // Declare the members of the class.
-    private List<Collidable> collidablesList = new ArrayList<>();
+    private double cellSize;
+    private List<Entry>[] buckets;
+    private Map<Object, Entry> entries = new IdentityHashMap<>();
+    // The insertion order of the collidables, used to break ties exactly as the order of a plain list would.
+    private long insertionCounter = 0;
+    // Every query gets a new stamp, so a collidable that spans several cells is checked only once per query.
+    private int queryStamp = 0;
+    // Reusable intersections, so a query doesn't allocate any objects.
+    private SlabIntersection candidate = new SlabIntersection();
+    private SlabIntersection lineResult = new SlabIntersection();
+    // The buckets that hold removed entries, which are cleared by the next flushRemovals.
+    private boolean[] dirtyBuckets = new boolean[NUMBER_OF_BUCKETS];
+    private int[] dirtyBucketsList = new int[NUMBER_OF_BUCKETS];
+    private int numberOfDirtyBuckets = 0;
+    // The smallest width or height of a collidable (or a member of a group) that was added to the environment.
+    private double smallestSize = Double.POSITIVE_INFINITY;
+    // The profiler that measures the queries (null if they aren't measured).
+    private FrameProfiler profiler = null;
+    // The number of the collidables (and groups) that the last query intersected the movement with.
+    private int candidatesTested = 0;
+
+    /**
+     * The information that the grid keeps about a single collidable (or a single group of collidables).
+     */
+    private static class Entry {
+        private Collidable collidable;
+        private CollidableGroup group;
+        private long order;
+        private int layer;
+        private int references;
+        private boolean removed;
+        private int stamp;
+        private int minColumn;
+        private int minRow;
+        private int maxColumn;
+        private int maxRow;
+
+        /**
+         * @return the rectangle that the entry covers.
+         */
+        private Rectangle bounds() {
+            return this.collidable != null ? this.collidable.getCollisionRectangle() : this.group.getBounds();
+        }
+    }
+
+    /**
+     * Constructor - create an environment with the default cell size.
+     */
+    public GameEnvironment() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Constructor.
+     * @param cellSize the size (in pixels) of a single cell of the grid.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public GameEnvironment(double cellSize) {
+        this.cellSize = cellSize;
+        this.buckets = new List[NUMBER_OF_BUCKETS];
+    }
 
     /**
      * Add the given collidable to the game environment.
      * @param c the collidable object that should be added to the game environment.
      */
     public void addCollidable(Collidable c) {
-        this.collidablesList.add(c);
+        Entry entry = this.addEntry(c);
+        if (entry != null) {
+            entry.collidable = c;
+            entry.layer = c.getLayer();
+            this.computeCells(entry);
+            this.register(entry);
+        }
+    }
+
+    /**
+     * Add the given group of collidables to the game environment, as a single object.
+     * @param group the group that should be added to the game environment.
+     */
+    public void addCollidableGroup(CollidableGroup group) {
+        Entry entry = this.addEntry(group);
+        if (entry != null) {
+            entry.group = group;
+            entry.layer = group.getLayer();
+            this.computeCells(entry);
+            this.register(entry);
+        }
     }
 
     /**
      * @param collidable the collidable object that we want to remove from the game environment.
      */
     public void removeCollidable(Collidable collidable) {
-        this.collidablesList.remove(collidable);
+        this.removeEntry(collidable);
+    }
+
+    /**
+     * @param group the group of collidables that we want to remove from the game environment.
+     */
+    public void removeCollidableGroup(CollidableGroup group) {
+        this.removeEntry(group);
+    }
+
+    /**
+     * Update the cells of the given collidable after its collision rectangle was moved.
+     * Only collidables that actually crossed into other cells are moved inside the grid.
+     * @param collidable the collidable that has moved.
+     */
+    public void updateCollidable(Collidable collidable) {
+        this.updateEntry(collidable);
+    }
+
+    /**
+     * Update the cells of the given group after its bounds were moved or changed.
+     * @param group the group that has changed.
+     */
+    public void updateCollidableGroup(CollidableGroup group) {
+        this.updateEntry(group);
+    }
+
+    /**
+     * @param key the collidable or the group to add.
+     * @return a new entry for the key, or null if the key is already in the environment.
+     */
+    private Entry addEntry(Object key) {
+        Entry entry = this.entries.get(key);
+        // An object that was added more than once stays in the environment until it is removed as many times.
+        if (entry != null) {
+            entry.references++;
+            return null;
+        }
+        entry = new Entry();
+        entry.order = this.insertionCounter++;
+        entry.references = 1;
+        entry.stamp = this.queryStamp;
+        this.entries.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * @param key the collidable or the group to remove.
+     */
+    private void removeEntry(Object key) {
+        Entry entry = this.entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        entry.references--;
+        if (entry.references == 0) {
+            // The entry is skipped from now on, and the buckets are cleared from it by the next flushRemovals.
+            this.entries.remove(key);
+            entry.removed = true;
+            this.markDirty(entry);
+        }
+    }
+
+    /**
+     * Clear the removed collidables from the buckets of the grid. It's called once per frame, so many removals in
+     * the same frame (like a shield that breaks apart) cost a single pass over each bucket they touched.
+     */
+    public void flushRemovals() {
+        for (int i = 0; i < this.numberOfDirtyBuckets; i++) {
+            int index = this.dirtyBucketsList[i];
+            this.dirtyBuckets[index] = false;
+            List<Entry> bucket = this.buckets[index];
+            int next = 0;
+            for (int j = 0; j < bucket.size(); j++) {
+                Entry entry = bucket.get(j);
+                if (!entry.removed) {
+                    bucket.set(next, entry);
+                    next++;
+                }
+            }
+            bucket.subList(next, bucket.size()).clear();
+        }
+        this.numberOfDirtyBuckets = 0;
+    }
+
+    /**
+     * Mark the buckets of the cells of the given (removed) entry as buckets that should be cleared.
+     * @param entry the removed entry.
+     */
+    private void markDirty(Entry entry) {
+        for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+            for (int row = entry.minRow; row <= entry.maxRow; row++) {
+                int index = this.bucketOf(column, row);
+                if (!this.dirtyBuckets[index] && this.buckets[index] != null) {
+                    this.dirtyBuckets[index] = true;
+                    this.dirtyBucketsList[this.numberOfDirtyBuckets] = index;
+                    this.numberOfDirtyBuckets++;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param key the collidable or the group that has moved.
+     */
+    private void updateEntry(Object key) {
+        Entry entry = this.entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        int minColumn = entry.minColumn;
+        int minRow = entry.minRow;
+        int maxColumn = entry.maxColumn;
+        int maxRow = entry.maxRow;
+        this.computeCells(entry);
+        if (minColumn == entry.minColumn && minRow == entry.minRow
+            && maxColumn == entry.maxColumn && maxRow == entry.maxRow) {
+            return;
+        }
+        // Remove the entry from its old cells and register it in the new ones.
+        int newMinColumn = entry.minColumn;
+        int newMinRow = entry.minRow;
+        int newMaxColumn = entry.maxColumn;
+        int newMaxRow = entry.maxRow;
+        entry.minColumn = minColumn;
+        entry.minRow = minRow;
+        entry.maxColumn = maxColumn;
+        entry.maxRow = maxRow;
+        this.unregister(entry);
+        entry.minColumn = newMinColumn;
+        entry.minRow = newMinRow;
+        entry.maxColumn = newMaxColumn;
+        entry.maxRow = newMaxRow;
+        this.register(entry);
+    }
+
+    /**
+     * @return the number of the collidables (and groups of collidables) in the game environment.
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @param frameProfiler the profiler that should measure the collision queries, or null to stop measuring them.
+     */
+    public void setProfiler(FrameProfiler frameProfiler) {
+        this.profiler = frameProfiler;
+    }
+
+    /**
+     * @return the smallest width or height of a collidable (or a member of a group) that was added to the
+     * environment. Removed collidables are still counted, so the value is never larger than the real one.
+     */
+    public double getSmallestSize() {
+        return this.smallestSize;
     }
 
     /**
@@ -37,30 +301,242 @@ public class GameEnvironment {
      * with any of the collidables of the collection, return null.
      */
     public CollisionInfo getClosestCollision(Line trajectory) {
-        Collidable pointerToList = null;
-        Collidable saver = null;
-        Point closestInter = null; // The closest point.
-        Point currentInter = null; // The current point.
-        Rectangle recCollidable = null;
-        // Run over all the collidiables and find the closest colliding point with the line.
-        for (int i = 0; i < this.collidablesList.size(); i++) {
-            // Set a pointer to the current position in the list.
-            pointerToList = this.collidablesList.get(i);
-            // Get the rectangle shape of the collidable.
-            recCollidable = pointerToList.getCollisionRectangle();
-            // Find the closest intersection with the line.
-            currentInter = trajectory.closestIntersectionToStartOfLine(recCollidable);
-            if (currentInter !=  null && closestInter == null) {
-                // Update the closest to be the current intersection.
-                closestInter = currentInter;
-                saver = pointerToList;
-            } else if (currentInter != null && closestInter != null && trajectory.start().distance(currentInter)
-                < trajectory.start().distance(closestInter)) {
-                closestInter = currentInter;
-                saver = pointerToList;
+        Point start = trajectory.start();
+        Point end = trajectory.end();
+        Collidable closest = this.castRay(start.getX(), start.getY(), end.getX(), end.getY(), this.lineResult);
+        if (closest == null) {
+            return new CollisionInfo(null, null);
+        }
+        return new CollisionInfo(new Point(this.lineResult.getX(), this.lineResult.getY()), closest);
+    }
+
+    /**
+     * Find the closest collidable that the segment from (x1, y1) to (x2, y2) enters, without allocating any objects.
+     * @param x1 the x value of the start of the movement.
+     * @param y1 the y value of the start of the movement.
+     * @param x2 the x value of the end of the movement.
+     * @param y2 the y value of the end of the movement.
+     * @param result the intersection that is filled with the details of the closest collision (if there is one).
+     * @return the closest collidable that the movement collides with, or null if there isn't one.
+     */
+    public Collidable castRay(double x1, double y1, double x2, double y2, SlabIntersection result) {
+        return this.castRay(x1, y1, x2, y2, 0, CollisionLayers.ALL, result);
+    }
+
+    /**
+     * Find the closest collidable that a circle, whose center moves from (x1, y1) to (x2, y2), touches on its way,
+     * without allocating any objects.
+     * @param x1 the x value of the start of the movement of the center.
+     * @param y1 the y value of the start of the movement of the center.
+     * @param x2 the x value of the end of the movement of the center.
+     * @param y2 the y value of the end of the movement of the center.
+     * @param radius the radius of the circle, between 0 (a point) and MAX_RADIUS.
+     * @param mask the layers of the collidables that the circle can collide with.
+     * @param result the intersection that is filled with the details of the closest collision (if there is one).
+     * @return the closest collidable that the movement collides with, or null if there isn't one.
+     */
+    public Collidable castRay(double x1, double y1, double x2, double y2, double radius, int mask,
+        SlabIntersection result) {
+        if (radius > MAX_RADIUS) {
+            throw new IllegalArgumentException("The radius is larger than " + MAX_RADIUS + ": " + radius);
+        }
+        long start = this.profiler != null ? this.profiler.start() : 0;
+        Collidable closest;
+        // The event is created only when it's enabled, so the queries don't allocate anything otherwise.
+        if (COLLISION_EVENT_TYPE.isEnabled()) {
+            CollisionQueryEvent event = new CollisionQueryEvent();
+            event.begin();
+            closest = this.closest(x1, y1, x2, y2, radius, mask, result);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setCandidates(this.candidatesTested);
+                event.setHit(closest != null);
+                event.setRadius(radius);
+                event.commit();
             }
+        } else {
+            closest = this.closest(x1, y1, x2, y2, radius, mask, result);
+        }
+        if (this.profiler != null) {
+            this.profiler.stop(FrameProfiler.COLLISION, start);
         }
-        return new CollisionInfo(closestInter, saver);
+        return closest;
+    }
+
+    /**
+     * Walk over the grid and find the closest collidable that the moving circle touches.
+     * @param x1 the x value of the start of the movement of the center.
+     * @param y1 the y value of the start of the movement of the center.
+     * @param x2 the x value of the end of the movement of the center.
+     * @param y2 the y value of the end of the movement of the center.
+     * @param radius the radius of the circle.
+     * @param mask the layers of the collidables that the circle can collide with.
+     * @param result the intersection that is filled with the details of the closest collision (if there is one).
+     * @return the closest collidable that the movement collides with, or null if there isn't one.
+     */
+    private Collidable closest(double x1, double y1, double x2, double y2, double radius, int mask,
+        SlabIntersection result) {
+        Entry saver = null;
+        Collidable closest = null;
+        this.queryStamp++;
+        this.candidatesTested = 0;
+        // Walk over the cells that the segment passes through (from its start to its end), one cell at a time.
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        int column = this.cellOf(x1);
+        int row = this.cellOf(y1);
+        int endColumn = this.cellOf(x2);
+        int endRow = this.cellOf(y2);
+        int stepColumn = (int) Math.signum(dx);
+        int stepRow = (int) Math.signum(dy);
+        // The part of the segment (between 0 and 1) at which the next vertical / horizontal cell border is crossed.
+        double nextColumnCross = Double.POSITIVE_INFINITY;
+        double nextRowCross = Double.POSITIVE_INFINITY;
+        double columnCrossDelta = Double.POSITIVE_INFINITY;
+        double rowCrossDelta = Double.POSITIVE_INFINITY;
+        if (stepColumn != 0) {
+            double border = (stepColumn > 0 ? column + 1 : column) * this.cellSize;
+            nextColumnCross = (border - x1) / dx;
+            columnCrossDelta = this.cellSize / Math.abs(dx);
+        }
+        if (stepRow != 0) {
+            double border = (stepRow > 0 ? row + 1 : row) * this.cellSize;
+            nextRowCross = (border - y1) / dy;
+            rowCrossDelta = this.cellSize / Math.abs(dy);
+        }
+        int cellsLeft = Math.abs(endColumn - column) + Math.abs(endRow - row);
+        while (true) {
+            List<Entry> bucket = this.buckets[this.bucketOf(column, row)];
+            if (bucket != null) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    Entry entry = bucket.get(i);
+                    if (entry.stamp == this.queryStamp || entry.removed
+                        || !CollisionLayers.canCollide(mask, entry.layer)) {
+                        continue;
+                    }
+                    entry.stamp = this.queryStamp;
+                    this.candidatesTested++;
+                    // Intersect the segment with the rectangle of the collidable (or with the members of the group).
+                    Collidable hit;
+                    if (entry.collidable != null) {
+                        hit = this.intersect(x1, y1, x2, y2, radius, entry.collidable.getCollisionRectangle())
+                            ? entry.collidable : null;
+                    } else {
+                        hit = entry.group.castRay(x1, y1, x2, y2, radius, this.candidate);
+                    }
+                    if (hit == null) {
+                        continue;
+                    }
+                    // On equal distances, the collidable that was added first wins (as in a linear scan).
+                    if (saver == null || this.candidate.getEntry() < result.getEntry()
+                        || (this.candidate.getEntry() == result.getEntry() && entry.order < saver.order)) {
+                        result.set(this.candidate);
+                        saver = entry;
+                        closest = hit;
+                    }
+                }
+            }
+            // Cells beyond the closest collision found so far can't hold a closer one.
+            if (cellsLeft == 0 || (saver != null && Math.min(nextColumnCross, nextRowCross) > result.getEntry())) {
+                break;
+            }
+            cellsLeft--;
+            if (nextColumnCross < nextRowCross) {
+                column += stepColumn;
+                nextColumnCross += columnCrossDelta;
+            } else {
+                row += stepRow;
+                nextRowCross += rowCrossDelta;
+            }
+        }
+        return closest;
+    } // closest
+
+    /**
+     * Intersect the moving circle with a rectangle. The result is kept in the candidate intersection.
+     * @param x1 the x value of the start of the movement of the center.
+     * @param y1 the y value of the start of the movement of the center.
+     * @param x2 the x value of the end of the movement of the center.
+     * @param y2 the y value of the end of the movement of the center.
+     * @param radius the radius of the circle.
+     * @param rec the rectangle.
+     * @return true if the circle touches the rectangle on its way, false otherwise.
+     */
+    private boolean intersect(double x1, double y1, double x2, double y2, double radius, Rectangle rec) {
+        double left = rec.getX();
+        double top = rec.getY();
+        return this.candidate.intersect(x1, y1, x2, y2, radius, left, top, left + rec.getWidth(),
+            top + rec.getHeight());
+    }
+
+    /**
+     * Compute the range of the cells that the rectangle of the given entry covers.
+     * @param entry the entry of the collidable.
+     */
+    private void computeCells(Entry entry) {
+        Rectangle rec = entry.bounds();
+        double x = rec.getX();
+        double y = rec.getY();
+        // A circle touches the collidable while its center is in the cells around it, up to the largest radius.
+        double padding = PADDING + MAX_RADIUS;
+        entry.minColumn = this.cellOf(x - padding);
+        entry.minRow = this.cellOf(y - padding);
+        entry.maxColumn = this.cellOf(x + rec.getWidth() + padding);
+        entry.maxRow = this.cellOf(y + rec.getHeight() + padding);
+        double size = entry.collidable != null ? Math.min(rec.getWidth(), rec.getHeight())
+            : entry.group.getSmallestMemberSize();
+        this.smallestSize = Math.min(this.smallestSize, size);
+    }
+
+    /**
+     * Add the given entry to the buckets of all the cells it covers.
+     * @param entry the entry of the collidable.
+     */
+    private void register(Entry entry) {
+        for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+            for (int row = entry.minRow; row <= entry.maxRow; row++) {
+                int index = this.bucketOf(column, row);
+                if (this.buckets[index] == null) {
+                    this.buckets[index] = new ArrayList<>();
+                }
+                // Different cells may share a bucket, so register the entry only once per bucket.
+                if (!this.buckets[index].contains(entry)) {
+                    this.buckets[index].add(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the given entry from the buckets of all the cells it covers.
+     * @param entry the entry of the collidable.
+     */
+    private void unregister(Entry entry) {
+        for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+            for (int row = entry.minRow; row <= entry.maxRow; row++) {
+                List<Entry> bucket = this.buckets[this.bucketOf(column, row)];
+                if (bucket != null) {
+                    bucket.remove(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param coordinate an x or y value.
+     * @return the index of the cell (column or row) that contains the coordinate.
+     */
+    private int cellOf(double coordinate) {
+        return (int) Math.floor(coordinate / this.cellSize);
+    }
+
+    /**
+     * @param column the column of the cell.
+     * @param row the row of the cell.
+     * @return the index of the bucket that the cell is hashed into.
+     */
+    private int bucketOf(int column, int row) {
+        return (column * 73856093 ^ row * 19349663) & (NUMBER_OF_BUCKETS - 1);
     }
 
 } // class GameEnvironment
@@ -1,14 +1,11 @@
 package invadersgame;
 
 import java.awt.*;
-import java.io.IOException;
-import java.util.Objects;
 
 import biuoop.DrawSurface;
 import levels.GameLevel;
 import sprites.Sprite;
-
-import javax.imageio.ImageIO;
+import sprites.Assets;
 
 /**
  * The LivesIndicator class indicates the current number of lives.
@@ -30,12 +27,7 @@ public class LivesIndicator implements Sprite {
         // Draw the LivesIndicator sprite at the top of the screen.
         int leftBlockX = d.getWidth() / 3;
         int centerBlockY = d.getHeight() / 25;
-        Image heartImage = null;
-        try {
-            heartImage = ImageIO.read(Objects.requireNonNull(
-                    ClassLoader.getSystemClassLoader().getResourceAsStream("general_images/heart.png")));
-        } catch (IOException ignored) {
-        }
+        Image heartImage = Assets.getImage("general_images/heart.png");
         d.drawImage(leftBlockX - 16, -6, heartImage);
         Color textColor = Color.black;
         d.setColor(textColor);
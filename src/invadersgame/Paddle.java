@@ -1,12 +1,12 @@
 package invadersgame;
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
 
 import biuoop.DrawSurface;
 import biuoop.KeyboardSensor;
 import collision.Collidable;
+import collision.CollisionLayers;
 import collision.HitListener;
+import collision.HitListeners;
 import collision.HitNotifier;
 import geometry.Line;
 import geometry.Point;
@@ -28,8 +28,12 @@ public class Paddle implements Sprite, Collidable, HitNotifier {
     private Color color;
     // The change that the paddle makes in a case of a key pressing to the left or right.
     private int paddleSpeed;
-    private List<HitListener> hitListeners;
-    private long lastTimeShot;
+    private HitListeners hitListeners;
+    // The time (on the clock of the level, in milliseconds) after which the paddle can shoot again.
+    private long nextShotTime;
+    // The colors that the paddle changes to when it moves.
+    private Colors colors;
+    private GameEnvironment environment;
 
     /**
      * Constructor.
@@ -44,8 +48,9 @@ public class Paddle implements Sprite, Collidable, HitNotifier {
         this.color = color;
         this.paddleSpeed = paddleSpeed;
         this.keyboard = keyboard;
-        this.hitListeners = new ArrayList<>();
-        this.lastTimeShot = 0;
+        this.hitListeners = new HitListeners();
+        this.nextShotTime = -1;
+        this.colors = new Colors();
     }
 
     /**
@@ -62,6 +67,13 @@ public class Paddle implements Sprite, Collidable, HitNotifier {
         this.color = paddleColor;
     }
 
+    /**
+     * @param paddleColors the colors that the paddle changes to when it moves.
+     */
+    public void setColors(Colors paddleColors) {
+        this.colors = paddleColors;
+    }
+
     /**
      * @param keyboardS a KeyboardSensor that is used to detect the key presses.
      */
@@ -76,13 +88,37 @@ public class Paddle implements Sprite, Collidable, HitNotifier {
         this.movementRange = range;
     }
 
+    /**
+     * Move the paddle to the given place on the x-axis, at once.
+     * @param x the new x value of the upper left corner of the paddle.
+     */
+    public void moveTo(double x) {
+        this.rectangle.moveTo(x, this.rectangle.getY());
+        if (this.environment != null) {
+            this.environment.updateCollidable(this);
+        }
+    }
+
+    /**
+     * @return the time (on the clock of the level, in milliseconds) after which the paddle can shoot again.
+     */
+    public long getNextShotTime() {
+        return this.nextShotTime;
+    }
+
+    /**
+     * @param time the time (on the clock of the level, in milliseconds) after which the paddle can shoot again.
+     */
+    public void setNextShotTime(long time) {
+        this.nextShotTime = time;
+    }
+
     /**
      * @param d the movement that the paddle should make in the x-axis.
      */
     private void changePaddlePosition(double d) {
-        Point currentPosition = this.rectangle.getUpperLeft();
         // Update the x value of the start point of the rectangle.
-        this.rectangle.setUpperLeft(new Point(currentPosition.getX() + d, currentPosition.getY()));
+        this.moveTo(this.rectangle.getX() + d);
     }
 
     /**
@@ -90,7 +126,8 @@ public class Paddle implements Sprite, Collidable, HitNotifier {
      * @param dt specifies the number of seconds passed since the last call.
      */
     private boolean rightExceeding(double dt) {
-        return this.getCollisionRectangle().getUpperEdge().end().getX() + this.paddleSpeed * dt
+        Rectangle rect = this.getCollisionRectangle();
+        return rect.getX() + rect.getWidth() + this.paddleSpeed * dt
             > this.movementRange.end().getX();
     }
 
@@ -99,7 +136,7 @@ public class Paddle implements Sprite, Collidable, HitNotifier {
      * @param dt specifies the number of seconds passed since the last call.
      */
     private boolean leftExceeding(double dt) {
-        return this.getCollisionRectangle().getUpperEdge().start().getX() - paddleSpeed * dt
+        return this.getCollisionRectangle().getX() - paddleSpeed * dt
             < this.movementRange.start().getX();
     }
 
@@ -109,8 +146,7 @@ public class Paddle implements Sprite, Collidable, HitNotifier {
      */
     public void moveLeft(double dt) {
         this.changePaddlePosition((-paddleSpeed * dt));
-        Colors colors = new Colors();
-        this.setColor(colors.setRainbowColor(-1));
+        this.setColor(this.colors.setRainbowColor(-1));
     }
 
     /**
@@ -119,8 +155,7 @@ public class Paddle implements Sprite, Collidable, HitNotifier {
      */
     public void moveRight(double dt) {
         this.changePaddlePosition((this.paddleSpeed * dt));
-        Colors colors = new Colors();
-        this.setColor(colors.setRainbowColor(-1));
+        this.setColor(this.colors.setRainbowColor(-1));
     }
 
     /**
@@ -158,19 +193,32 @@ public class Paddle implements Sprite, Collidable, HitNotifier {
         return (this.rectangle);
     }
 
+    /**
+     * @return the layer of the paddle.
+     */
+    public int getLayer() {
+        return CollisionLayers.PADDLE;
+    }
+
     /**
      * Perform the shot of the paddle.
      * @param gameLevel the gameLevel.
      */
     public void paddleShot(GameLevel gameLevel) {
         long shootingTime = 350;
-        if (System.currentTimeMillis() - lastTimeShot > shootingTime) {
-            this.lastTimeShot = System.currentTimeMillis();
-            double xPosition = this.getCollisionRectangle().getUpperEdge().middle().getX();
-            double yPosition = this.getCollisionRectangle().getUpperEdge().middle().getY();
+        long now = gameLevel.getClock().getMillis();
+        if (now > this.nextShotTime) {
+            // The middle of the upper edge.
+            Rectangle rect = this.getCollisionRectangle();
+            double xPosition = (rect.getX() + (rect.getX() + rect.getWidth())) / 2;
+            double yPosition = rect.getY();
             Ball shotOfPaddle = gameLevel.shotOfPaddle(new Point(xPosition, yPosition - 5));
-            shotOfPaddle.setVelocity(0, -350);
-            shotOfPaddle.addToGame(gameLevel);
+            // If all the shots of the level are flying, the paddle can't shoot, and it tries again in the next step.
+            if (shotOfPaddle != null) {
+                this.nextShotTime = now + shootingTime;
+                shotOfPaddle.setVelocity(0, -350);
+                shotOfPaddle.addToGame(gameLevel);
+            }
             }
         }
 
@@ -206,11 +254,7 @@ public class Paddle implements Sprite, Collidable, HitNotifier {
      * @param hitter the ball that hits the paddle.
      */
     private void notifyHit(Ball hitter) {
-        List<HitListener> listeners =
-            new ArrayList<>(this.hitListeners);
-        for (int i = 0; i < listeners.size(); i++) {
-            listeners.get(i).hitEvent(this, hitter);
-        }
+        this.hitListeners.notifyHit(this, hitter);
     }
 
     /**
@@ -220,6 +264,7 @@ public class Paddle implements Sprite, Collidable, HitNotifier {
     public void addToGame(GameLevel g) {
         g.addSprite(this);
         g.addCollidable(this);
+        this.environment = g.getGameEnvironment();
     }
 
 } // class paddle
\ No newline at end of file
@@ -0,0 +1,80 @@
+package invadersgame;
+
+import java.awt.Color;
+
+import biuoop.DrawSurface;
+import levels.GameLevel;
+import profiler.FrameProfiler;
+import profiler.PhaseTimings;
+import sprites.Sprite;
+
+/**
+ * The ProfilerIndicator class draws the timings of the phases of the frames (p50, p99 and max, in milliseconds) under
+ * the score, while the overlay of the profiler is visible.
+ */
+public class ProfilerIndicator implements Sprite {
+    // The place of the first line of the numbers, the distance between the lines and the size of the text.
+    private static final int X = 560;
+    private static final int Y = 50;
+    private static final int LINE_HEIGHT = 14;
+    private static final int FONT_SIZE = 12;
+    // The width of the column of the names of the phases, and of every column of numbers.
+    private static final int NAME_WIDTH = 75;
+    private static final int COLUMN_WIDTH = 50;
+
+    // Declare the members of the class.
+    private FrameProfiler profiler;
+
+    /**
+     * Constructor.
+     * @param profiler the profiler whose timings are drawn.
+     */
+    public ProfilerIndicator(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        if (!this.profiler.isOverlayVisible()) {
+            return;
+        }
+        d.setColor(Color.WHITE);
+        this.drawLine(d, Y, "phase", "p50", "p99", "max");
+        for (int i = 0; i < FrameProfiler.PHASES; i++) {
+            PhaseTimings timings = this.profiler.getTimings(i);
+            this.drawLine(d, Y + (i + 1) * LINE_HEIGHT, FrameProfiler.getName(i),
+                String.format("%.2f", timings.getPercentile(0.5) / 1e6),
+                String.format("%.2f", timings.getPercentile(0.99) / 1e6),
+                String.format("%.2f", timings.getMax() / 1e6));
+        }
+    }
+
+    /**
+     * Draw a line of the table, every value in a column of its own.
+     * @param d the surface to draw on.
+     * @param y the y value of the line.
+     * @param name the name of the phase.
+     * @param p50 the median time of the phase.
+     * @param p99 the 99th percentile of the time of the phase.
+     * @param max the longest time of the phase.
+     */
+    private void drawLine(DrawSurface d, int y, String name, String p50, String p99, String max) {
+        d.drawText(X, y, name, FONT_SIZE);
+        d.drawText(X + NAME_WIDTH, y, p50, FONT_SIZE);
+        d.drawText(X + NAME_WIDTH + COLUMN_WIDTH, y, p99, FONT_SIZE);
+        d.drawText(X + NAME_WIDTH + 2 * COLUMN_WIDTH, y, max, FONT_SIZE);
+    }
+
+    @Override
+    public void timePassed(double dt) {
+    }
+
+    /**
+     * Add the profiler indicator to the game, by calling the appropriate game methods.
+     * @param game the game that the profiler indicator should be added to.
+     */
+    public void addToGame(GameLevel game) {
+        game.addSprite(this);
+    }
+
+} // class ProfilerIndicator
@@ -1,8 +1,10 @@
 package invadersgame;
 
+import collision.CollisionLayers;
 import collision.HitListener;
 import sprites.Ball;
 import sprites.Block;
+import sprites.Shield;
 
 /**
  * The ScoreTrackingListener class updates the counter of the blocks of the game
@@ -23,7 +25,7 @@ public class ScoreTrackingListener implements HitListener {
     @Override
     public void hitEvent(Block beingHit, Ball hitter) {
         // Hitting an enemy block is worth 5 points.
-        if (beingHit.isEnemy() && hitter.getVelocity().getDy() < 0) {
+        if (beingHit.isEnemy() && hitter.getLayer() == CollisionLayers.PLAYER_SHOT) {
             this.currentScore.increase(5);
         }
     }
@@ -32,4 +34,8 @@ public class ScoreTrackingListener implements HitListener {
     public void hitEvent(Paddle beingHit, Ball hitter) {
     }
 
+    @Override
+    public void hitEvent(Shield beingHit, Ball hitter) {
+    }
+
  } // class ScoreTrackingListener
\ No newline at end of file
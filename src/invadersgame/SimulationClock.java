@@ -0,0 +1,63 @@
+package invadersgame;
+
+/**
+ * The SimulationClock class keeps the time of the simulation of a level. It moves only when the level performs a
+ * step (by the dt of the step), so the cooldowns that are measured with it don't depend on the clock on the wall: a
+ * headless game can run faster than real time, a paused game doesn't let them expire, and two runs with the same
+ * steps see the same times.
+ */
+public class SimulationClock {
+    // Declare the members of the class.
+    private long nanos;
+    private long steps;
+
+    /**
+     * Constructor - create a clock at time 0.
+     */
+    public SimulationClock() {
+        this.nanos = 0;
+        this.steps = 0;
+    }
+
+    /**
+     * Move the clock forward by a step. The time is kept in whole nanoseconds, so adding the same steps always gives
+     * the same time.
+     * @param dt the number of seconds that the step stands for.
+     */
+    public void advance(double dt) {
+        this.nanos += Math.round(dt * 1e9);
+        this.steps++;
+    }
+
+    /**
+     * Put the clock back to a time that it showed before (for restoring a snapshot of the level).
+     * @param timeNanos the time of the simulation, in nanoseconds.
+     * @param stepCount the number of the steps that the clock was moved by.
+     */
+    public void setTime(long timeNanos, long stepCount) {
+        this.nanos = timeNanos;
+        this.steps = stepCount;
+    }
+
+    /**
+     * @return the time of the simulation, in milliseconds.
+     */
+    public long getMillis() {
+        return this.nanos / 1_000_000L;
+    }
+
+    /**
+     * @return the time of the simulation, in nanoseconds.
+     */
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    /**
+     * @return the number of the steps that the clock was moved by.
+     */
+    public long getSteps() {
+        return this.steps;
+    }
+
+} // class SimulationClock
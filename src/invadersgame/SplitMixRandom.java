@@ -0,0 +1,55 @@
+package invadersgame;
+
+import java.util.Random;
+
+/**
+ * The SplitMixRandom class is a random generator that is fully decided by its seed (the SplitMix64 generator). It
+ * extends Random, so it can be passed wherever a Random is expected, but its whole state is a single long, which
+ * makes the random choices of a level repeatable from the seed of the level.
+ * The generator isn't synchronized - every level has its own.
+ */
+public class SplitMixRandom extends Random {
+    // The step that the state moves by in every draw (the odd number closest to 2^64 divided by the golden ratio).
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    // Random is serializable, and serialVersionUID keeps the versions of the serialized generator apart.
+    private static final long serialVersionUID = 1L;
+
+    // Declare the members of the class. The state has no initializer, since Random's constructor sets it.
+    private long state;
+
+    /**
+     * Constructor.
+     * @param seed the seed of the generator.
+     */
+    public SplitMixRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        super.setSeed(seed);
+        this.state = seed;
+    }
+
+    /**
+     * @return the whole state of the generator - a generator that is seeded with it continues with the same numbers.
+     */
+    public long getState() {
+        return this.state;
+    }
+
+    @Override
+    public long nextLong() {
+        this.state += GOLDEN_GAMMA;
+        long z = this.state;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (this.nextLong() >>> (64 - bits));
+    }
+
+} // class SplitMixRandom
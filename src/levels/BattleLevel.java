@@ -1,12 +1,8 @@
 package levels;
 
 import java.awt.Image;
-import java.io.IOException;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Objects;
-
-import javax.imageio.ImageIO;
 
 import geometry.Point;
 import invadersgame.Velocity;
@@ -46,13 +42,7 @@ public class BattleLevel implements LevelInformation {
 
     @Override
     public Sprite getBackground() {
-        Image backgroundImage = null;
-        try {
-            backgroundImage = ImageIO.read(
-                    Objects.requireNonNull(ClassLoader.getSystemClassLoader().getResourceAsStream(
-                            "background_images/space.jpg")));
-        } catch (IOException ignored) {
-        }
+        Image backgroundImage = Assets.getImage("background_images/space.jpg");
         ImageBackground imgBackground = new ImageBackground(backgroundImage);
         imgBackground.setStartPoint(new Point(0,0));
         return imgBackground;
@@ -66,12 +56,7 @@ public class BattleLevel implements LevelInformation {
     @Override
     public List<Block> blocks() {
         List<Block> blocks = new ArrayList<>();
-        Image image = null;
-        try {
-            image = ImageIO.read(ClassLoader.getSystemClassLoader().
-                    getResourceAsStream("block_images/enemy.png"));
-        } catch (IOException ignored) {
-        }
+        Image image = Assets.getImage("block_images/enemy.png");
         int y = 40;
         for (int i = 0; i < 5; i++) {
             int x = 150;
@@ -1,4 +1,5 @@
 package levels;
+import java.io.File;
 import java.util.List;
 
 import animation.*;
@@ -9,11 +10,17 @@ import highscores.ScoreInfo;
 import invadersgame.Counter;
 import invadersgame.LivesIndicator;
 import invadersgame.ScoreIndicator;
+import invadersgame.SplitMixRandom;
+import profiler.LevelEvent;
 
 /**
  * The GameFlow class is in charge of creating different levels and passing from one level to the next one.
  */
 public class GameFlow {
+    // The speed of the enemies in the first level, and how much faster they are in every next level.
+    public static final int DEFAULT_ENEMIES_SPEED = 65;
+    public static final int DEFAULT_SPEED_INCREMENT = 15;
+
     // Declare the members of the class.
     private DialogManager dialogManager;
     private AnimationRunner animationRunner;
@@ -21,6 +28,13 @@ public class GameFlow {
     private Counter gameScore;
     private Counter lives;
     private HighScoresTable highScoresTable;
+    // Chooses the seeds of the levels, one after the other.
+    private SplitMixRandom levelSeeds;
+    private int initialEnemiesSpeed;
+    private int speedIncrement;
+    private int levelsCleared;
+    // The file of the quick save of the levels (null if the levels can't be saved).
+    private File quickSaveFile;
 
     /**
      * Constructor.
@@ -32,6 +46,20 @@ public class GameFlow {
      */
     public GameFlow(AnimationRunner animationRunner, KeyboardSensor keyboard, DialogManager dialogManager,
         HighScoresTable highScoresTable, int numberOfLives) {
+        this(animationRunner, keyboard, dialogManager, highScoresTable, numberOfLives, System.nanoTime());
+    }
+
+    /**
+     * Constructor.
+     * @param animationRunner an animation runner.
+     * @param keyboard a keyboard sensor.
+     * @param dialogManager is used to get the player's name.
+     * @param highScoresTable the table of the highest scores.
+     * @param numberOfLives the current number of lives.
+     * @param seed the seed of the game - the same seed and the same keys give the same game.
+     */
+    public GameFlow(AnimationRunner animationRunner, KeyboardSensor keyboard, DialogManager dialogManager,
+        HighScoresTable highScoresTable, int numberOfLives, long seed) {
             this.animationRunner = animationRunner;
             this.keyboard = keyboard;
             this.dialogManager = dialogManager;
@@ -39,18 +67,66 @@ public class GameFlow {
             this.gameScore = new Counter(0);
             this.lives = new Counter(numberOfLives);
             this.highScoresTable = highScoresTable;
+            this.levelSeeds = new SplitMixRandom(seed);
+            this.initialEnemiesSpeed = DEFAULT_ENEMIES_SPEED;
+            this.speedIncrement = DEFAULT_SPEED_INCREMENT;
+            this.levelsCleared = 0;
+            this.quickSaveFile = null;
         }
 
+    /**
+     * Set the progression of the speed of the enemies.
+     * @param initialSpeed the speed of the enemies in the first level.
+     * @param increment how much faster the enemies are in every next level.
+     */
+    public void setEnemiesSpeed(int initialSpeed, int increment) {
+        this.initialEnemiesSpeed = initialSpeed;
+        this.speedIncrement = increment;
+    }
+
+    /**
+     * Let the player quick-save a level and quick-load it from the pause screen.
+     * @param file the file of the quick save, or null if the levels can't be saved.
+     */
+    public void setQuickSaveFile(File file) {
+        this.quickSaveFile = file;
+    }
+
+    /**
+     * @return the number of the levels that were cleared so far.
+     */
+    public int getLevelsCleared() {
+        return this.levelsCleared;
+    }
+
+    /**
+     * @return the current score of the game.
+     */
+    public int getScore() {
+        return this.gameScore.getValue();
+    }
+
     /**
      * @param levels a list of LevelInformation objects (the information of each level).
      */
     public void runLevels(List<LevelInformation> levels) {
         LevelInformation levelInfo = levels.get(0);
         int levelNumber = 1;
-        int enemiesSpeed = 65;
+        int enemiesSpeed = this.initialEnemiesSpeed;
+        // A save that was loaded in the last turn, which the next level goes on from.
+        QuickSave resumed = null;
         while (true) {
+            // The Flight Recorder event of the level lasts from its start until it's cleared or the game is over.
+            LevelEvent levelEvent = new LevelEvent();
+            levelEvent.begin();
+            int startedLevel = levelNumber;
+            // The state of the seeds is saved with the level, so a loaded level takes the same seed again.
+            long seedsState = this.levelSeeds.getState();
             GameLevel level = new GameLevel(levelInfo, this.keyboard, this.animationRunner,
-                this.gameScore, this.lives, enemiesSpeed);
+                this.gameScore, this.lives, enemiesSpeed, this.levelSeeds.nextLong());
+            if (this.quickSaveFile != null) {
+                level.setQuickSave(this.quickSaveFile, levelNumber, seedsState);
+            }
             // Initialize the game.
             level.initialize();
             LevelNameIndicator levelName = new LevelNameIndicator(levelInfo.levelName() + levelNumber);
@@ -60,17 +136,40 @@ public class GameFlow {
             level.addSprite(scoreIndicator);
             level.addSprite(levelName);
 
+            // The outcome of the level, which is decided before the number of the next level is.
+            boolean cleared = false;
             while (this.lives.getValue() > 0) {
-                level.playOneTurn();
+                if (resumed != null) {
+                    level.resumeTurn(resumed.getSnapshot());
+                } else {
+                    level.playOneTurn();
+                }
+                resumed = level.takeLoadedSave();
+                if (resumed != null) {
+                    // Build the level of the save again, and go on from it.
+                    levelNumber = resumed.getLevelNumber();
+                    this.levelsCleared = levelNumber - 1;
+                    enemiesSpeed = resumed.getEnemiesSpeed();
+                    this.levelSeeds.setSeed(resumed.getLevelSeedsState());
+                    break;
+                }
                 if (level.getBlocksNumber() == 0) {
+                    cleared = true;
                     levelNumber++;
-                    enemiesSpeed = enemiesSpeed + 15;
+                    this.levelsCleared++;
+                    enemiesSpeed = enemiesSpeed + this.speedIncrement;
                     break;
                 } else {
                     this.lives.decrease(1);
                 }
             }
-            if (this.lives.getValue() == 0) {
+            levelEvent.end();
+            if (levelEvent.shouldCommit()) {
+                levelEvent.setLevel(levelInfo.levelName(), startedLevel);
+                levelEvent.setResult(this.gameScore.getValue(), this.lives.getValue(), cleared, resumed != null);
+                levelEvent.commit();
+            }
+            if (this.lives.getValue() == 0 && resumed == null) {
                 break;
             }
         }
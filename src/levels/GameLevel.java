@@ -1,7 +1,10 @@
 package levels;
 import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import animation.*;
 import invadersgame.Counter;
@@ -9,27 +12,35 @@ import invadersgame.EnemiesArmy;
 import invadersgame.GameEnvironment;
 import invadersgame.LivesIndicator;
 import invadersgame.Paddle;
+import invadersgame.ProfilerIndicator;
 import invadersgame.ScoreIndicator;
 import invadersgame.ScoreTrackingListener;
+import invadersgame.SimulationClock;
+import invadersgame.SplitMixRandom;
 import biuoop.DrawSurface;
 import biuoop.KeyboardSensor;
 import collision.BallRemover;
 import collision.BlockRemover;
 import collision.Collidable;
+import collision.CollisionLayers;
 import collision.HitListener;
 import geometry.Line;
 import geometry.Point;
+import profiler.FrameProfiler;
+import profiler.FrameStatistics;
 import sprites.Ball;
 import sprites.Block;
 import sprites.BlockColorBackground;
 import sprites.Colors;
+import sprites.Shield;
+import sprites.ShotPool;
 import sprites.Sprite;
 import sprites.SpriteCollection;
 
 /**
  * The GameLevel class is responsible to hold the sprites & collidables, and in charge of the animation.
  */
-public class GameLevel implements Animation {
+public class GameLevel implements SteppedAnimation, FrameStatistics {
     // Declare the members of the class.
     private SpriteCollection sprites;
     private GameEnvironment environment;
@@ -43,9 +54,32 @@ public class GameLevel implements Animation {
     private Paddle paddle;
     private KeyboardSensor keyboard;
     private List<Block> blocks;
-    private List<Ball> shots;
+    private List<Shield> shields;
+    // The shots of the level are taken from a pool, and go back to it when they are removed.
+    private ShotPool shots;
     private EnemiesArmy enemiesArmy;
     private Counter paddleHits;
+    // The listeners that are shared by all the blocks (and the shields) of the level.
+    private HitListener blockRemover;
+    private HitListener ballRemover;
+    private HitListener scoreTracker;
+    // The profiler of the runner (a disabled one of its own, which keeps a single frame, when the level has no runner).
+    private FrameProfiler profiler;
+    // True if the key that toggles the profiler overlay was pressed in the last step.
+    private boolean profilerKeyPressed;
+    // The time of the level, which moves only with its steps, and the random generators of the level. The choices
+    // of the game (like the shooters of the enemies) and the colors that are only shown are taken from separate
+    // generators, so drawing more or fewer frames doesn't change the game.
+    private SimulationClock clock;
+    private SplitMixRandom random;
+    private Random colorRandom;
+    // The file of the quick save (null if the level can't be saved), what's saved with the level, and a save that was
+    // loaded in the pause screen and should be resumed by the game flow.
+    private File quickSaveFile;
+    private int levelNumber;
+    private long levelSeedsState;
+    private int enemiesSpeed;
+    private QuickSave loadedSave;
 
     // Set some sizes as constants.
     public static final int SURFACE_WIDTH = 800;
@@ -53,6 +87,10 @@ public class GameLevel implements Animation {
     public static final int SIDES_BORDERS_WIDTH = 25;
     public static final int UP_DOWN_BORDERS_HEIGHT = 30;
     public static final int PADDLE_HEIGHT = 20;
+    // The key that shows or hides the timings of the profiler.
+    public static final String PROFILER_KEY = "f";
+    // The seed of the levels that are created without one.
+    public static final long DEFAULT_SEED = 0;
 
     /**
      * Constructor.
@@ -65,9 +103,30 @@ public class GameLevel implements Animation {
      */
     public GameLevel(LevelInformation levelInformation, KeyboardSensor keyboard,
         AnimationRunner runner, Counter gameScore, Counter lives, int enemiesSpeed) {
+        this(levelInformation, keyboard, runner, gameScore, lives, enemiesSpeed, DEFAULT_SEED);
+    }
+
+    /**
+     * Constructor.
+     * @param levelInformation the information required to fully describe a level.
+     * @param keyboard a keyboard sensor.
+     * @param runner takes an animation object and runs it.
+     * @param gameScore the current score of the game.
+     * @param lives the current number of the lives in the game.
+     * @param enemiesSpeed the speed of the enemies.
+     * @param seed the seed of the random choices of the level - the same seed and the same keys give the same game.
+     */
+    public GameLevel(LevelInformation levelInformation, KeyboardSensor keyboard,
+        AnimationRunner runner, Counter gameScore, Counter lives, int enemiesSpeed, long seed) {
+        this.clock = new SimulationClock();
+        this.random = new SplitMixRandom(seed);
+        this.colorRandom = new SplitMixRandom(this.random.nextLong());
         this.environment = new GameEnvironment();
         this.sprites = new SpriteCollection();
         this.runner = runner;
+        this.profiler = runner != null ? runner.getProfiler() : new FrameProfiler(1);
+        this.profilerKeyPressed = false;
+        this.environment.setProfiler(this.profiler);
         // Get a draw surface to draw on.
         this.levelInformation = levelInformation;
         this.blocksCounter = new Counter(levelInformation.numberOfBlocksToRemove());
@@ -76,29 +135,70 @@ public class GameLevel implements Animation {
         this.numberOfLives = lives;
         this.keyboard = keyboard;
         this.blocks = new ArrayList<>();
+        this.shields = new ArrayList<>();
+        this.blockRemover = new BlockRemover(this, this.blocksCounter);
+        this.ballRemover = new BallRemover(this, this.ballsCounter);
+        this.scoreTracker = new ScoreTrackingListener(this.gameScore);
         // Set the info block at the top of the screen (and draw on it the name of the level).
         setBordersBlocks();
         // Set the blocks of the enemies.
         this.enemiesArmy = new EnemiesArmy(this, enemiesSpeed);
-        for (int i = 0; i < levelInformation.blocks().size(); i++) {
-            Block block = levelInformation.blocks().get(i);
+        // The level information builds new blocks in every call, so the blocks are asked for once.
+        List<Block> enemies = levelInformation.blocks();
+        for (int i = 0; i < enemies.size(); i++) {
+            Block block = enemies.get(i);
             block.setAsEnemy();
             this.blocks.add(block);
             this.enemiesArmy.addBlock(block);
         }
         this.gameScore = gameScore;
         this.running = true;
-        this.shots = new ArrayList<>();
+        this.enemiesSpeed = enemiesSpeed;
+        this.quickSaveFile = null;
+        this.levelNumber = 1;
+        this.loadedSave = null;
+        this.shots = new ShotPool(ShotPool.DEFAULT_CAPACITY, this.environment);
         this.sprites.addSprite(enemiesArmy);
         // Set the lives indicator and the score indicator.
         LivesIndicator livesIndicator = new LivesIndicator(this.numberOfLives);
         ScoreIndicator scoreIndicator = new ScoreIndicator(this.gameScore);
         this.sprites.addSprite(livesIndicator);
         this.sprites.addSprite(scoreIndicator);
-        this.shots = new ArrayList<>();
+        this.sprites.addSprite(new ProfilerIndicator(this.profiler));
         this.paddleHits = new Counter(1);
     }
 
+    /**
+     * @return the profiler of the frames of the level.
+     */
+    public FrameProfiler getProfiler() {
+        return this.profiler;
+    }
+
+    /**
+     * @return the clock of the level, which moves by the dt of every step.
+     */
+    public SimulationClock getClock() {
+        return this.clock;
+    }
+
+    /**
+     * @return the random generator of the choices of the level.
+     */
+    public Random getRandom() {
+        return this.random;
+    }
+
+    @Override
+    public int getSpriteCount() {
+        return this.sprites.size();
+    }
+
+    @Override
+    public int getCollidableCount() {
+        return this.environment.size();
+    }
+
     /**
      * @return the game environment.
      */
@@ -133,7 +233,16 @@ public class GameLevel implements Animation {
      * @param s the sprite object that should be removed from Sprite collection of the game.
      */
     public void removeSprite(Sprite s) {
-        this.sprites.getSprites().remove(s);
+        this.sprites.removeSprite(s);
+    }
+
+    /**
+     * Apply the removals of the sprites and the collidables that were requested since the last call.
+     */
+    private void flushRemovals() {
+        this.sprites.flushRemovals();
+        this.environment.flushRemovals();
+        this.shots.flushReleases();
     }
 
     /**
@@ -141,13 +250,10 @@ public class GameLevel implements Animation {
      * @param block the block that should be added to the game
      */
     public void addBlock(Block block) {
-        // BlockRemover is in charge of removing blocks from the game, as well as counting the remaining blocks.
-        BlockRemover blockRemover = new BlockRemover(this, this.blocksCounter);
-        // stk is in charge of updating the score counter when blocks are being hit and removed.
-        ScoreTrackingListener stk = new ScoreTrackingListener(this.gameScore);
-        // Create a new block and add it to the game.
-        block.addHitListener(blockRemover);
-        block.addHitListener(stk);
+        // The block remover is in charge of removing blocks from the game, as well as counting the remaining blocks.
+        block.addHitListener(this.blockRemover);
+        // The score tracker is in charge of updating the score counter when blocks are being hit and removed.
+        block.addHitListener(this.scoreTracker);
         block.addToGame(this);
     }
 
@@ -174,16 +280,15 @@ public class GameLevel implements Animation {
         // The number of hits that the ball should hit the borders blocks is 0.
         int blockHits = 0;
         BlockColorBackground bordersBackground = new BlockColorBackground(new Color(255, 255, 204));
-        // Add a ball remover to the borders.
-        BallRemover ballRemover = new BallRemover(this, this.ballsCounter);
+        // Add the ball remover to the borders.
         Block upBlock = addBorderBlock(new Point(0, 0), SURFACE_WIDTH, UP_DOWN_BORDERS_HEIGHT,
                 blockHits, bordersBackground);
-        upBlock.addHitListener(ballRemover);
+        upBlock.addHitListener(this.ballRemover);
         upBlock.addToGame(this);
         // Set the down block border (the killer block) and add it to the game environment.
         Block killerBlock = addBorderBlock(new Point(0, SURFACE_HEIGHT), SURFACE_WIDTH, UP_DOWN_BORDERS_HEIGHT,
             blockHits, bordersBackground);
-        killerBlock.addHitListener(ballRemover);
+        killerBlock.addHitListener(this.ballRemover);
         killerBlock.addToGame(this);
     } // setBordersBlocks
 
@@ -195,10 +300,11 @@ public class GameLevel implements Animation {
         double paddleWidth = this.levelInformation.paddleWidth();
         Point paddleStartPoint = new Point((float) (SURFACE_WIDTH / 2 - paddleWidth / 2),
             (float) (SURFACE_HEIGHT - PADDLE_HEIGHT));
-        Colors colors = new Colors();
+        Colors colors = new Colors(this.colorRandom);
         this.paddle = new Paddle(paddleStartPoint, paddleWidth, PADDLE_HEIGHT,
             colors.setRainbowColor(-1), this.levelInformation.paddleSpeed(), this.keyboard);
         paddle.setKeyboardSensor(this.keyboard);
+        paddle.setColors(colors);
         // The line of the range that the paddle can move in it.
         Line paddleRange = new Line(new Point(SIDES_BORDERS_WIDTH, 0),
             new Point(SURFACE_WIDTH - SIDES_BORDERS_WIDTH, 0));
@@ -220,27 +326,12 @@ public class GameLevel implements Animation {
      * @param numOfColumns the number of columns of the shield.
      */
     public void buildShield(double startX, double startY, int numOfRows, int numOfColumns) {
-        BlockRemover blockRemover = new BlockRemover(this, new Counter(0));
-        BallRemover ballRemover = new BallRemover(this, this.ballsCounter);
-        Block[][] shield = new Block[numOfRows][numOfColumns];
-        double width = 5;
-        double height = 5;
-        double currentX;
-        double currentY = startY;
-        BlockColorBackground blockBackground = new BlockColorBackground(new Color(255, 30, 0));
-        for (int i = 0; i < numOfRows; i++) {
-            currentX = startX;
-             for (int j = 0; j < numOfColumns; j++) {
-                 shield[i][j] = new Block(new Point(currentX, currentY), width, height, 1, blockBackground);
-                 currentX = currentX + width;
-                 shield[i][j].addHitListener(blockRemover);
-                 shield[i][j].addHitListener(ballRemover);
-                 shield[i][j].addHitListener(new ScoreTrackingListener(this.gameScore));
-                 shield[i][j].addToGame(this);
-             }
-             currentY = currentY + height;
-        }
-     }
+        // The shield is a grid of 5x5 cells, and a ball that hits one of them destroys it and is removed.
+        Shield shield = new Shield(new Point(startX, startY), numOfRows, numOfColumns, 5, new Color(255, 30, 0));
+        shield.addHitListener(this.ballRemover);
+        shield.addToGame(this);
+        this.shields.add(shield);
+    }
 
     /**
      * Build the shields and add them to the game.
@@ -261,17 +352,15 @@ public class GameLevel implements Animation {
      */
     public void initialize() {
         setShields();
-        HitListener br = new BlockRemover(this, this.blocksCounter);
-        HitListener blr = new BallRemover(this, this.ballsCounter);
-        HitListener stl = new ScoreTrackingListener(this.gameScore);
+        // The enemies are drawn by the army, and kept in the game environment as a single group.
+        this.environment.addCollidableGroup(this.enemiesArmy);
         for (Block i: this.blocks) {
-            i.addToGame(this);
-            i.addHitListener(br);
-            i.addHitListener(blr);
-            i.addHitListener(stl);
+            i.addHitListener(this.blockRemover);
+            i.addHitListener(this.ballRemover);
+            i.addHitListener(this.scoreTracker);
             i.addHitListener(this.enemiesArmy);
         }
-        this.sprites.getSprites().add(0, levelInformation.getBackground());
+        this.sprites.addSprite(0, levelInformation.getBackground());
         this.ballsCounter = new Counter(this.levelInformation.numberOfBalls());
       } // initialize
 
@@ -282,17 +371,41 @@ public class GameLevel implements Animation {
 
     @Override
     public void doOneFrame(DrawSurface d, double dt) {
+        this.draw(d);
+        this.step(dt);
+    }
+
+    @Override
+    public void draw(DrawSurface d) {
         this.sprites.drawAllOn(d);
-        // Notify all the sprites that time has passed (change the state of the sprites in each frame).
+    }
+
+    @Override
+    public void step(double dt) {
+        this.clock.advance(dt);
+        // Notify all the sprites that time has passed (change the state of the sprites in each step).
         this.sprites.notifyAllTimePassed(dt);
         // Shoot with the paddle.
         if ((this.keyboard.isPressed(KeyboardSensor.SPACE_KEY))) {
             this.paddle.paddleShot(this);
           }
-        // Pause screen animation.
+        // Show or hide the timings of the profiler, once per press of the key.
+        boolean profilerKey = this.keyboard.isPressed(PROFILER_KEY);
+        if (profilerKey && !this.profilerKeyPressed) {
+            this.profiler.toggleOverlay();
+        }
+        this.profilerKeyPressed = profilerKey;
+        // Pause screen animation. The level can be saved or loaded from the pause screen.
         if (this.keyboard.isPressed("p")) {
-            this.runner.run(new KeyPressStoppableAnimation(
-                this.keyboard, "c", new PauseScreenAnimation()));
+            PauseScreenAnimation pause = this.quickSaveFile != null ? new PauseScreenAnimation(this.keyboard, this)
+                : new PauseScreenAnimation();
+            this.runner.run(new KeyPressStoppableAnimation(this.keyboard, "c", pause));
+            // A loaded save ends the turn, and the game flow goes on from the save.
+            if (this.loadedSave != null) {
+                this.running = false;
+                this.flushRemovals();
+                return;
+            }
         }
         // Check whether the player won.
         if (this.blocksCounter.getValue() == 0) {
@@ -308,6 +421,8 @@ public class GameLevel implements Animation {
             this.enemiesArmy.initialize(dt);
             this.removeShots();
         }
+        // The removals of this frame are applied together, after all the sprites were notified.
+        this.flushRemovals();
     }
 
     /**
@@ -315,25 +430,54 @@ public class GameLevel implements Animation {
      *  on each Sprite.
      */
     public void playOneTurn() {
-        setPaddle();
-        this.ballsCounter = new Counter(this.levelInformation.numberOfBalls());
-        CountdownAnimation countdownAnimation = new CountdownAnimation(2.0, 3, this.sprites);
+        this.resumeTurn(null);
+    } // playOneTurn
+
+    /**
+     * Play a turn from a snapshot of a turn of a level like this one (with a countdown before, as in every turn).
+     * @param snapshot the snapshot to go on from, or null to start a new turn.
+     */
+    public void resumeTurn(WorldSnapshot snapshot) {
+        this.startTurn();
+        if (snapshot != null) {
+            this.restore(snapshot);
+        }
+        CountdownAnimation countdownAnimation = new CountdownAnimation(2.0, 3, this.sprites, this.colorRandom);
         this.runner.run(countdownAnimation);
         // Use the runner to run the current animation, which is one turn of the game.
-        this.running = true;
         this.runner.run(this);
-        // Remove the paddle since the turn is over.
+        this.endTurn();
+    } // resumeTurn
+
+    /**
+     * Start a turn without the runner: set the paddle, and let the level run. The turn is played by calling step
+     * until the level should stop, and then endTurn.
+     */
+    public void startTurn() {
+        setPaddle();
+        this.ballsCounter = new Counter(this.levelInformation.numberOfBalls());
+        this.running = true;
+    }
+
+    /**
+     * End a turn - remove the paddle since the turn is over.
+     */
+    public void endTurn() {
         this.removeSprite(paddle);
         this.removeCollidable(paddle);
-    } // playOneTurn
+        this.flushRemovals();
+    }
 
     /**
      * Remove the shots from the screen.
      */
     public void removeShots() {
-        for (int i = 0; i < this.shots.size(); i++) {
-            this.shots.get(i).removeFromGame(this);
+        List<Ball> active = this.shots.getActive();
+        // Removing a shot moves the last active shot to its place, so the shots are removed from the end.
+        for (int i = active.size() - 1; i >= 0; i--) {
+            active.get(i).removeFromGame(this);
         }
+        this.flushRemovals();
     }
 
     /**
@@ -342,9 +486,7 @@ public class GameLevel implements Animation {
      *  @return a new ball.
      */
     public Ball shotOfEnemy(Point point) {
-        Ball ball = new Ball(point, 5, Color.RED, this.environment);
-        this.shots.add(ball);
-        return ball;
+        return this.shots.acquire(point, 5, Color.RED, CollisionLayers.ENEMY_SHOT, CollisionLayers.ENEMY_SHOT_MASK);
     }
 
     /**
@@ -353,9 +495,189 @@ public class GameLevel implements Animation {
      *  @return a new ball.
      */
     public Ball shotOfPaddle(Point point) {
-        Ball ball = new Ball(point, 4, Color.WHITE, this.environment);
-        this.shots.add(ball);
-        return ball;
+        return this.shots.acquire(point, 4, Color.WHITE, CollisionLayers.PLAYER_SHOT,
+            CollisionLayers.PLAYER_SHOT_MASK);
+    }
+
+    /**
+     * Remove a shot from the game. It goes back to the pool of the shots when the removals are applied.
+     * @param shot the shot that should be removed.
+     */
+    public void removeShot(Ball shot) {
+        this.sprites.removeSprite(shot);
+        this.shots.release(shot);
+    }
+
+    /**
+     * @return the paddle of the current turn (null before the first turn).
+     */
+    public Paddle getPaddle() {
+        return this.paddle;
+    }
+
+    /**
+     * @return the army of the enemies of the level.
+     */
+    public EnemiesArmy getEnemiesArmy() {
+        return this.enemiesArmy;
+    }
+
+    /**
+     * @return the pool of the shots of the level (the number of the flying shots and its high-water mark).
+     */
+    public ShotPool getShotPool() {
+        return this.shots;
+    }
+
+    /**
+     * @return the shields of the level, in the order they were built.
+     */
+    public List<Shield> getShields() {
+        return this.shields;
+    }
+
+    /**
+     * @return a snapshot of the state of the level.
+     */
+    public WorldSnapshot snapshot() {
+        WorldSnapshot snapshot = new WorldSnapshot();
+        this.snapshot(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Take a snapshot of the state of the level into the given one, reusing its arrays. It's taken between steps,
+     * during a turn.
+     * @param into the snapshot to write the state into.
+     */
+    public void snapshot(WorldSnapshot into) {
+        into.clockNanos = this.clock.getNanos();
+        into.clockSteps = this.clock.getSteps();
+        into.randomState = this.random.getState();
+        into.running = this.running;
+        into.score = this.gameScore.getValue();
+        into.lives = this.numberOfLives.getValue();
+        into.blocks = this.blocksCounter.getValue();
+        into.balls = this.ballsCounter.getValue();
+        into.paddleHits = this.paddleHits.getValue();
+        if (this.paddle != null) {
+            into.paddleX = this.paddle.getCollisionRectangle().getX();
+            into.paddleNextShotTime = this.paddle.getNextShotTime();
+        }
+        this.enemiesArmy.saveMotion(into.army);
+        int slots = this.enemiesArmy.getSlotCount();
+        into.ensureSlots(slots);
+        into.slotCount = this.enemiesArmy.saveSlots(into.alive, into.hitPoints);
+        into.shooterCount = this.enemiesArmy.saveShooters(into.shooters);
+        int words = 0;
+        for (int i = 0; i < this.shields.size(); i++) {
+            words += this.shields.get(i).getCellWords();
+        }
+        into.ensureShieldWords(words);
+        int offset = 0;
+        for (int i = 0; i < this.shields.size(); i++) {
+            offset += this.shields.get(i).saveCells(into.shieldCells, offset);
+        }
+        // The shots are kept in the order of the sprites, which is the order they move in.
+        into.ensureShots(this.shots.getActiveCount());
+        List<Sprite> all = this.sprites.getSprites();
+        int count = 0;
+        for (int i = 0; i < all.size(); i++) {
+            Sprite sprite = all.get(i);
+            if (sprite instanceof Ball) {
+                Ball shot = (Ball) sprite;
+                into.shots[4 * count] = shot.getX();
+                into.shots[4 * count + 1] = shot.getY();
+                into.shots[4 * count + 2] = shot.getVelocity().getDx();
+                into.shots[4 * count + 3] = shot.getVelocity().getDy();
+                into.shotLayers[count] = shot.getLayer();
+                count++;
+            }
+        }
+        into.shotCount = count;
+    }
+
+    /**
+     * Put the level back into the state of a snapshot. The objects of the level are changed in place - the listeners
+     * between them stay as they are - so the snapshot must be of this level, or of a level that was built from the
+     * same level information and is in the same turn. Restoring costs as much as the state of the level, plus the
+     * cells of the shields and the blocks of the army that changed since the snapshot was taken.
+     * What's only shown and doesn't change the game (like the color of the paddle) isn't restored.
+     * @param from the snapshot to restore.
+     */
+    public void restore(WorldSnapshot from) {
+        if (!from.fits(this)) {
+            throw new IllegalArgumentException("The snapshot is of a level with other enemies or shields");
+        }
+        this.clock.setTime(from.clockNanos, from.clockSteps);
+        this.random.setSeed(from.randomState);
+        this.running = from.running;
+        this.gameScore.setValue(from.score);
+        this.numberOfLives.setValue(from.lives);
+        this.blocksCounter.setValue(from.blocks);
+        this.ballsCounter.setValue(from.balls);
+        this.paddleHits.setValue(from.paddleHits);
+        if (this.paddle != null) {
+            this.paddle.moveTo(from.paddleX);
+            this.paddle.setNextShotTime(from.paddleNextShotTime);
+        }
+        this.enemiesArmy.restoreMotion(from.army);
+        this.enemiesArmy.restoreSlots(from.alive, from.hitPoints, from.shooters, from.shooterCount);
+        int offset = 0;
+        for (int i = 0; i < this.shields.size(); i++) {
+            offset += this.shields.get(i).restoreCells(from.shieldCells, offset);
+        }
+        this.removeShots();
+        for (int i = 0; i < from.shotCount; i++) {
+            Point center = new Point(from.shots[4 * i], from.shots[4 * i + 1]);
+            Ball shot = from.shotLayers[i] == CollisionLayers.PLAYER_SHOT ? this.shotOfPaddle(center)
+                : this.shotOfEnemy(center);
+            shot.setVelocity(from.shots[4 * i + 2], from.shots[4 * i + 3]);
+            shot.addToGame(this);
+        }
+    }
+
+    /**
+     * Let the player save the level and load a save from the pause screen.
+     * @param file the file of the quick save.
+     * @param number the number of the level (1 for the first level).
+     * @param seedsState the state of the generator of the seeds of the levels before the level took its seed.
+     */
+    public void setQuickSave(File file, int number, long seedsState) {
+        this.quickSaveFile = file;
+        this.levelNumber = number;
+        this.levelSeedsState = seedsState;
+    }
+
+    /**
+     * Save the level, in the middle of its turn, to the file of the quick save.
+     * @throws IOException if the save can't be written.
+     */
+    public void quickSave() throws IOException {
+        new QuickSave(this.levelNumber, this.enemiesSpeed, this.levelSeedsState, this.snapshot())
+            .save(this.quickSaveFile);
+    }
+
+    /**
+     * Load the save from the file of the quick save. The level goes on from the save when the pause ends.
+     * @throws IOException if there's no save that can be loaded.
+     */
+    public void quickLoad() throws IOException {
+        QuickSave save = QuickSave.load(this.quickSaveFile);
+        if (!save.getSnapshot().fits(this)) {
+            throw new IOException("The save is of a level with other enemies or shields");
+        }
+        this.loadedSave = save;
+    }
+
+    /**
+     * @return the save that was loaded in the last turn (null if none), which the game should go on from. It's
+     * returned once.
+     */
+    public QuickSave takeLoadedSave() {
+        QuickSave save = this.loadedSave;
+        this.loadedSave = null;
+        return save;
     }
 
     /**
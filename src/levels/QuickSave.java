@@ -0,0 +1,131 @@
+package levels;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The QuickSave class is a saved game in the middle of a level: the number of the level, the speed of its enemies,
+ * the state that the seeds of the next levels are taken from, and a snapshot of the level itself.
+ * It's written to and read from its file through a memory-mapped buffer, so saving and loading take well under the
+ * time of a frame.
+ *
+ * The file is big-endian: the magic number, the version of the format, the number of the bytes after the header,
+ * the number of the level, the speed of the enemies, the state of the seeds and the snapshot. The magic number is
+ * written last (and cleared first), so a save that was cut in the middle is never loaded.
+ */
+public class QuickSave {
+    // The first bytes of a save file ("SISV").
+    public static final int MAGIC = 0x53495356;
+    // The version of the format of the file.
+    public static final int VERSION = 1;
+    // The bytes of the magic number, the version and the length.
+    private static final int HEADER_SIZE = 12;
+
+    // Declare the members of the class.
+    private int levelNumber;
+    private int enemiesSpeed;
+    private long levelSeedsState;
+    private WorldSnapshot snapshot;
+
+    /**
+     * Constructor.
+     * @param levelNumber the number of the level (1 for the first level).
+     * @param enemiesSpeed the speed of the enemies at the start of the level.
+     * @param levelSeedsState the state of the generator of the seeds of the levels before the level took its seed.
+     * @param snapshot the snapshot of the level.
+     */
+    public QuickSave(int levelNumber, int enemiesSpeed, long levelSeedsState, WorldSnapshot snapshot) {
+        this.levelNumber = levelNumber;
+        this.enemiesSpeed = enemiesSpeed;
+        this.levelSeedsState = levelSeedsState;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @return the number of the level (1 for the first level).
+     */
+    public int getLevelNumber() {
+        return this.levelNumber;
+    }
+
+    /**
+     * @return the speed of the enemies at the start of the level.
+     */
+    public int getEnemiesSpeed() {
+        return this.enemiesSpeed;
+    }
+
+    /**
+     * @return the state of the generator of the seeds of the levels before the level took its seed.
+     */
+    public long getLevelSeedsState() {
+        return this.levelSeedsState;
+    }
+
+    /**
+     * @return the snapshot of the level.
+     */
+    public WorldSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * Write the save into a file, replacing the save that was there.
+     * @param file the file.
+     * @throws IOException if the file can't be written.
+     */
+    public void save(File file) throws IOException {
+        int length = 4 + 4 + 8 + this.snapshot.encodedSize();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // A longer file that was there keeps its end, which is after the length that is written.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + length);
+            buffer.putInt(0);
+            buffer.putInt(VERSION).putInt(length);
+            buffer.putInt(this.levelNumber).putInt(this.enemiesSpeed).putLong(this.levelSeedsState);
+            this.snapshot.writeTo(buffer);
+            buffer.putInt(0, MAGIC);
+        }
+    }
+
+    /**
+     * Read a save from a file.
+     * @param file the file.
+     * @return the save.
+     * @throws IOException if the file can't be read, or isn't a save of a version that can be read.
+     */
+    public static QuickSave load(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not a saved game: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a saved game: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of a saved game");
+            }
+            int length = buffer.getInt();
+            if (length < 0 || length > size - HEADER_SIZE) {
+                throw new IOException("The saved game is cut: " + file);
+            }
+            buffer.limit(HEADER_SIZE + length);
+            int levelNumber = buffer.getInt();
+            int enemiesSpeed = buffer.getInt();
+            long levelSeedsState = buffer.getLong();
+            WorldSnapshot snapshot = new WorldSnapshot();
+            snapshot.readFrom(buffer);
+            return new QuickSave(levelNumber, enemiesSpeed, levelSeedsState, snapshot);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("The saved game is damaged: " + file, e);
+        }
+    }
+
+} // class QuickSave
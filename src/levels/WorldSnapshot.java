@@ -0,0 +1,310 @@
+package levels;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import invadersgame.EnemiesArmy;
+
+/**
+ * The WorldSnapshot class keeps the state of a GameLevel in flat primitive arrays: the clock, the state of the random
+ * generator and the counters, the paddle, the movement of the army and which of its blocks are left (by their slots),
+ * the cells of the shields and the flying shots. A snapshot holds no reference to the objects of the level, so it's
+ * cheap to keep many of them, and GameLevel.snapshot and GameLevel.restore cost as much as the state itself.
+ * A snapshot can be taken into an existing one, which reuses its arrays, so a search that tries out moves from the
+ * same state again and again doesn't create objects for its snapshots.
+ */
+public class WorldSnapshot {
+    // Declare the members of the class. They are written and read by GameLevel.
+    long clockNanos;
+    long clockSteps;
+    long randomState;
+    boolean running;
+    int score;
+    int lives;
+    int blocks;
+    int balls;
+    int paddleHits;
+    double paddleX;
+    long paddleNextShotTime;
+    double[] army;
+    // Whether each block of the army is left, and its hit points, by its slot.
+    int slotCount;
+    boolean[] alive;
+    int[] hitPoints;
+    // The slots of the shooters of the army, in their order.
+    int shooterCount;
+    int[] shooters;
+    // The cells of all the shields, one after the other.
+    long[] shieldCells;
+    // The shots, in the order they move in: (x, y, dx, dy) and the layer of every one.
+    int shotCount;
+    double[] shots;
+    int[] shotLayers;
+
+    /**
+     * Constructor - an empty snapshot, which is filled by GameLevel.snapshot.
+     */
+    public WorldSnapshot() {
+        this.army = new double[EnemiesArmy.MOTION_STATE_SIZE];
+        this.alive = new boolean[0];
+        this.hitPoints = new int[0];
+        this.shooters = new int[0];
+        this.shieldCells = new long[0];
+        this.shots = new double[0];
+        this.shotLayers = new int[0];
+    }
+
+    /**
+     * Make this snapshot a copy of the given one, reusing its arrays.
+     * @param other the snapshot to copy.
+     */
+    public void copyFrom(WorldSnapshot other) {
+        this.clockNanos = other.clockNanos;
+        this.clockSteps = other.clockSteps;
+        this.randomState = other.randomState;
+        this.running = other.running;
+        this.score = other.score;
+        this.lives = other.lives;
+        this.blocks = other.blocks;
+        this.balls = other.balls;
+        this.paddleHits = other.paddleHits;
+        this.paddleX = other.paddleX;
+        this.paddleNextShotTime = other.paddleNextShotTime;
+        System.arraycopy(other.army, 0, this.army, 0, this.army.length);
+        this.ensureSlots(other.slotCount);
+        this.slotCount = other.slotCount;
+        System.arraycopy(other.alive, 0, this.alive, 0, other.slotCount);
+        System.arraycopy(other.hitPoints, 0, this.hitPoints, 0, other.slotCount);
+        this.shooterCount = other.shooterCount;
+        System.arraycopy(other.shooters, 0, this.shooters, 0, other.shooterCount);
+        this.ensureShieldWords(other.shieldCells.length);
+        System.arraycopy(other.shieldCells, 0, this.shieldCells, 0, other.shieldCells.length);
+        this.ensureShots(other.shotCount);
+        this.shotCount = other.shotCount;
+        System.arraycopy(other.shots, 0, this.shots, 0, 4 * other.shotCount);
+        System.arraycopy(other.shotLayers, 0, this.shotLayers, 0, other.shotCount);
+    }
+
+    /**
+     * @return a copy of the snapshot.
+     */
+    public WorldSnapshot copy() {
+        WorldSnapshot copy = new WorldSnapshot();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Make sure that there's room for the given number of the slots of the army.
+     * @param count the number of the slots.
+     */
+    void ensureSlots(int count) {
+        if (this.alive.length < count) {
+            this.alive = new boolean[count];
+            this.hitPoints = new int[count];
+            this.shooters = new int[count];
+        }
+    }
+
+    /**
+     * Make sure that the cells of the shields take exactly the given number of longs.
+     * @param words the number of the longs.
+     */
+    void ensureShieldWords(int words) {
+        if (this.shieldCells.length != words) {
+            this.shieldCells = new long[words];
+        }
+    }
+
+    /**
+     * Make sure that there's room for the given number of the shots.
+     * @param count the number of the shots.
+     */
+    void ensureShots(int count) {
+        if (this.shotLayers.length < count) {
+            this.shots = Arrays.copyOf(this.shots, 4 * count);
+            this.shotLayers = Arrays.copyOf(this.shotLayers, count);
+        }
+    }
+
+    /**
+     * @param level a level.
+     * @return true if the snapshot can be restored into the level - it has the same slots of the army and the same
+     * shields - false otherwise.
+     */
+    boolean fits(GameLevel level) {
+        int words = 0;
+        for (int i = 0; i < level.getShields().size(); i++) {
+            words += level.getShields().get(i).getCellWords();
+        }
+        return this.slotCount == level.getEnemiesArmy().getSlotCount() && this.shieldCells.length == words
+            && this.shotCount <= level.getShotPool().getCapacity();
+    }
+
+    /**
+     * @return the number of the bytes that writeTo writes.
+     */
+    int encodedSize() {
+        return 8 * 3 + 1 + 4 * 5 + 8 + 8 + 4 + 8 * this.army.length + 4 + 5 * this.slotCount + 4
+            + 4 * this.shooterCount + 4 + 8 * this.shieldCells.length + 4 + 36 * this.shotCount;
+    }
+
+    /**
+     * Write the snapshot into a buffer, from its position. Every array is written after its length.
+     * @param out the buffer.
+     */
+    void writeTo(ByteBuffer out) {
+        out.putLong(this.clockNanos).putLong(this.clockSteps).putLong(this.randomState);
+        out.put((byte) (this.running ? 1 : 0));
+        out.putInt(this.score).putInt(this.lives).putInt(this.blocks).putInt(this.balls).putInt(this.paddleHits);
+        out.putDouble(this.paddleX).putLong(this.paddleNextShotTime);
+        out.putInt(this.army.length);
+        for (double value : this.army) {
+            out.putDouble(value);
+        }
+        out.putInt(this.slotCount);
+        for (int i = 0; i < this.slotCount; i++) {
+            out.put((byte) (this.alive[i] ? 1 : 0)).putInt(this.hitPoints[i]);
+        }
+        out.putInt(this.shooterCount);
+        for (int i = 0; i < this.shooterCount; i++) {
+            out.putInt(this.shooters[i]);
+        }
+        out.putInt(this.shieldCells.length);
+        for (long word : this.shieldCells) {
+            out.putLong(word);
+        }
+        out.putInt(this.shotCount);
+        for (int i = 0; i < this.shotCount; i++) {
+            out.putDouble(this.shots[4 * i]).putDouble(this.shots[4 * i + 1]).putDouble(this.shots[4 * i + 2])
+                .putDouble(this.shots[4 * i + 3]).putInt(this.shotLayers[i]);
+        }
+    }
+
+    /**
+     * Read a snapshot that writeTo wrote, from the position of the buffer, into this one.
+     * @param in the buffer.
+     * @throws IllegalArgumentException if a length in the buffer is wrong.
+     * @throws java.nio.BufferUnderflowException if the buffer ends in the middle of the snapshot.
+     */
+    void readFrom(ByteBuffer in) {
+        this.clockNanos = in.getLong();
+        this.clockSteps = in.getLong();
+        this.randomState = in.getLong();
+        this.running = in.get() != 0;
+        this.score = in.getInt();
+        this.lives = in.getInt();
+        this.blocks = in.getInt();
+        this.balls = in.getInt();
+        this.paddleHits = in.getInt();
+        this.paddleX = in.getDouble();
+        this.paddleNextShotTime = in.getLong();
+        if (readLength(in, 8) != this.army.length) {
+            throw new IllegalArgumentException("The movement of the army has a wrong size");
+        }
+        for (int i = 0; i < this.army.length; i++) {
+            this.army[i] = in.getDouble();
+        }
+        int slots = readLength(in, 5);
+        this.ensureSlots(slots);
+        this.slotCount = slots;
+        for (int i = 0; i < slots; i++) {
+            this.alive[i] = in.get() != 0;
+            this.hitPoints[i] = in.getInt();
+        }
+        int shooterSlots = readLength(in, 4);
+        if (shooterSlots > slots) {
+            throw new IllegalArgumentException("There are more shooters than slots");
+        }
+        this.shooterCount = shooterSlots;
+        for (int i = 0; i < shooterSlots; i++) {
+            this.shooters[i] = in.getInt();
+            if (this.shooters[i] < 0 || this.shooters[i] >= slots) {
+                throw new IllegalArgumentException("A shooter is out of the slots");
+            }
+        }
+        this.ensureShieldWords(readLength(in, 8));
+        for (int i = 0; i < this.shieldCells.length; i++) {
+            this.shieldCells[i] = in.getLong();
+        }
+        int count = readLength(in, 36);
+        this.ensureShots(count);
+        this.shotCount = count;
+        for (int i = 0; i < count; i++) {
+            for (int j = 0; j < 4; j++) {
+                this.shots[4 * i + j] = in.getDouble();
+            }
+            this.shotLayers[i] = in.getInt();
+        }
+    }
+
+    /**
+     * @param in a buffer.
+     * @param itemSize the number of the bytes of an item.
+     * @return the length of an array, read from the buffer.
+     * @throws IllegalArgumentException if the length is negative or there aren't enough bytes for it.
+     */
+    private static int readLength(ByteBuffer in, int itemSize) {
+        int length = in.getInt();
+        if (length < 0 || (long) length * itemSize > in.remaining()) {
+            throw new IllegalArgumentException("Wrong length " + length);
+        }
+        return length;
+    }
+
+    /**
+     * @return the number of the steps of the level when the snapshot was taken.
+     */
+    public long getSteps() {
+        return this.clockSteps;
+    }
+
+    /**
+     * @return the score of the game when the snapshot was taken.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * @return the number of the lives when the snapshot was taken.
+     */
+    public int getLives() {
+        return this.lives;
+    }
+
+    /**
+     * @return the number of the enemies that were left when the snapshot was taken.
+     */
+    public int getBlocksLeft() {
+        return this.blocks;
+    }
+
+    /**
+     * @return true if the turn was still going on when the snapshot was taken, false if it had ended.
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * @param other another snapshot.
+     * @return true if both snapshots hold the same state, false otherwise.
+     */
+    public boolean sameStateAs(WorldSnapshot other) {
+        return this.clockNanos == other.clockNanos && this.clockSteps == other.clockSteps
+            && this.randomState == other.randomState && this.running == other.running && this.score == other.score
+            && this.lives == other.lives && this.blocks == other.blocks && this.balls == other.balls
+            && this.paddleHits == other.paddleHits && this.paddleX == other.paddleX
+            && this.paddleNextShotTime == other.paddleNextShotTime && Arrays.equals(this.army, other.army)
+            && this.slotCount == other.slotCount && this.shooterCount == other.shooterCount
+            && this.shotCount == other.shotCount
+            && Arrays.equals(this.alive, 0, this.slotCount, other.alive, 0, other.slotCount)
+            && Arrays.equals(this.hitPoints, 0, this.slotCount, other.hitPoints, 0, other.slotCount)
+            && Arrays.equals(this.shooters, 0, this.shooterCount, other.shooters, 0, other.shooterCount)
+            && Arrays.equals(this.shieldCells, other.shieldCells)
+            && Arrays.equals(this.shots, 0, 4 * this.shotCount, other.shots, 0, 4 * other.shotCount)
+            && Arrays.equals(this.shotLayers, 0, this.shotCount, other.shotLayers, 0, other.shotCount);
+    }
+
+} // class WorldSnapshot
@@ -0,0 +1,53 @@
+package profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The CollisionQueryEvent class is the Flight Recorder event of a single query of the game environment. There are many
+ * queries in every frame, so the event is disabled by default, and has to be enabled in the recording settings.
+ */
+@Name("spaceinvaders.CollisionQuery")
+@Label("Collision Query")
+@Category("Space Invaders")
+@Description("A query of the game environment for the closest collision of a movement")
+@Enabled(false)
+@Threshold("0 ns")
+@StackTrace(false)
+public class CollisionQueryEvent extends Event {
+    // Declare the members of the class.
+    @Label("Candidates Tested")
+    private int candidates;
+    @Label("Hit")
+    private boolean hit;
+    @Label("Radius")
+    private double radius;
+
+    /**
+     * @param count the number of the collidables (and groups) that were intersected with the movement.
+     */
+    public void setCandidates(int count) {
+        this.candidates = count;
+    }
+
+    /**
+     * @param found true if the movement collides with a collidable, false otherwise.
+     */
+    public void setHit(boolean found) {
+        this.hit = found;
+    }
+
+    /**
+     * @param size the radius of the moving circle (0 for a point).
+     */
+    public void setRadius(double size) {
+        this.radius = size;
+    }
+
+} // class CollisionQueryEvent
@@ -0,0 +1,63 @@
+package profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The FrameEvent class is the Flight Recorder event of a single frame of the animation runner: the steps, the drawing
+ * and the showing of the frame. By default only the frames that take longer than 20 milliseconds (the hitches) are
+ * recorded.
+ */
+@Name("spaceinvaders.Frame")
+@Label("Frame")
+@Category("Space Invaders")
+@Description("A frame of the animation: its steps, its drawing and its showing")
+@Enabled(true)
+@Threshold("20 ms")
+@StackTrace(false)
+public class FrameEvent extends Event {
+    // Declare the members of the class.
+    @Label("Animation")
+    private String animation;
+    @Label("Steps")
+    private int steps;
+    @Label("Sprites")
+    private int sprites;
+    @Label("Collidables")
+    private int collidables;
+
+    /**
+     * @param name the name of the animation that was run in the frame.
+     */
+    public void setAnimation(String name) {
+        this.animation = name;
+    }
+
+    /**
+     * @param count the number of the steps that were performed in the frame.
+     */
+    public void setSteps(int count) {
+        this.steps = count;
+    }
+
+    /**
+     * @param count the number of the sprites of the animation.
+     */
+    public void setSprites(int count) {
+        this.sprites = count;
+    }
+
+    /**
+     * @param count the number of the collidables (and groups of collidables) of the animation.
+     */
+    public void setCollidables(int count) {
+        this.collidables = count;
+    }
+
+} // class FrameEvent
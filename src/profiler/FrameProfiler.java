@@ -0,0 +1,248 @@
+package profiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The FrameProfiler class measures where the time of the frames goes. The code of every phase (the update of the
+ * sprites, the enemies, the collision queries, the drawing and the showing of the frame) asks for the time when it
+ * starts and reports it when it ends. The time of a phase is summed over the frame (a phase may run many times in a
+ * frame, like the collision queries), and at the end of the frame every sum goes into the ring buffer of its phase.
+ * The time that the garbage collector took during the frame is recorded too, so a stutter can be told apart as render,
+ * physics or GC.
+ * When the frames are drawn by a render thread, the show phase is only the publishing of the frame, and the render
+ * thread reports the time it took to replay and show the frames it drew (the render phase of a frame is the time that
+ * the render thread spent drawing during it).
+ * A disabled profiler doesn't even read the clock, so the measuring code can stay in place.
+ */
+public class FrameProfiler {
+    // The phases of a frame.
+    public static final int UPDATE = 0;
+    public static final int ENEMIES = 1;
+    public static final int COLLISION = 2;
+    public static final int DRAW = 3;
+    public static final int SHOW = 4;
+    public static final int RENDER = 5;
+    public static final int GC = 6;
+    public static final int FRAME = 7;
+    // The number of the phases, and their names.
+    public static final int PHASES = 8;
+    private static final String[] NAMES = {"update", "enemies", "collision", "draw", "show", "render", "gc", "frame"};
+    // The default number of the last frames that are kept (4 seconds of 60 frames per second).
+    public static final int DEFAULT_CAPACITY = 240;
+
+    // Declare the members of the class.
+    private boolean enabled;
+    private boolean overlayVisible;
+    private PhaseTimings[] timings;
+    // The time of every phase in the current frame.
+    private long[] current;
+    private long frameStart;
+    private long gcMillis;
+    // The time that the render thread spent drawing since the last frame ended, which it adds from its own thread.
+    private final AtomicLong renderNanos = new AtomicLong();
+    private List<GarbageCollectorMXBean> collectors;
+
+    /**
+     * Constructor - create a disabled profiler that keeps the default number of frames.
+     */
+    public FrameProfiler() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor - create a disabled profiler.
+     * @param capacity the number of the last frames that are kept for every phase.
+     */
+    public FrameProfiler(int capacity) {
+        this.enabled = false;
+        this.overlayVisible = false;
+        this.timings = new PhaseTimings[PHASES];
+        for (int i = 0; i < PHASES; i++) {
+            this.timings[i] = new PhaseTimings(capacity);
+        }
+        this.current = new long[PHASES];
+        this.collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    }
+
+    /**
+     * @param phase one of the phases of the profiler.
+     * @return the name of the phase.
+     */
+    public static String getName(int phase) {
+        return NAMES[phase];
+    }
+
+    /**
+     * @return true if the profiler measures the frames, false otherwise.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Start or stop measuring. A profiler that is started again begins a new frame.
+     * @param enabled true if the profiler should measure the frames.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            this.renderNanos.set(0);
+            this.beginFrame(System.nanoTime());
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return true if the numbers should be drawn on the screen, false otherwise.
+     */
+    public boolean isOverlayVisible() {
+        return this.overlayVisible;
+    }
+
+    /**
+     * Show or hide the numbers on the screen. While they are shown the profiler has to measure, so it's enabled.
+     */
+    public void toggleOverlay() {
+        this.overlayVisible = !this.overlayVisible;
+        if (this.overlayVisible) {
+            this.setEnabled(true);
+        }
+    }
+
+    /**
+     * @return the current time, to pass to stop() when the phase ends (0 if the profiler is disabled).
+     */
+    public long start() {
+        return this.enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Add the time since the given start to the given phase of the current frame.
+     * @param phase the phase that ended.
+     * @param start the value that start() returned when the phase started.
+     */
+    public void stop(int phase, long start) {
+        if (this.enabled && start != 0) {
+            this.current[phase] += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Add the time that the render thread took to replay and show a frame. It may be called from any thread.
+     * @param nanos the time that the frame took to draw, in nanoseconds.
+     */
+    public void addRenderTime(long nanos) {
+        this.renderNanos.addAndGet(nanos);
+    }
+
+    /**
+     * End the current frame: record the time of every phase in it, and begin the next frame.
+     */
+    public void endFrame() {
+        if (!this.enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long gc = this.gcMillis();
+        this.current[RENDER] = this.renderNanos.getAndSet(0);
+        this.current[GC] = (gc - this.gcMillis) * 1_000_000L;
+        this.current[FRAME] = now - this.frameStart;
+        for (int i = 0; i < PHASES; i++) {
+            this.timings[i].record(this.current[i]);
+        }
+        this.beginFrame(now);
+        this.gcMillis = gc;
+    }
+
+    /**
+     * Clear the times of the current frame.
+     * @param now the time that the frame begins at.
+     */
+    private void beginFrame(long now) {
+        for (int i = 0; i < PHASES; i++) {
+            this.current[i] = 0;
+        }
+        this.frameStart = now;
+        this.gcMillis = this.gcMillis();
+    }
+
+    /**
+     * @return the total time (in milliseconds) that the garbage collectors took so far.
+     */
+    private long gcMillis() {
+        long total = 0;
+        for (int i = 0; i < this.collectors.size(); i++) {
+            total += Math.max(0, this.collectors.get(i).getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * @param phase one of the phases of the profiler.
+     * @return the timings of the phase over the last frames.
+     */
+    public PhaseTimings getTimings(int phase) {
+        return this.timings[phase];
+    }
+
+    /**
+     * Forget the timings of all the phases.
+     */
+    public void clear() {
+        for (int i = 0; i < PHASES; i++) {
+            this.timings[i].clear();
+        }
+    }
+
+    /**
+     * Write a table of the timings of the phases (in microseconds) over the last frames.
+     * @param writer the writer to write the table to.
+     */
+    public void writeReport(Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        out.printf("%-10s %8s %10s %10s %10s%n", "phase", "frames", "p50 (us)", "p99 (us)", "max (us)");
+        for (int i = 0; i < PHASES; i++) {
+            PhaseTimings phase = this.timings[i];
+            out.printf("%-10s %8d %10.1f %10.1f %10.1f%n", NAMES[i], phase.getCount(),
+                phase.getPercentile(0.5) / 1000.0, phase.getPercentile(0.99) / 1000.0, phase.getMax() / 1000.0);
+        }
+        out.flush();
+    }
+
+    /**
+     * Write the report of the timings to a file.
+     * @param file the file to write the report to.
+     * @throws IOException if the file couldn't be written.
+     */
+    public void dump(File file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+            this.writeReport(writer);
+            if (writer.checkError()) {
+                throw new IOException("Failed to write " + file);
+            }
+        }
+    }
+
+    /**
+     * Start measuring, and write the report of the timings to the given file when the program exits.
+     * @param file the file to write the report to.
+     */
+    public void dumpOnExit(File file) {
+        this.setEnabled(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                this.dump(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "profiler-dump"));
+    }
+
+} // class FrameProfiler
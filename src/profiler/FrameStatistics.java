@@ -0,0 +1,17 @@
+package profiler;
+
+/**
+ * The FrameStatistics interface is implemented by the animations that can tell the size of their world, which is
+ * recorded with the frames in the Flight Recorder.
+ */
+public interface FrameStatistics {
+    /**
+     * @return the number of the sprites of the animation.
+     */
+    int getSpriteCount();
+
+    /**
+     * @return the number of the collidables (and groups of collidables) of the animation.
+     */
+    int getCollidableCount();
+}
@@ -0,0 +1,55 @@
+package profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The HighScoresIoEvent class is the Flight Recorder event of loading or saving the table of the high scores.
+ */
+@Name("spaceinvaders.HighScoresIO")
+@Label("High Scores I/O")
+@Category("Space Invaders")
+@Description("The table of the high scores is loaded from a file or saved to it")
+@Enabled(true)
+@Threshold("0 ms")
+@StackTrace(true)
+public class HighScoresIoEvent extends Event {
+    // The operations of the event.
+    public static final String LOAD = "load";
+    public static final String SAVE = "save";
+
+    // Declare the members of the class.
+    @Label("Operation")
+    private String operation;
+    @Label("File")
+    private String file;
+    @Label("Scores")
+    private int scores;
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    /**
+     * @param name the operation (LOAD or SAVE).
+     * @param path the path of the file.
+     */
+    public void setOperation(String name, String path) {
+        this.operation = name;
+        this.file = path;
+    }
+
+    /**
+     * @param count the number of the scores that were loaded or saved.
+     * @param success true if the operation succeeded, false otherwise.
+     */
+    public void setResult(int count, boolean success) {
+        this.scores = count;
+        this.succeeded = success;
+    }
+
+} // class HighScoresIoEvent
@@ -0,0 +1,59 @@
+package profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The LevelEvent class is the Flight Recorder event of a level of the game, from its start until it's cleared, the
+ * player runs out of lives or a quick save is loaded instead of it, so the frames of a recording can be matched with
+ * the level they belong to.
+ */
+@Name("spaceinvaders.Level")
+@Label("Level")
+@Category("Space Invaders")
+@Description("A level of the game, from its start to its end")
+@Enabled(true)
+@StackTrace(false)
+public class LevelEvent extends Event {
+    // Declare the members of the class.
+    @Label("Level Name")
+    private String levelName;
+    @Label("Level Number")
+    private int levelNumber;
+    @Label("Score")
+    private int score;
+    @Label("Lives Left")
+    private int livesLeft;
+    @Label("Cleared")
+    private boolean cleared;
+    @Label("Left for a Quick Load")
+    private boolean leftForLoad;
+
+    /**
+     * @param name the name of the level.
+     * @param number the number of the level in the game (starting from 1).
+     */
+    public void setLevel(String name, int number) {
+        this.levelName = name;
+        this.levelNumber = number;
+    }
+
+    /**
+     * @param points the score of the game at the end of the level.
+     * @param lives the number of the lives that are left at the end of the level.
+     * @param wasCleared true if all the enemies of the level were removed, false otherwise.
+     * @param wasLeftForLoad true if the level was left in the middle because a quick save was loaded, false otherwise.
+     */
+    public void setResult(int points, int lives, boolean wasCleared, boolean wasLeftForLoad) {
+        this.score = points;
+        this.livesLeft = lives;
+        this.cleared = wasCleared;
+        this.leftForLoad = wasLeftForLoad;
+    }
+
+} // class LevelEvent
@@ -0,0 +1,100 @@
+package profiler;
+
+import java.util.Arrays;
+
+/**
+ * The PhaseTimings class keeps the timings (in nanoseconds) of a single phase over the last frames, in a ring buffer of
+ * a fixed size. Recording a timing never allocates, and the percentiles are computed from the frames in the buffer.
+ */
+public class PhaseTimings {
+    // Declare the members of the class.
+    private long[] samples;
+    // The place of the next sample in the ring, and the number of the samples in it (up to its size).
+    private int next;
+    private int count;
+    private long total;
+    // A reusable array that the samples are sorted in, to compute the percentiles.
+    private long[] sorted;
+
+    /**
+     * Constructor.
+     * @param capacity the number of the last frames that are kept.
+     */
+    public PhaseTimings(int capacity) {
+        this.samples = new long[capacity];
+        this.sorted = new long[capacity];
+        this.next = 0;
+        this.count = 0;
+        this.total = 0;
+    }
+
+    /**
+     * Record the timing of the phase in a frame, in place of the oldest one when the buffer is full.
+     * @param nanos the time that the phase took in the frame, in nanoseconds.
+     */
+    public void record(long nanos) {
+        this.samples[this.next] = nanos;
+        this.next = (this.next + 1) % this.samples.length;
+        this.count = Math.min(this.count + 1, this.samples.length);
+        this.total++;
+    }
+
+    /**
+     * Forget all the timings.
+     */
+    public void clear() {
+        this.next = 0;
+        this.count = 0;
+        this.total = 0;
+    }
+
+    /**
+     * @return the number of the timings in the buffer.
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return the number of the timings that were recorded since the last clear (including those that were dropped).
+     */
+    public long getTotal() {
+        return this.total;
+    }
+
+    /**
+     * @return the last timing, or 0 if there are none.
+     */
+    public long getLast() {
+        if (this.count == 0) {
+            return 0;
+        }
+        return this.samples[(this.next - 1 + this.samples.length) % this.samples.length];
+    }
+
+    /**
+     * @return the largest timing in the buffer, or 0 if there are none.
+     */
+    public long getMax() {
+        long max = 0;
+        for (int i = 0; i < this.count; i++) {
+            max = Math.max(max, this.samples[i]);
+        }
+        return max;
+    }
+
+    /**
+     * @param fraction the part of the timings (between 0 and 1) that are not larger than the result, e.g. 0.99.
+     * @return the percentile of the timings in the buffer, or 0 if there are none.
+     */
+    public long getPercentile(double fraction) {
+        if (this.count == 0) {
+            return 0;
+        }
+        System.arraycopy(this.samples, 0, this.sorted, 0, this.count);
+        Arrays.sort(this.sorted, 0, this.count);
+        int index = (int) Math.ceil(fraction * this.count) - 1;
+        return this.sorted[Math.max(0, Math.min(this.count - 1, index))];
+    }
+
+} // class PhaseTimings
@@ -0,0 +1,33 @@
+package profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The WaveResetEvent class is the Flight Recorder event of the enemies going back to their original positions, after
+ * the paddle was hit or the enemies reached the shields.
+ */
+@Name("spaceinvaders.WaveReset")
+@Label("Wave Reset")
+@Category("Space Invaders")
+@Description("The enemies go back to their original positions")
+@Enabled(true)
+@StackTrace(false)
+public class WaveResetEvent extends Event {
+    // Declare the members of the class.
+    @Label("Enemies")
+    private int enemies;
+
+    /**
+     * @param count the number of the enemies that are left.
+     */
+    public void setEnemies(int count) {
+        this.enemies = count;
+    }
+
+} // class WaveResetEvent
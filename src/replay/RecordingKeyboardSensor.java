@@ -0,0 +1,139 @@
+package replay;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import biuoop.KeyboardSensor;
+import headless.TickedKeyboardSensor;
+
+/**
+ * The RecordingKeyboardSensor class records the keys of a game into a Replay. It wraps the keyboard of the player:
+ * in every tick it reads the recorded keys once and keeps them, so the game sees the same keys in the whole tick
+ * (however many times it checks them, and whenever the player presses or releases them), exactly as the replay will.
+ * The keys that aren't recorded are never pressed.
+ */
+public class RecordingKeyboardSensor implements TickedKeyboardSensor {
+    // Declare the members of the class.
+    private KeyboardSensor sensor;
+    private long seed;
+    private int lives;
+    private String[] keys;
+    // The keys of the current tick, and the number of the ticks so far.
+    private int mask;
+    private long tick;
+    // The run that is being recorded: its mask, its first tick and its length.
+    private int runMask;
+    private long runStart;
+    private long runLength;
+    private ByteArrayOutputStream runs;
+    // The keyframes so far, and the first tick that the next keyframe can be put at.
+    private long[] keyframeTicks;
+    private int[] keyframeOffsets;
+    private int keyframes;
+    private long nextKeyframe;
+
+    /**
+     * Constructor.
+     * @param sensor the keyboard of the player.
+     * @param seed the seed of the recorded game.
+     * @param lives the number of the lives that the recorded game starts with.
+     */
+    public RecordingKeyboardSensor(KeyboardSensor sensor, long seed, int lives) {
+        this.sensor = sensor;
+        this.seed = seed;
+        this.lives = lives;
+        this.keys = Replay.KEYS.clone();
+        this.mask = 0;
+        this.tick = 0;
+        this.runLength = 0;
+        this.runs = new ByteArrayOutputStream();
+        this.keyframeTicks = new long[16];
+        this.keyframeOffsets = new int[16];
+        this.keyframes = 0;
+        this.nextKeyframe = 0;
+    }
+
+    /**
+     * @return the seed of the recorded game.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    @Override
+    public void tick() {
+        this.tick++;
+        int current = 0;
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.sensor.isPressed(this.keys[i])) {
+                current |= 1 << i;
+            }
+        }
+        this.mask = current;
+        if (this.runLength > 0 && current == this.runMask) {
+            this.runLength++;
+            return;
+        }
+        this.flushRun();
+        this.runMask = current;
+        this.runStart = this.tick;
+        this.runLength = 1;
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i].equals(key)) {
+                return (this.mask & (1 << i)) != 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write the current run (if there is one), and put a keyframe at it if the last keyframe is far enough.
+     */
+    private void flushRun() {
+        if (this.runLength == 0) {
+            return;
+        }
+        if (this.runStart >= this.nextKeyframe) {
+            if (this.keyframes == this.keyframeTicks.length) {
+                this.keyframeTicks = Arrays.copyOf(this.keyframeTicks, this.keyframes * 2);
+                this.keyframeOffsets = Arrays.copyOf(this.keyframeOffsets, this.keyframes * 2);
+            }
+            this.keyframeTicks[this.keyframes] = this.runStart;
+            this.keyframeOffsets[this.keyframes] = this.runs.size();
+            this.keyframes++;
+            this.nextKeyframe = this.runStart + Replay.KEYFRAME_INTERVAL;
+        }
+        this.writeVarint(this.runMask);
+        this.writeVarint(this.runLength);
+        this.runLength = 0;
+    }
+
+    /**
+     * Write a non-negative number to the runs as a varint.
+     * @param value the number.
+     */
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            this.runs.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.runs.write((int) value);
+    }
+
+    /**
+     * End the recording. The sensor can still be used, but the ticks from now on aren't in the replay.
+     * @param score the final score of the game.
+     * @return the replay of the ticks so far.
+     */
+    public Replay finish(int score) {
+        this.flushRun();
+        return new Replay(this.seed, this.lives, this.keys.clone(), this.tick, score,
+            Arrays.copyOf(this.keyframeTicks, this.keyframes), Arrays.copyOf(this.keyframeOffsets, this.keyframes),
+            this.runs.toByteArray());
+    }
+
+} // class RecordingKeyboardSensor
@@ -0,0 +1,279 @@
+package replay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import biuoop.KeyboardSensor;
+import levels.GameLevel;
+
+/**
+ * The Replay class holds the keys that a player pressed in a game, tick by tick, together with the seed of the game,
+ * so the game can be played again exactly as it was played.
+ * The keys of a tick are a bit mask (a bit for every recorded key), and the masks are kept as runs: the mask and the
+ * number of the ticks in a row that it lasted, both written as varints (7 bits in a byte, the high bit set if more
+ * bytes follow). A player mostly holds the same keys for many ticks, so a run of a few seconds takes two or three
+ * bytes.
+ * Every KEYFRAME_INTERVAL ticks (or more, since a keyframe is put only at the start of a run) the tick and the offset
+ * of a run are kept as a keyframe, so a replay can be moved to any tick without decoding the runs from the start.
+ * The file has the header (the magic number, the version, the seed, the lives and the names of the keys), the number
+ * of the ticks and the final score of the game, the keyframes, and the runs.
+ */
+public class Replay {
+    // The first bytes of a replay file ("SIRP"), and the version of the format.
+    public static final int MAGIC = 0x53495250;
+    public static final int VERSION = 1;
+    // The keys that are recorded - every key that the game checks while the levels are played.
+    public static final String[] KEYS = {KeyboardSensor.LEFT_KEY, KeyboardSensor.RIGHT_KEY, KeyboardSensor.SPACE_KEY,
+        "p", "c", GameLevel.PROFILER_KEY};
+    // The least number of the ticks between two keyframes (10 seconds of 60 ticks per second).
+    public static final int KEYFRAME_INTERVAL = 600;
+
+    // Declare the members of the class.
+    private long seed;
+    private int lives;
+    private String[] keys;
+    private long ticks;
+    private int score;
+    // The first tick of the run of every keyframe, and the offset of the run in the runs.
+    private long[] keyframeTicks;
+    private int[] keyframeOffsets;
+    private byte[] runs;
+
+    /**
+     * Constructor.
+     * @param seed the seed of the game.
+     * @param lives the number of the lives that the game started with.
+     * @param keys the names of the keys, by the bits of the masks.
+     * @param ticks the number of the recorded ticks.
+     * @param score the final score of the game.
+     * @param keyframeTicks the first tick of the run of every keyframe, in ascending order.
+     * @param keyframeOffsets the offset of the run of every keyframe.
+     * @param runs the encoded runs of the masks.
+     */
+    Replay(long seed, int lives, String[] keys, long ticks, int score, long[] keyframeTicks, int[] keyframeOffsets,
+        byte[] runs) {
+        this.seed = seed;
+        this.lives = lives;
+        this.keys = keys;
+        this.ticks = ticks;
+        this.score = score;
+        this.keyframeTicks = keyframeTicks;
+        this.keyframeOffsets = keyframeOffsets;
+        this.runs = runs;
+    }
+
+    /**
+     * @return the seed of the game.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * @return the number of the lives that the game started with.
+     */
+    public int getLives() {
+        return this.lives;
+    }
+
+    /**
+     * @return the names of the recorded keys, by the bits of the masks.
+     */
+    public String[] getKeys() {
+        return this.keys.clone();
+    }
+
+    /**
+     * @return the number of the recorded ticks.
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * @return the final score of the recorded game.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * @return the number of the bytes of the encoded runs.
+     */
+    public int getRunsLength() {
+        return this.runs.length;
+    }
+
+    /**
+     * @return the encoded runs of the masks.
+     */
+    byte[] getRuns() {
+        return this.runs;
+    }
+
+    /**
+     * @param key the name of a key.
+     * @return the bit of the key in the masks, or 0 if the key isn't recorded.
+     */
+    int bitOf(String key) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i].equals(key)) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Find the last keyframe at or before the given tick.
+     * @param tick a tick (1 or more).
+     * @return the index of the keyframe.
+     */
+    int keyframeBefore(long tick) {
+        int low = 0;
+        int high = this.keyframeTicks.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (this.keyframeTicks[middle] <= tick) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param index the index of a keyframe.
+     * @return the first tick of the run of the keyframe.
+     */
+    long getKeyframeTick(int index) {
+        return this.keyframeTicks[index];
+    }
+
+    /**
+     * @param index the index of a keyframe.
+     * @return the offset of the run of the keyframe in the runs.
+     */
+    int getKeyframeOffset(int index) {
+        return this.keyframeOffsets[index];
+    }
+
+    /**
+     * @return the number of the keyframes.
+     */
+    public int getKeyframeCount() {
+        return this.keyframeTicks.length;
+    }
+
+    /**
+     * Save the replay to the given file.
+     * @param file the file to save the replay in.
+     * @throws IOException if the file couldn't be written.
+     */
+    public void save(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(this.seed);
+            out.writeInt(this.lives);
+            out.writeByte(this.keys.length);
+            for (String key : this.keys) {
+                out.writeUTF(key);
+            }
+            out.writeLong(this.ticks);
+            out.writeInt(this.score);
+            // The keyframes are ascending, so they are written as the differences from the previous one.
+            writeVarint(out, this.keyframeTicks.length);
+            long previousTick = 0;
+            int previousOffset = 0;
+            for (int i = 0; i < this.keyframeTicks.length; i++) {
+                writeVarint(out, this.keyframeTicks[i] - previousTick);
+                writeVarint(out, this.keyframeOffsets[i] - previousOffset);
+                previousTick = this.keyframeTicks[i];
+                previousOffset = this.keyframeOffsets[i];
+            }
+            out.writeInt(this.runs.length);
+            out.write(this.runs);
+        }
+    }
+
+    /**
+     * Load a replay from the given file.
+     * @param file the file to load the replay from.
+     * @return the replay.
+     * @throws IOException if the file couldn't be read, or isn't a replay of a known version.
+     */
+    public static Replay load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a replay file");
+            }
+            int version = in.readUnsignedShort();
+            if (version != VERSION) {
+                throw new IOException("Unknown version " + version + " of the replay file " + file);
+            }
+            long seed = in.readLong();
+            int lives = in.readInt();
+            String[] keys = new String[in.readUnsignedByte()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = in.readUTF();
+            }
+            long ticks = in.readLong();
+            int score = in.readInt();
+            int keyframes = (int) readVarint(in);
+            long[] keyframeTicks = new long[keyframes];
+            int[] keyframeOffsets = new int[keyframes];
+            long previousTick = 0;
+            int previousOffset = 0;
+            for (int i = 0; i < keyframes; i++) {
+                previousTick += readVarint(in);
+                previousOffset += (int) readVarint(in);
+                keyframeTicks[i] = previousTick;
+                keyframeOffsets[i] = previousOffset;
+            }
+            byte[] runs = new byte[in.readInt()];
+            in.readFully(runs);
+            return new Replay(seed, lives, keys, ticks, score, keyframeTicks, keyframeOffsets, runs);
+        }
+    }
+
+    /**
+     * Write a non-negative number as a varint.
+     * @param out the stream to write to.
+     * @param value the number.
+     * @throws IOException if the stream couldn't be written.
+     */
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Read a varint.
+     * @param in the stream to read from.
+     * @return the number.
+     * @throws IOException if the stream couldn't be read, or the number is too long.
+     */
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("A varint of the replay file is too long");
+    }
+
+} // class Replay
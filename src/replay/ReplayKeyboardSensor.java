@@ -0,0 +1,114 @@
+package replay;
+
+import headless.TickedKeyboardSensor;
+
+/**
+ * The ReplayKeyboardSensor class presses the keys of a Replay, tick by tick. After the last recorded tick no key is
+ * pressed. The sensor can be moved to any tick: it starts from the last keyframe before the tick, so only the runs
+ * after the keyframe are decoded.
+ */
+public class ReplayKeyboardSensor implements TickedKeyboardSensor {
+    // Declare the members of the class.
+    private Replay replay;
+    private byte[] runs;
+    // The offset of the next run in the runs.
+    private int position;
+    // The number of the ticks so far, the keys of the current tick, and the number of the ticks left in its run.
+    private long tick;
+    private int mask;
+    private long runLeft;
+
+    /**
+     * Constructor - the sensor is before the first tick of the replay.
+     * @param replay the replay to press the keys of.
+     */
+    public ReplayKeyboardSensor(Replay replay) {
+        this.replay = replay;
+        this.runs = replay.getRuns();
+        this.seek(0);
+    }
+
+    /**
+     * @return the replay that the sensor presses the keys of.
+     */
+    public Replay getReplay() {
+        return this.replay;
+    }
+
+    /**
+     * @return the number of the ticks so far.
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * @return true if all the recorded ticks were played, false otherwise.
+     */
+    public boolean isFinished() {
+        return this.tick >= this.replay.getTicks();
+    }
+
+    @Override
+    public void tick() {
+        this.tick++;
+        if (this.runLeft == 0) {
+            if (this.position >= this.runs.length) {
+                this.mask = 0;
+                return;
+            }
+            this.mask = (int) this.readVarint();
+            this.runLeft = this.readVarint();
+        }
+        this.runLeft--;
+    }
+
+    /**
+     * Move the sensor to the given tick, as if tick was called that number of times from the start.
+     * @param target the tick to move to (0 is before the first tick).
+     */
+    public void seek(long target) {
+        this.tick = Math.max(0, target);
+        this.mask = 0;
+        this.runLeft = 0;
+        this.position = 0;
+        if (this.tick == 0 || this.replay.getKeyframeCount() == 0) {
+            return;
+        }
+        int keyframe = this.replay.keyframeBefore(target);
+        long runStart = this.replay.getKeyframeTick(keyframe);
+        this.position = this.replay.getKeyframeOffset(keyframe);
+        while (this.position < this.runs.length) {
+            int runMask = (int) this.readVarint();
+            long runLength = this.readVarint();
+            long runEnd = runStart + runLength - 1;
+            if (runEnd >= target) {
+                this.mask = runMask;
+                this.runLeft = runEnd - target;
+                return;
+            }
+            runStart = runEnd + 1;
+        }
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        return (this.mask & this.replay.bitOf(key)) != 0;
+    }
+
+    /**
+     * @return the varint at the current offset of the runs, which moves past it.
+     */
+    private long readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = this.runs[this.position++] & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        return value;
+    }
+
+} // class ReplayKeyboardSensor
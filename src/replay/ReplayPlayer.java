@@ -0,0 +1,91 @@
+package replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import headless.HeadlessGame;
+
+/**
+ * The ReplayPlayer class plays replays without a window, as fast as the CPU allows. A replay of a real game is played
+ * with its seed and its keys, so it must end after the same number of ticks with the same score - if it doesn't, the
+ * simulation isn't deterministic anymore. Since a replay is the same game every time, it's also the workload of the
+ * repeatable measurements of the simulation.
+ */
+public class ReplayPlayer {
+    // Declare the members of the class.
+    private Replay replay;
+    private ReplayKeyboardSensor keyboard;
+    private HeadlessGame game;
+
+    /**
+     * Constructor.
+     * @param replay the replay to play.
+     */
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        this.keyboard = new ReplayKeyboardSensor(replay);
+        // A game that goes on after the last recorded tick has already gone a different way.
+        this.game = new HeadlessGame(this.keyboard, replay.getTicks(), replay.getSeed());
+    }
+
+    /**
+     * @return the headless game that the replay is played in.
+     */
+    public HeadlessGame getGame() {
+        return this.game;
+    }
+
+    /**
+     * Play the replay from its start.
+     * @return true if the game ended after the recorded number of ticks with the recorded score, false otherwise.
+     */
+    public boolean play() {
+        this.keyboard.seek(0);
+        long ticks;
+        try {
+            ticks = this.game.play(this.replay.getLives());
+        } catch (IllegalStateException e) {
+            return false;
+        }
+        return ticks == this.replay.getTicks() && this.game.getLastScore() == this.replay.getScore();
+    }
+
+    /**
+     * Play a replay file, and print whether it matched the recording, how fast it ran and where the time of the frames
+     * went.
+     * @param args the replay file, and the number of the times to play it (1 by default).
+     * @throws IOException if the replay file couldn't be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayPlayer <replay file> [times]");
+            System.exit(2);
+        }
+        Replay replay = Replay.load(new File(args[0]));
+        int times = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        System.out.printf("seed %d, %d ticks, score %d, %d bytes of keys, %d keyframes%n", replay.getSeed(),
+            replay.getTicks(), replay.getScore(), replay.getRunsLength(), replay.getKeyframeCount());
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.getGame().getAnimationRunner().getProfiler().setEnabled(true);
+        boolean matched = true;
+        long start = System.nanoTime();
+        for (int i = 0; i < times; i++) {
+            if (!player.play()) {
+                matched = false;
+                System.out.println("play " + (i + 1) + " diverged from the recording (score "
+                    + player.getGame().getLastScore() + ")");
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long ticks = replay.getTicks() * times;
+        System.out.printf("%s: %d ticks in %.2f seconds (%.0f ticks per second, %.1fx real time)%n",
+            matched ? "matched" : "DIVERGED", ticks, seconds, ticks / seconds,
+            ticks / seconds / HeadlessGame.FRAMES_PER_SECOND);
+        player.getGame().getAnimationRunner().getProfiler().writeReport(new PrintWriter(System.out));
+        if (!matched) {
+            System.exit(1);
+        }
+    }
+
+} // class ReplayPlayer
@@ -0,0 +1,98 @@
+package sprites;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+
+/**
+ * The Assets class is the registry of the images of the game. Each image resource is decoded once, the first time it's
+ * asked for, and from then on the same image is handed out to everyone that asks for it.
+ * The images are shared, so they must not be changed by the code that uses them.
+ */
+public final class Assets {
+    // The decoded images, by the path of their resource and by whether they were converted for the screen.
+    private static final Map<String, BufferedImage> IMAGES = new ConcurrentHashMap<>();
+    private static final Map<String, BufferedImage> COMPATIBLE_IMAGES = new ConcurrentHashMap<>();
+
+    /**
+     * The class has only static methods, so it can't be created.
+     */
+    private Assets() {
+    }
+
+    /**
+     * Get an image that is converted to the format of the screen, so it's drawn without converting its pixels in
+     * every frame. When there is no screen, the image is returned as it was decoded.
+     * @param path the path of the image resource (for example "general_images/heart.png").
+     * @return the image, or null if it couldn't be decoded.
+     */
+    public static BufferedImage getImage(String path) {
+        return getImage(path, true);
+    }
+
+    /**
+     * Get an image.
+     * @param path the path of the image resource (for example "general_images/heart.png").
+     * @param compatible true if the image should be converted to the format of the screen.
+     * @return the image, or null if it couldn't be decoded.
+     */
+    public static BufferedImage getImage(String path, boolean compatible) {
+        if (!compatible) {
+            return IMAGES.computeIfAbsent(path, Assets::decode);
+        }
+        return COMPATIBLE_IMAGES.computeIfAbsent(path, key -> toCompatibleImage(getImage(key, false)));
+    }
+
+    /**
+     * Forget all the images, so they are decoded again the next time they are asked for.
+     */
+    public static void clear() {
+        IMAGES.clear();
+        COMPATIBLE_IMAGES.clear();
+    }
+
+    /**
+     * Decode an image resource.
+     * @param path the path of the image resource.
+     * @return the decoded image, or null if it couldn't be decoded.
+     */
+    private static BufferedImage decode(String path) {
+        try (InputStream stream = Objects.requireNonNull(
+                ClassLoader.getSystemClassLoader().getResourceAsStream(path), path)) {
+            return ImageIO.read(stream);
+        } catch (IOException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Copy the given image into an image that has the format of the screen.
+     * @param image the image to convert.
+     * @return the converted image, or the given image if there is no screen or it already has the right format.
+     */
+    private static BufferedImage toCompatibleImage(BufferedImage image) {
+        if (image == null || GraphicsEnvironment.isHeadless()) {
+            return image;
+        }
+        GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        if (image.getColorModel().equals(configuration.getColorModel())) {
+            return image;
+        }
+        BufferedImage compatible = configuration.createCompatibleImage(image.getWidth(), image.getHeight(),
+                image.getTransparency());
+        Graphics2D g = compatible.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+
+} // class Assets
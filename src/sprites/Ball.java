@@ -3,10 +3,9 @@ import java.awt.Color;
 
 import biuoop.DrawSurface;
 import collision.Collidable;
-import collision.CollisionInfo;
-import geometry.Line;
+import collision.CollisionLayers;
 import geometry.Point;
-import geometry.Rectangle;
+import geometry.SlabIntersection;
 import invadersgame.GameEnvironment;
 import invadersgame.Velocity;
 import levels.GameLevel;
@@ -16,12 +15,22 @@ import levels.GameLevel;
  * The ball also has a game environment of obstacles it can collide with.
  */
 public class Ball implements Sprite {
+    // The most parts that a single step of the ball is split into.
+    private static final int MAX_SUBSTEPS = 16;
+
     // Declare the members of the class.
-    private Point center;
+    // The center of the ball is kept as primitive values, so moving the ball doesn't allocate new points.
+    private double x;
+    private double y;
     private int r;
     private Color color;
     private Velocity velocity;
     private GameEnvironment gameEnvironment;
+    // The layer of the ball, and the layers of the collidables that it can collide with.
+    private int layer = 0;
+    private int mask = CollisionLayers.ALL;
+    // The result of the last collision query of the ball (reused in every step).
+    private SlabIntersection collision = new SlabIntersection();
 
     /**
      * Constructor.
@@ -31,24 +40,65 @@ public class Ball implements Sprite {
      * @param gameEnvironment the game environment of the ball.
      */
     public Ball(Point center, int r, Color color, GameEnvironment gameEnvironment) {
-        this.center = new Point(center.getX(), center.getY());
+        this.x = center.getX();
+        this.y = center.getY();
         this.r = r;
         this.color = color;
         this.gameEnvironment = gameEnvironment;
     }
 
+    /**
+     * Prepare the ball to be fired again: move it to the given center, and give it the given radius and color. The
+     * velocity is cleared and should be set before the ball moves.
+     * @param centerX the x value of the new center of the ball.
+     * @param centerY the y value of the new center of the ball.
+     * @param radius the new radius of the ball.
+     * @param ballColor the new color of the ball.
+     */
+    public void reset(double centerX, double centerY, int radius, Color ballColor) {
+        this.x = centerX;
+        this.y = centerY;
+        this.r = radius;
+        this.color = ballColor;
+        this.velocity = null;
+    }
+
+    /**
+     * Set the collision layer of the ball.
+     * @param ballLayer the layer of the ball (for example, CollisionLayers.PLAYER_SHOT).
+     * @param ballMask the layers of the collidables that the ball can collide with.
+     */
+    public void setCollisionLayer(int ballLayer, int ballMask) {
+        this.layer = ballLayer;
+        this.mask = ballMask;
+    }
+
+    /**
+     * @return the layer of the ball, which tells who fired it.
+     */
+    public int getLayer() {
+        return this.layer;
+    }
+
+    /**
+     * @return the layers of the collidables that the ball can collide with.
+     */
+    public int getMask() {
+        return this.mask;
+    }
+
     /**
      * @return the x value of the center of the ball.
      */
     public double getX() {
-        return this.center.getX();
+        return this.x;
     }
 
     /**
      * @return the y value of the center of the ball.
      */
     public double getY() {
-        return this.center.getY();
+        return this.y;
     }
 
     /**
@@ -84,14 +134,15 @@ public class Ball implements Sprite {
      * @return the center point of the ball.
      */
     public Point getCenter() {
-        return this.center;
+        return new Point(this.x, this.y);
     }
 
     /**
      * @param newCenter the new center of the ball.
      */
     public void setCenter(Point newCenter) {
-        this.center = newCenter;
+        this.x = newCenter.getX();
+        this.y = newCenter.getY();
     }
 
     /**
@@ -102,99 +153,62 @@ public class Ball implements Sprite {
     }
 
     /**
-     * @param rec the rectangle that it's checked whether the x or the y values of the
-     * center of the ball are in its range.
-     * @return true if the x or the y values of the center of the ball are in the range of the given rectangle,
-     * false otherwise
-     */
-    private boolean pointIsInRec(Rectangle rec) {
-        return rec.getUpperEdge().isInXRange(this.center.getX()) || rec.getLeftEdge().isInYRange(this.center.getY());
-    }
-
-    /**
-     * Do a move almost to the point.
-     * @param hitP the point from which the move is made.
-     * @return the new point the ball has reached to.
+     * Perform the hit of the ball with the collidable. The ball is moved to where it touches the collidable.
+     * @param collidable the closest collidable that the ball collides with.
+     * @param dt specifies the amount of seconds passed since the last call.
      */
-    public Point almostHit(Point hitP) {
-        // Epsilon helps to move the ball "almost" to the hit point, in a case that there is a hit between
-        // the ball and one of the obstacles.
-        final double  epsilon = 0.07;
-        double newCenterX;
-        double newCenterY;
-        if (this.velocity.getDx() <= 0) {
-            newCenterX = hitP.getX() + epsilon;
-        } else {
-            newCenterX = hitP.getX() - epsilon;
-        }
-        if (this.velocity.getDy() <= 0) {
-            newCenterY = hitP.getY() + epsilon;
-        } else {
-            newCenterY = hitP.getY() - epsilon;
-        }
-        // Promote the ball "almost" to the hit point, but just slightly before it.
-        return new Point(newCenterX, newCenterY);
+    private void hitWithCollidable(Collidable collidable, double dt) {
+        this.x = this.collision.getX();
+        this.y = this.collision.getY();
+        // The collidable is told about the point of it that the ball touches.
+        Point collisionPoint = new Point(this.collision.getContactX(), this.collision.getContactY());
+        this.setVelocity(collidable.hit(this, collisionPoint, this.getVelocity(), dt));
     }
 
     /**
-     * Perform the hit of the ball with the collidable.
-     * @param closestCollision the closest collision point of the collidable with the ball's trajectory.
      * @param dt specifies the amount of seconds passed since the last call.
-     */
-    private void hitWithCollidable(CollisionInfo closestCollision, double dt) {
-        Collidable collidable = closestCollision.collisionObject();
-        // Find the collision point between the paddle and the trajectory of the ball.
-        Point collisionPoint = closestCollision.collisionPoint();
-        double dx = getVelocity().getDx();
-        double dy = getVelocity().getDy();
-        double directionDx;
-        double directionDy;
-        double newCenterX;
-        double newCenterY;
-        // Find the direction of the dx & dy values (negative/positive).
-        if (dx < 0) {
-            directionDx = -1;
-        } else {
-            directionDx = 1;
-        }
-        if (dy < 0) {
-            directionDy = -1;
-        } else {
-            directionDy = 1;
-        }
-        // The new center of the ball according to the compatible directions.
-        this.setCenter(collisionPoint);
-        // Get to the hit point, using the radius of the ball and the directions.
-        newCenterX =  collisionPoint.getX() - (this.getSize() * directionDx);
-        newCenterY =  collisionPoint.getY() - (this.getSize() * directionDy);
-        this.center = new Point(newCenterX, newCenterY);
-        // Perform the hit with the collidable.
-        this.setVelocity(collidable.hit(this, collisionPoint, this.getVelocity(), dt));
-        // If the ball is stuck in the block, get it out.
-        if (this.pointIsInRec(closestCollision.collisionObject().getCollisionRectangle())) {
-            this.center = this.velocity.applyToPoint(this.center, dt);
+     * @return the number of the parts that the step should be split into, so that the ball doesn't move more than
+     * the size of the smallest collidable in each of them.
+     */
+    private int substepsOf(double dt) {
+        double distance = Math.hypot(this.velocity.getDx(), this.velocity.getDy()) * dt;
+        double smallestSize = this.gameEnvironment.getSmallestSize();
+        if (smallestSize <= 0 || distance <= smallestSize) {
+            return 1;
         }
+        return (int) Math.min(MAX_SUBSTEPS, Math.ceil(distance / smallestSize));
     }
 
     /**
      * Promote the ball in one step depending on its velocity.
+     * The ball is swept along its movement with its radius, so it can't pass through a collidable even when the
+     * step is long. A step that is longer than the smallest collidable is split into shorter steps, so a ball that
+     * bounces off a collidable keeps moving (and colliding) in the rest of the step.
      * @param dt specifies the amount of seconds passed since the last call.
      */
     public void moveOneStep(double dt) {
-        // Find the end point of the current trajectory of the ball.
-        Point endOfTrajectory = this.velocity.applyToPoint(this.center, dt);
-        // Find the current trajectory of the ball (the movement from the center to the next step).
-        Line trajectory = new Line(this.getCenter(), endOfTrajectory);
-        // Get the information about the collision.
-        CollisionInfo closestCollision = this.gameEnvironment.getClosestCollision(trajectory);
-        // If moving on this trajectory will not hit anything.
-        if (closestCollision.collisionPoint() == null) {
-            // Promote the ball by the regular velocity.
-            this.setCenter(this.getVelocity().applyToPoint(this.center, dt));
-        // Otherwise (there is a hit), perform the hit with the collidable (the paddle or the block).
-        } else {
-            hitWithCollidable(closestCollision, dt);
-       }
+        int substeps = this.substepsOf(dt);
+        double substep = dt / substeps;
+        for (int i = 0; i < substeps; i++) {
+            if (this.velocity.getDx() == 0 && this.velocity.getDy() == 0) {
+                break;
+            }
+            // Find the end point of the current trajectory of the center of the ball.
+            double endX = this.x + this.velocity.getDx() * substep;
+            double endY = this.y + this.velocity.getDy() * substep;
+            // Get the closest collidable that the ball touches on its way.
+            Collidable closest = this.gameEnvironment.castRay(this.x, this.y, endX, endY, this.r, this.mask,
+                this.collision);
+            // If moving on this trajectory will not hit anything.
+            if (closest == null) {
+                // Promote the ball by the regular velocity.
+                this.x = endX;
+                this.y = endY;
+            // Otherwise (there is a hit), perform the hit with the collidable (the paddle or the block).
+            } else {
+                this.hitWithCollidable(closest, substep);
+            }
+        }
     } // moveOneStep
 
     /**
@@ -229,7 +243,7 @@ public class Ball implements Sprite {
      * @param game the game that the ball should be removed from.
      */
     public void removeFromGame(GameLevel game) {
-        game.removeSprite(this);
+        game.removeShot(this);
     }
 
 } // class Ball
\ No newline at end of file
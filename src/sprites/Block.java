@@ -1,13 +1,15 @@
 package sprites;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import invadersgame.Velocity;
 import biuoop.DrawSurface;
 import collision.Collidable;
+import collision.CollisionLayers;
 import collision.HitListener;
+import collision.HitListeners;
 import collision.HitNotifier;
+import geometry.GroupTransform;
 import geometry.Point;
 import geometry.Rectangle;
 import levels.GameLevel;
@@ -23,8 +25,13 @@ public class Block implements Collidable, Sprite, HitNotifier {
     // The number of hits that the ball should hit the block. Each hit decreases this number by 1.
     private int numOfHits;
     // A map that maps between the current number of hits of the block and the fit background.
-    private List<HitListener> hitListeners = new ArrayList<>();
+    private HitListeners hitListeners = new HitListeners();
     private boolean isEnemy = false;
+    // The transform of the group that the block moves with (null if the block doesn't belong to a group).
+    private GroupTransform transform = null;
+    private double offsetX;
+    private double offsetY;
+    private int transformVersion;
 
     /**
      * Constructor (first type).
@@ -41,7 +48,6 @@ public class Block implements Collidable, Sprite, HitNotifier {
         this.stroke = null;
         this.blockBackground = background;
         this.numOfHits = numOfHits;
-        this.hitListeners = new ArrayList<>();
     }
 
     /**
@@ -68,6 +74,53 @@ public class Block implements Collidable, Sprite, HitNotifier {
         return this.isEnemy;
     }
 
+    /**
+     * @return the layer of the block: the enemies are in the layer of the enemies, and any other block is a border.
+     */
+    public int getLayer() {
+        return this.isEnemy ? CollisionLayers.ENEMY : CollisionLayers.BORDER;
+    }
+
+    /**
+     * Attach the block to the transform of a group. From now on, the block moves together with the group, and its
+     * position is kept as an offset from the origin of the group.
+     * @param groupTransform the transform of the group.
+     */
+    public void attachTo(GroupTransform groupTransform) {
+        this.transform = groupTransform;
+        this.offsetX = this.rectangle.getUpperLeft().getX() - groupTransform.getX();
+        this.offsetY = this.rectangle.getUpperLeft().getY() - groupTransform.getY();
+        this.transformVersion = groupTransform.getVersion();
+    }
+
+    /**
+     * @return the x value of the block relative to the origin of its group.
+     */
+    public double getOffsetX() {
+        return this.offsetX;
+    }
+
+    /**
+     * @return the y value of the block relative to the origin of its group.
+     */
+    public double getOffsetY() {
+        return this.offsetY;
+    }
+
+    /**
+     * @return the width of the block.
+     */
+    public double getWidth() {
+        return this.rectangle.getWidth();
+    }
+
+    /**
+     * @return the height of the block.
+     */
+    public double getHeight() {
+        return this.rectangle.getHeight();
+    }
+
     /**
      * @param blockWidth the width to set to the block.
      */
@@ -107,6 +160,11 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @return the "collision shape" of the object.
      */
      public Rectangle getCollisionRectangle() {
+        // The rectangle of a block in a group is brought up to date only when it's needed.
+        if (this.transform != null && this.transformVersion != this.transform.getVersion()) {
+            this.rectangle.moveTo(this.transform.getX() + this.offsetX, this.transform.getY() + this.offsetY);
+            this.transformVersion = this.transform.getVersion();
+        }
         return this.rectangle;
     }
 
@@ -128,10 +186,11 @@ public class Block implements Collidable, Sprite, HitNotifier {
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity, double dt) {
         boolean hitX = false;
         boolean hitY = false;
-        if (this.rectangle.getUpperEdge().isInXRange(collisionPoint.getX())) {
+        Rectangle rec = this.getCollisionRectangle();
+        if (rec.getUpperEdge().isInXRange(collisionPoint.getX())) {
             hitX = true;
         }
-        if (this.rectangle.getLeftEdge().isInYRange(collisionPoint.getY())) {
+        if (rec.getLeftEdge().isInYRange(collisionPoint.getY())) {
             hitY = true;
         }
         if (this.numOfHits > 0) {
@@ -150,25 +209,22 @@ public class Block implements Collidable, Sprite, HitNotifier {
      */
     private void notifyHit(Ball hitter) {
         /*
-         * Calling the removeHitListener or the addHitListener methods from inside the notifyHit method,
-         * may cause an exception. For this reason, perform the iteration on a copy of hitListeners list instead.
+         * A listener may call the removeHitListener or the addHitListener methods from inside the notifyHit method.
+         * The listeners are kept in a copy-on-write array, so the iteration isn't affected and nothing is copied.
          */
-        List<HitListener> listeners = new ArrayList<>(this.hitListeners);
-        // Notify all listeners about a hit event.
-        for (HitListener hl : listeners) {
-           hl.hitEvent(this, hitter);
-        }
-     }
+        this.hitListeners.notifyHit(this, hitter);
+    }
 
     /**
      * Draw the block on the screen.
      * @param d a surface you can draw on.
      */
     public void drawOn(DrawSurface d) {
-        this.blockBackground.draw(d, this.rectangle);
+        Rectangle rec = this.getCollisionRectangle();
+        this.blockBackground.draw(d, rec);
         // If the block has an outline, draw it.
         if (this.stroke != null) {
-            this.stroke.draw(d, this.rectangle);
+            this.stroke.draw(d, rec);
         }
     } // drawOn
 
@@ -208,10 +264,10 @@ public class Block implements Collidable, Sprite, HitNotifier {
     }
 
     /**
-     * @return the list of the his listeners of the block.
+     * @return the list of the hit listeners of the block (it can't be changed).
      */
     public List<HitListener> getHitListenersList() {
-        return this.hitListeners;
+        return this.hitListeners.toList();
     }
 
     /**
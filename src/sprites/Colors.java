@@ -7,6 +7,27 @@ import java.util.Random;
  * The Colors class helps to create colors for the game.
  */
 public class Colors {
+    // The rainbow colors, in their order.
+    private static final Color[] RAINBOW = {Color.red, Color.orange, Color.yellow.brighter(), Color.green, Color.cyan,
+        Color.blue, Color.magenta};
+
+    // Declare the members of the class.
+    private Random rand;
+
+    /**
+     * Constructor - the random colors are chosen by a new random generator.
+     */
+    public Colors() {
+        this(new Random());
+    }
+
+    /**
+     * Constructor.
+     * @param rand the random generator that chooses the random colors.
+     */
+    public Colors(Random rand) {
+        this.rand = rand;
+    }
 
     /**
      * Return a rainbow color, depending on the given argument. Each number in the range 0-6 represents a rainbow color,
@@ -16,15 +37,12 @@ public class Colors {
      * @param colorIndex the number that represents the rainbow color.
      */
     public Color setRainbowColor(int colorIndex) {
-        Random rand = new Random();
-        Color[] rainbowColor = {Color.red, Color.orange, Color.yellow.brighter(), Color.green, Color.cyan,
-        Color.blue, Color.magenta};
         // If the number is in the range 0-6, return the rainbow color corresponding to the index.
-        if (colorIndex >= 0 && colorIndex < rainbowColor.length) {
-            return rainbowColor[colorIndex];
+        if (colorIndex >= 0 && colorIndex < RAINBOW.length) {
+            return RAINBOW[colorIndex];
         }
         // Else - return a random rainbow color.
-        return rainbowColor[rand.nextInt(rainbowColor.length)];
+        return RAINBOW[this.rand.nextInt(RAINBOW.length)];
     }
 
 } // class Colors.
\ No newline at end of file
@@ -0,0 +1,396 @@
+package sprites;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+import biuoop.DrawSurface;
+import collision.Collidable;
+import collision.CollidableGroup;
+import collision.CollisionLayers;
+import collision.HitListener;
+import collision.HitListeners;
+import collision.HitNotifier;
+import geometry.Point;
+import geometry.Rectangle;
+import geometry.SlabIntersection;
+import invadersgame.Velocity;
+import levels.GameLevel;
+
+/**
+ * The Shield class represents a destructible shield (a bunker) that protects the paddle. The shield is a grid of small
+ * square cells, and every cell that is hit is destroyed. The cells are kept as bits (a set bit is a cell that is still
+ * standing), a ball finds the cell it hits by walking over the cells on its path, and the shield is drawn from an image
+ * that is patched whenever a cell is destroyed.
+ * The frames may be drawn by another thread (the render thread) after they were recorded, so the image that a frame
+ * draws is never changed: the cells are painted into an image of the shield's own, and a frame that is drawn after
+ * they changed gets a new copy of it.
+ * The whole shield is a single collidable group in the game environment, and it's its own collidable: when a ball hits
+ * it, the cell that was hit is the one that the last castRay found.
+ */
+public class Shield implements Sprite, Collidable, CollidableGroup, HitNotifier {
+    // The number of the bits in a word of the bit set.
+    private static final int WORD_SIZE = 64;
+    // The color of the destroyed cells in the image (fully transparent).
+    private static final int CLEAR = 0;
+    // The margin around the shield that a segment is checked in (larger than the tolerance of the intersection).
+    private static final double MARGIN = 0.01;
+
+    // Declare the members of the class.
+    private int color;
+    private double left;
+    private double top;
+    private int rows;
+    private int columns;
+    private double cellSize;
+    // The cells that are still standing (the bit of the cell in row i and column j is i * columns + j).
+    private long[] cells;
+    private int remainingCells;
+    private Rectangle bounds;
+    // The image that the cells are painted in, and the copy of it that the frames draw (which is never changed).
+    private BufferedImage image;
+    private BufferedImage published;
+    private boolean imageChanged;
+    // The pixels of a single cell, which are painted into the image together.
+    private int[] cellPixels;
+    private HitListeners hitListeners = new HitListeners();
+    // The cell that the last castRay found, and its rectangle.
+    private int hitRow = -1;
+    private int hitColumn = -1;
+    private Rectangle hitCell;
+    private SlabIntersection candidate = new SlabIntersection();
+
+    /**
+     * Constructor - create a full shield.
+     * @param upperLeft the upper left corner of the shield.
+     * @param rows the number of the rows of cells.
+     * @param columns the number of the columns of cells.
+     * @param cellSize the width and height of a cell.
+     * @param color the color of the cells.
+     */
+    public Shield(Point upperLeft, int rows, int columns, double cellSize, Color color) {
+        this.color = color.getRGB();
+        this.left = upperLeft.getX();
+        this.top = upperLeft.getY();
+        this.rows = rows;
+        this.columns = columns;
+        this.cellSize = cellSize;
+        this.cells = new long[(rows * columns + WORD_SIZE - 1) / WORD_SIZE];
+        for (int i = 0; i < rows * columns; i++) {
+            this.cells[i / WORD_SIZE] |= 1L << (i % WORD_SIZE);
+        }
+        this.remainingCells = rows * columns;
+        this.bounds = new Rectangle(upperLeft, columns * cellSize, rows * cellSize);
+        this.hitCell = new Rectangle(upperLeft, cellSize, cellSize);
+        this.image = new BufferedImage(Math.max(1, this.pixelOf(columns)), Math.max(1, this.pixelOf(rows)),
+            BufferedImage.TYPE_INT_ARGB);
+        this.published = null;
+        int cellPixelSize = (int) Math.ceil(cellSize) + 1;
+        this.cellPixels = new int[cellPixelSize * cellPixelSize];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                this.paintCell(i, j, this.color);
+            }
+        }
+    }
+
+    /**
+     * @return the number of the cells that are still standing.
+     */
+    public int getRemainingCells() {
+        return this.remainingCells;
+    }
+
+    /**
+     * @param row the row of a cell.
+     * @param column the column of a cell.
+     * @return true if the cell is still standing, false otherwise.
+     */
+    public boolean isCellStanding(int row, int column) {
+        int bit = row * this.columns + column;
+        return (this.cells[bit / WORD_SIZE] & (1L << (bit % WORD_SIZE))) != 0;
+    }
+
+    /**
+     * Destroy a cell of the shield, and clear it from the image.
+     * @param row the row of the cell.
+     * @param column the column of the cell.
+     */
+    public void destroyCell(int row, int column) {
+        if (!this.isCellStanding(row, column)) {
+            return;
+        }
+        int bit = row * this.columns + column;
+        this.cells[bit / WORD_SIZE] &= ~(1L << (bit % WORD_SIZE));
+        this.remainingCells--;
+        this.paintCell(row, column, CLEAR);
+    }
+
+    /**
+     * @return the number of the longs that the cells of the shield are kept in.
+     */
+    public int getCellWords() {
+        return this.cells.length;
+    }
+
+    /**
+     * Copy the cells of the shield (a set bit is a cell that is still standing) into the given array.
+     * @param out the array to copy the cells into.
+     * @param offset the index in the array that the cells are copied to.
+     * @return the number of the longs that were copied.
+     */
+    public int saveCells(long[] out, int offset) {
+        System.arraycopy(this.cells, 0, out, offset, this.cells.length);
+        return this.cells.length;
+    }
+
+    /**
+     * Put back the cells that were copied by saveCells. Only the cells that changed since are painted again, and a
+     * cell may be brought back as well as destroyed.
+     * @param in the array that the cells were copied into.
+     * @param offset the index in the array that the cells were copied to.
+     * @return the number of the longs that were read.
+     */
+    public int restoreCells(long[] in, int offset) {
+        for (int word = 0; word < this.cells.length; word++) {
+            long changed = this.cells[word] ^ in[offset + word];
+            while (changed != 0) {
+                int bit = word * WORD_SIZE + Long.numberOfTrailingZeros(changed);
+                changed &= changed - 1;
+                boolean standing = (in[offset + word] & (1L << (bit % WORD_SIZE))) != 0;
+                this.remainingCells += standing ? 1 : -1;
+                this.paintCell(bit / this.columns, bit % this.columns, standing ? this.color : CLEAR);
+            }
+            this.cells[word] = in[offset + word];
+        }
+        return this.cells.length;
+    }
+
+    /**
+     * @param cell a row or a column of cells.
+     * @return the pixel (relative to the shield) that the cell starts at.
+     */
+    private int pixelOf(int cell) {
+        return (int) Math.round(cell * this.cellSize);
+    }
+
+    /**
+     * Paint the pixels of a single cell in the image. Only the image of the shield is changed - the frames draw a copy
+     * of it, which is taken when they are drawn after the change.
+     * @param row the row of the cell.
+     * @param column the column of the cell.
+     * @param rgb the color to paint the cell with.
+     */
+    private void paintCell(int row, int column, int rgb) {
+        int x = this.pixelOf(column);
+        int y = this.pixelOf(row);
+        int width = this.pixelOf(column + 1) - x;
+        int height = this.pixelOf(row + 1) - y;
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        // Painting the pixels one by one creates an array for every pixel, so the whole cell is painted in one call.
+        Arrays.fill(this.cellPixels, 0, width * height, rgb);
+        this.image.setRGB(x, y, width, height, this.cellPixels, 0, width);
+        this.imageChanged = true;
+    }
+
+    /**
+     * @return the image for a frame: the last copy of the image of the shield, or a new copy if a cell changed since.
+     */
+    private BufferedImage publishImage() {
+        if (this.imageChanged || this.published == null) {
+            this.published = new BufferedImage(this.image.getColorModel(), this.image.copyData(null),
+                this.image.isAlphaPremultiplied(), null);
+            this.imageChanged = false;
+        }
+        return this.published;
+    }
+
+    /**
+     * @param value an x or y value, relative to the shield.
+     * @param from the first column or row that the value may be in.
+     * @param to the column or row after the last one that the value may be in.
+     * @return the column or row of the value, clamped into the given range.
+     */
+    private int cellOf(double value, int from, int to) {
+        int cell = (int) Math.floor(value / this.cellSize);
+        return Math.max(from, Math.min(to - 1, cell));
+    }
+
+    @Override
+    public Rectangle getBounds() {
+        return this.bounds;
+    }
+
+    @Override
+    public double getSmallestMemberSize() {
+        return this.cellSize;
+    }
+
+    @Override
+    public int getLayer() {
+        return CollisionLayers.SHIELD;
+    }
+
+    @Override
+    public Collidable castRay(double x1, double y1, double x2, double y2, double radius,
+        SlabIntersection result) {
+        if (this.remainingCells == 0) {
+            return null;
+        }
+        /*
+         * The cells are hit with a small tolerance, so the shield (grown by the radius) is checked with a margin
+         * around it: a movement that starts in the margin is walked from its start, and any other movement from
+         * where it enters the margin.
+         */
+        double right = this.left + this.columns * this.cellSize;
+        double bottom = this.top + this.rows * this.cellSize;
+        double reach = radius + MARGIN;
+        double enter = 0;
+        if (x1 < this.left - reach - MARGIN || x1 > right + reach + MARGIN || y1 < this.top - reach - MARGIN
+            || y1 > bottom + reach + MARGIN) {
+            if (!this.candidate.intersect(x1, y1, x2, y2, this.left - reach, this.top - reach, right + reach,
+                bottom + reach)) {
+                return null;
+            }
+            enter = this.candidate.getEntry();
+        }
+        /*
+         * Walk over the cells that the center passes through, from where it enters the shield, in the order that
+         * it enters them. A cell that the circle touches is at most "ring" cells away from the cell of the center
+         * at that time, and the center may pass through cells just outside the shield.
+         */
+        int ring = (int) Math.ceil(reach / this.cellSize);
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        int column = this.cellOf(x1 + dx * enter - this.left, -ring, this.columns + ring);
+        int row = this.cellOf(y1 + dy * enter - this.top, -ring, this.rows + ring);
+        int stepColumn = (int) Math.signum(dx);
+        int stepRow = (int) Math.signum(dy);
+        double nextColumnCross = Double.POSITIVE_INFINITY;
+        double nextRowCross = Double.POSITIVE_INFINITY;
+        double columnCrossDelta = Double.POSITIVE_INFINITY;
+        double rowCrossDelta = Double.POSITIVE_INFINITY;
+        if (stepColumn != 0) {
+            double border = this.left + (stepColumn > 0 ? column + 1 : column) * this.cellSize;
+            nextColumnCross = (border - x1) / dx;
+            columnCrossDelta = this.cellSize / Math.abs(dx);
+        }
+        if (stepRow != 0) {
+            double border = this.top + (stepRow > 0 ? row + 1 : row) * this.cellSize;
+            nextRowCross = (border - y1) / dy;
+            rowCrossDelta = this.cellSize / Math.abs(dy);
+        }
+        boolean found = false;
+        while (row >= -ring && row < this.rows + ring && column >= -ring && column < this.columns + ring) {
+            for (int i = Math.max(0, row - ring); i <= Math.min(this.rows - 1, row + ring); i++) {
+                for (int j = Math.max(0, column - ring); j <= Math.min(this.columns - 1, column + ring); j++) {
+                    if (this.isCellStanding(i, j) && this.intersectCell(x1, y1, x2, y2, radius, i, j)
+                        && (!found || this.candidate.getEntry() < result.getEntry())) {
+                        result.set(this.candidate);
+                        this.hitRow = i;
+                        this.hitColumn = j;
+                        found = true;
+                    }
+                }
+            }
+            double nextCross = Math.min(nextColumnCross, nextRowCross);
+            // Stop when the next cell starts after the end of the movement, or after the closest hit so far.
+            if (nextCross > 1 || (found && result.getEntry() <= nextCross)) {
+                break;
+            }
+            if (nextColumnCross < nextRowCross) {
+                column += stepColumn;
+                nextColumnCross += columnCrossDelta;
+            } else {
+                row += stepRow;
+                nextRowCross += rowCrossDelta;
+            }
+        }
+        return found ? this : null;
+    } // castRay
+
+    /**
+     * Intersect the moving circle with a single cell. The result is kept in the candidate intersection.
+     * @param x1 the x value of the start of the movement.
+     * @param y1 the y value of the start of the movement.
+     * @param x2 the x value of the end of the movement.
+     * @param y2 the y value of the end of the movement.
+     * @param radius the radius of the moving circle.
+     * @param row the row of the cell.
+     * @param column the column of the cell.
+     * @return true if the circle touches the cell, false otherwise.
+     */
+    private boolean intersectCell(double x1, double y1, double x2, double y2, double radius, int row, int column) {
+        double cellLeft = this.left + column * this.cellSize;
+        double cellTop = this.top + row * this.cellSize;
+        return this.candidate.intersect(x1, y1, x2, y2, radius, cellLeft, cellTop, cellLeft + this.cellSize,
+            cellTop + this.cellSize);
+    }
+
+    /**
+     * @return the rectangle of the cell that the last castRay found.
+     */
+    @Override
+    public Rectangle getCollisionRectangle() {
+        this.hitCell.setUpperLeft(new Point(this.left + this.hitColumn * this.cellSize,
+            this.top + this.hitRow * this.cellSize));
+        return this.hitCell;
+    }
+
+    @Override
+    public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity, double dt) {
+        if (this.hitRow >= 0) {
+            this.destroyCell(this.hitRow, this.hitColumn);
+        }
+        this.notifyHit(hitter);
+        return new Velocity(0, 0);
+    }
+
+    /**
+     * Whenever a hit() occurs, notify all the registered HitListener objects by calling their hitEvent.
+     * @param hitter the Ball that's doing the hitting.
+     */
+    private void notifyHit(Ball hitter) {
+        // The listeners are kept in a copy-on-write array, so a listener may add or remove listeners.
+        this.hitListeners.notifyHit(this, hitter);
+    }
+
+    @Override
+    public void addHitListener(HitListener hl) {
+        this.hitListeners.add(hl);
+    }
+
+    @Override
+    public void removeHitListener(HitListener hl) {
+        this.hitListeners.remove(hl);
+    }
+
+    @Override
+    public void drawOn(DrawSurface d) {
+        if (this.remainingCells > 0) {
+            d.drawImage((int) this.left, (int) this.top, this.publishImage());
+        }
+    }
+
+    @Override
+    public void timePassed(double dt) {
+    }
+
+    @Override
+    public void addToGame(GameLevel g) {
+        g.addSprite(this);
+        g.getGameEnvironment().addCollidableGroup(this);
+    }
+
+    /**
+     * Remove the shield from the game.
+     * @param g the game that the shield should be removed from.
+     */
+    public void removeFromGame(GameLevel g) {
+        g.removeSprite(this);
+        g.getGameEnvironment().removeCollidableGroup(this);
+    }
+
+} // class Shield
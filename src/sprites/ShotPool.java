@@ -0,0 +1,129 @@
+package sprites;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import geometry.Point;
+import invadersgame.GameEnvironment;
+
+/**
+ * The ShotPool class keeps a fixed number of balls that are used as the shots of a level, so firing a shot doesn't
+ * create a new ball. A shot is taken from the pool when it's fired, stays in the active set while it flies, and goes
+ * back to the pool when it's removed from the game. The shots are returned to the pool only in flushReleases, so a
+ * ball that was removed in the middle of a frame isn't fired again in the same frame.
+ */
+public class ShotPool {
+    // The default number of the shots in a pool.
+    public static final int DEFAULT_CAPACITY = 64;
+
+    // Declare the members of the class.
+    private int capacity;
+    // The balls that can be fired, used as a stack.
+    private List<Ball> free;
+    // The shots that are flying, and the index of every one of them in the list.
+    private List<Ball> active;
+    private Map<Ball, Integer> activeIndexes;
+    // The shots that were removed from the game, and go back to the pool in the next flushReleases.
+    private List<Ball> released;
+    private int highWaterMark;
+
+    /**
+     * Constructor.
+     * @param capacity the most shots that can fly at the same time.
+     * @param gameEnvironment the game environment of the shots.
+     */
+    public ShotPool(int capacity, GameEnvironment gameEnvironment) {
+        this.capacity = capacity;
+        this.free = new ArrayList<>(capacity);
+        this.active = new ArrayList<>(capacity);
+        this.activeIndexes = new IdentityHashMap<>(capacity);
+        this.released = new ArrayList<>(capacity);
+        this.highWaterMark = 0;
+        for (int i = 0; i < capacity; i++) {
+            this.free.add(new Ball(new Point(0, 0), 0, Color.WHITE, gameEnvironment));
+        }
+    }
+
+    /**
+     * Take a shot from the pool.
+     * @param center the center that the shot starts from.
+     * @param r the radius of the shot.
+     * @param color the color of the shot.
+     * @param layer the collision layer of the shot.
+     * @param mask the layers of the collidables that the shot can collide with.
+     * @return the shot, or null if all the shots of the pool are in use.
+     */
+    public Ball acquire(Point center, int r, Color color, int layer, int mask) {
+        if (this.free.isEmpty()) {
+            return null;
+        }
+        Ball shot = this.free.remove(this.free.size() - 1);
+        shot.reset(center.getX(), center.getY(), r, color);
+        shot.setCollisionLayer(layer, mask);
+        this.activeIndexes.put(shot, this.active.size());
+        this.active.add(shot);
+        this.highWaterMark = Math.max(this.highWaterMark, this.active.size());
+        return shot;
+    }
+
+    /**
+     * Mark the given shot as removed from the game. It goes back to the pool in the next flushReleases.
+     * Balls that don't belong to the active set of the pool are ignored.
+     * @param shot the shot that was removed from the game.
+     */
+    public void release(Ball shot) {
+        Integer index = this.activeIndexes.remove(shot);
+        if (index == null) {
+            return;
+        }
+        // Move the last active shot to the place of the released one.
+        Ball last = this.active.remove(this.active.size() - 1);
+        if (last != shot) {
+            this.active.set(index, last);
+            this.activeIndexes.put(last, index);
+        }
+        this.released.add(shot);
+    }
+
+    /**
+     * Return the shots that were released since the last call to the pool.
+     */
+    public void flushReleases() {
+        for (int i = 0; i < this.released.size(); i++) {
+            this.free.add(this.released.get(i));
+        }
+        this.released.clear();
+    }
+
+    /**
+     * @return the shots that are flying. The list must not be changed by the caller.
+     */
+    public List<Ball> getActive() {
+        return this.active;
+    }
+
+    /**
+     * @return the number of the shots that are flying.
+     */
+    public int getActiveCount() {
+        return this.active.size();
+    }
+
+    /**
+     * @return the largest number of the shots that flew at the same time.
+     */
+    public int getHighWaterMark() {
+        return this.highWaterMark;
+    }
+
+    /**
+     * @return the most shots that can fly at the same time.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+} // class ShotPool
@@ -1,30 +1,115 @@
 package sprites;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import biuoop.DrawSurface;
 
 /**
  * The SpriteCollection class represents a collection of sprites that are in the game.
+ * Removing a sprite only leaves an empty slot in its place (so it's safe to do while the sprites are notified), and
+ * the empty slots are cleared in batches by flushRemovals, keeping the drawing order of the sprites.
  */
 public class SpriteCollection {
     // Declare the members of the class.
     private List<Sprite> spritesList = new ArrayList<>();
+    // The index of every sprite in the list, so a sprite is found without searching the list.
+    private Map<Sprite, Integer> indexes = new IdentityHashMap<>();
+    private int emptySlots = 0;
 
     /**
      * @return the sprites list.
      */
     public List<Sprite> getSprites() {
+        this.compact();
         return this.spritesList;
     }
 
     /**
-     * Add the given sprite to the Sprite collection.
+     * @return the number of the sprites in the collection.
+     */
+    public int size() {
+        return this.indexes.size();
+    }
+
+    /**
+     * Add the given sprite to the Sprite collection. A sprite that is already in the collection is not added again.
      * @param s the sprite that should be add to the Sprite collection.
      */
     public void addSprite(Sprite s) {
+        if (this.indexes.containsKey(s)) {
+            return;
+        }
+        this.indexes.put(s, this.spritesList.size());
         this.spritesList.add(s);
     }
 
+    /**
+     * Add the given sprite at the given position of the drawing order (0 is drawn first, under all the others).
+     * @param position the position of the sprite in the drawing order.
+     * @param s the sprite that should be add to the Sprite collection.
+     */
+    public void addSprite(int position, Sprite s) {
+        if (this.indexes.containsKey(s)) {
+            return;
+        }
+        this.compact();
+        this.spritesList.add(position, s);
+        this.reindex();
+    }
+
+    /**
+     * Remove the given sprite from the Sprite collection. The sprite isn't drawn or notified from now on, and its slot
+     * is cleared by the next flushRemovals.
+     * @param s the sprite that should be removed from the Sprite collection.
+     */
+    public void removeSprite(Sprite s) {
+        Integer index = this.indexes.remove(s);
+        if (index != null) {
+            this.spritesList.set(index, null);
+            this.emptySlots++;
+        }
+    }
+
+    /**
+     * Clear the slots of the removed sprites. It's called once per frame, and the list is compacted only when
+     * a quarter of it is empty, so each removal costs O(1) on average.
+     */
+    public void flushRemovals() {
+        if (this.emptySlots > 0 && this.emptySlots * 4 >= this.spritesList.size()) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Remove all the empty slots from the list, keeping the order of the sprites.
+     */
+    private void compact() {
+        if (this.emptySlots == 0) {
+            return;
+        }
+        int next = 0;
+        for (int i = 0; i < this.spritesList.size(); i++) {
+            Sprite sprite = this.spritesList.get(i);
+            if (sprite != null) {
+                this.spritesList.set(next, sprite);
+                this.indexes.put(sprite, next);
+                next++;
+            }
+        }
+        this.spritesList.subList(next, this.spritesList.size()).clear();
+        this.emptySlots = 0;
+    }
+
+    /**
+     * Recompute the indexes of all the sprites.
+     */
+    private void reindex() {
+        for (int i = 0; i < this.spritesList.size(); i++) {
+            this.indexes.put(this.spritesList.get(i), i);
+        }
+    }
+
     /**
      * Notify each one of the sprites in the list that time has passed.
      * @param dt specifies the number of seconds passed since the last call.
@@ -34,7 +119,9 @@ public class SpriteCollection {
         // Run over the list of the sprites and notify each one of them that time has passed.
         for (int i = 0; i < this.spritesList.size(); i++) {
             pointerToList = this.spritesList.get(i);
-            pointerToList.timePassed(dt);
+            if (pointerToList != null) {
+                pointerToList.timePassed(dt);
+            }
         }
     }
 
@@ -46,8 +133,10 @@ public class SpriteCollection {
         Sprite pointerToList = null;
         for (int i = 0; i < this.spritesList.size(); i++) {
             pointerToList = this.spritesList.get(i);
-            pointerToList.drawOn(d);
+            if (pointerToList != null) {
+                pointerToList.drawOn(d);
+            }
         }
     }
 
-} // class SpriteCollection
\ No newline at end of file
+} // class SpriteCollection
@@ -0,0 +1,67 @@
+package tournament;
+
+import biuoop.KeyboardSensor;
+import headless.TickedKeyboardSensor;
+import invadersgame.SplitMixRandom;
+
+/**
+ * The BotKeyboardSensor class is a simple random player. It always holds the space key (so the paddle shoots as often
+ * as it can) and the "c" key (so the end screen is closed), and moves the paddle to the left, to the right or not at
+ * all, for a random number of ticks each time. Its choices are taken from a generator of its own, so the same seed
+ * always plays the same way.
+ */
+public class BotKeyboardSensor implements TickedKeyboardSensor {
+    // The shortest and the longest number of the ticks of a single move.
+    private static final int MIN_MOVE_TICKS = 10;
+    private static final int MAX_MOVE_TICKS = 90;
+    // The moves of the bot.
+    private static final int STAY = 0;
+    private static final int LEFT = 1;
+    private static final int RIGHT = 2;
+
+    // Declare the members of the class.
+    private SplitMixRandom random;
+    private int move;
+    private int ticksLeft;
+
+    /**
+     * Constructor.
+     * @param seed the seed of the choices of the bot.
+     */
+    public BotKeyboardSensor(long seed) {
+        this.random = new SplitMixRandom(seed);
+        this.move = STAY;
+        this.ticksLeft = 0;
+    }
+
+    /**
+     * @return a policy that plays every game with a bot of the seed of the game.
+     */
+    public static InputPolicy policy() {
+        return BotKeyboardSensor::new;
+    }
+
+    @Override
+    public void tick() {
+        if (this.ticksLeft == 0) {
+            this.move = this.random.nextInt(3);
+            this.ticksLeft = MIN_MOVE_TICKS + this.random.nextInt(MAX_MOVE_TICKS - MIN_MOVE_TICKS + 1);
+        }
+        this.ticksLeft--;
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        if (KeyboardSensor.SPACE_KEY.equals(key) || "c".equals(key)) {
+            return true;
+        }
+        if (KeyboardSensor.LEFT_KEY.equals(key)) {
+            return this.move == LEFT;
+        }
+        if (KeyboardSensor.RIGHT_KEY.equals(key)) {
+            return this.move == RIGHT;
+        }
+        return false;
+    }
+
+} // class BotKeyboardSensor
@@ -0,0 +1,84 @@
+package tournament;
+
+import headless.HeadlessGame;
+
+/**
+ * The GameResult class holds the result of a single game of a tournament.
+ */
+public class GameResult {
+    // Declare the members of the class.
+    private int index;
+    private long seed;
+    private int score;
+    private int levelsCleared;
+    private long ticks;
+    private boolean timedOut;
+
+    /**
+     * Constructor.
+     * @param index the index of the game in the tournament.
+     * @param seed the seed of the game.
+     * @param score the final score of the game (0 if the game timed out).
+     * @param levelsCleared the number of the levels that the game cleared (0 if the game timed out).
+     * @param ticks the number of the ticks that the game lasted.
+     * @param timedOut true if the game didn't end in the limit of the ticks, false otherwise.
+     */
+    public GameResult(int index, long seed, int score, int levelsCleared, long ticks, boolean timedOut) {
+        this.index = index;
+        this.seed = seed;
+        this.score = score;
+        this.levelsCleared = levelsCleared;
+        this.ticks = ticks;
+        this.timedOut = timedOut;
+    }
+
+    /**
+     * @return the index of the game in the tournament.
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * @return the seed of the game.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * @return the final score of the game.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * @return the number of the levels that the game cleared.
+     */
+    public int getLevelsCleared() {
+        return this.levelsCleared;
+    }
+
+    /**
+     * @return the number of the ticks (frames) that the game lasted.
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * @return the simulated time of the game, in seconds.
+     */
+    public double getSimSeconds() {
+        return (double) this.ticks / HeadlessGame.FRAMES_PER_SECOND;
+    }
+
+    /**
+     * @return true if the game didn't end in the limit of the ticks, false otherwise.
+     */
+    public boolean isTimedOut() {
+        return this.timedOut;
+    }
+
+} // class GameResult
@@ -0,0 +1,18 @@
+package tournament;
+
+import headless.TickedKeyboardSensor;
+
+/**
+ * The InputPolicy interface creates the player of a headless game - the keyboard that presses its keys. Every game of
+ * a tournament gets a keyboard of its own, so a policy must not share any changing state between the keyboards.
+ */
+public interface InputPolicy {
+
+    /**
+     * Create the keyboard of a single game.
+     * @param seed the seed of the game, which a random player can use for its own choices.
+     * @return a new keyboard.
+     */
+    TickedKeyboardSensor createKeyboard(long seed);
+
+} // interface InputPolicy
@@ -0,0 +1,203 @@
+package tournament;
+
+import java.io.PrintWriter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import headless.HeadlessGame;
+import highscores.HighScoresTable;
+import highscores.ScoreInfo;
+import invadersgame.SplitMixRandom;
+import levels.GameFlow;
+
+/**
+ * The Tournament class plays many independent headless games at once, on a fork-join pool, and sums up their results.
+ * Every game has everything of its own - the runner, the surface, the keyboard, the levels and the counters - and the
+ * only state that the games share is the registry of the images, which is thread-safe and never changed after an
+ * image is decoded. So the games don't wait for each other, and the tournament scales with the cores.
+ * The seeds of the games are chosen from the seed of the tournament before the games start, so a tournament gives the
+ * same results whatever number of threads plays it.
+ */
+public class Tournament {
+    // Declare the members of the class.
+    private int games;
+    private long seed;
+    private InputPolicy policy;
+    private int lives;
+    private int parallelism;
+    private int initialEnemiesSpeed;
+    private int speedIncrement;
+    private long maxTicks;
+    private HighScoresTable highScoresTable;
+
+    /**
+     * Constructor - the games start with 3 lives, the default speeds of the enemies and a limit of an hour of
+     * simulated time, and are played on all the cores.
+     * @param games the number of the games to play.
+     * @param seed the seed of the tournament.
+     * @param policy the policy that creates the player of every game.
+     */
+    public Tournament(int games, long seed, InputPolicy policy) {
+        this.games = games;
+        this.seed = seed;
+        this.policy = policy;
+        this.lives = 3;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.initialEnemiesSpeed = GameFlow.DEFAULT_ENEMIES_SPEED;
+        this.speedIncrement = GameFlow.DEFAULT_SPEED_INCREMENT;
+        this.maxTicks = HeadlessGame.DEFAULT_MAX_TICKS;
+        this.highScoresTable = null;
+    }
+
+    /**
+     * @param numberOfLives the number of the lives that every game starts with.
+     */
+    public void setLives(int numberOfLives) {
+        this.lives = numberOfLives;
+    }
+
+    /**
+     * @param threads the number of the threads that play the games.
+     */
+    public void setParallelism(int threads) {
+        this.parallelism = threads;
+    }
+
+    /**
+     * Set the progression of the speed of the enemies in the games.
+     * @param initialSpeed the speed of the enemies in the first level.
+     * @param increment how much faster the enemies are in every next level.
+     */
+    public void setEnemiesSpeed(int initialSpeed, int increment) {
+        this.initialEnemiesSpeed = initialSpeed;
+        this.speedIncrement = increment;
+    }
+
+    /**
+     * @param ticks the most ticks that a single game may last before it's stopped.
+     */
+    public void setMaxTicks(long ticks) {
+        this.maxTicks = ticks;
+    }
+
+    /**
+     * @param table a table that the scores of the games are added to when the tournament ends, or null.
+     */
+    public void setHighScoresTable(HighScoresTable table) {
+        this.highScoresTable = table;
+    }
+
+    /**
+     * Play all the games of the tournament.
+     * @return the report of the results.
+     */
+    public TournamentReport run() {
+        long[] seeds = new long[this.games];
+        SplitMixRandom seedsRandom = new SplitMixRandom(this.seed);
+        for (int i = 0; i < this.games; i++) {
+            seeds[i] = seedsRandom.nextLong();
+        }
+        GameResult[] results = new GameResult[this.games];
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        long start = System.nanoTime();
+        try {
+            pool.invoke(new PlayGames(seeds, results, 0, this.games));
+        } finally {
+            pool.shutdown();
+        }
+        long wallNanos = System.nanoTime() - start;
+        // The table isn't thread-safe, so the scores are added after all the games ended, in the order of the games.
+        if (this.highScoresTable != null) {
+            for (GameResult result : results) {
+                if (!result.isTimedOut()) {
+                    this.highScoresTable.add(new ScoreInfo("game " + result.getIndex(), result.getScore()));
+                }
+            }
+        }
+        return new TournamentReport(results, wallNanos, this.parallelism);
+    }
+
+    /**
+     * Play a single game.
+     * @param index the index of the game.
+     * @param gameSeed the seed of the game.
+     * @return the result of the game.
+     */
+    private GameResult play(int index, long gameSeed) {
+        HeadlessGame game = new HeadlessGame(this.policy.createKeyboard(gameSeed), this.maxTicks, gameSeed);
+        game.setEnemiesSpeed(this.initialEnemiesSpeed, this.speedIncrement);
+        try {
+            long ticks = game.play(this.lives);
+            return new GameResult(index, gameSeed, game.getLastScore(), game.getLastLevelsCleared(), ticks, false);
+        } catch (IllegalStateException e) {
+            return new GameResult(index, gameSeed, 0, 0, game.getAnimationRunner().getTicks(), true);
+        }
+    }
+
+    /**
+     * The PlayGames class is the fork-join task of a range of the games, which is split in halves until every task
+     * plays a single game.
+     */
+    private final class PlayGames extends RecursiveAction {
+        // A fork-join task is serializable, and serialVersionUID keeps the versions of the serialized task apart.
+        private static final long serialVersionUID = 1L;
+        // Declare the members of the class.
+        private final long[] seeds;
+        private final GameResult[] results;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructor.
+         * @param seeds the seeds of all the games.
+         * @param results the array that the results of the games are put in, by their index.
+         * @param from the index of the first game of the range.
+         * @param to the index after the last game of the range.
+         */
+        private PlayGames(long[] seeds, GameResult[] results, int from, int to) {
+            this.seeds = seeds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= 1) {
+                if (this.from < this.to) {
+                    this.results[this.from] = play(this.from, this.seeds[this.from]);
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new PlayGames(this.seeds, this.results, this.from, middle),
+                new PlayGames(this.seeds, this.results, middle, this.to));
+        }
+    } // class PlayGames
+
+    /**
+     * Play a tournament of bots and print its report and the best games.
+     * @param args the number of the games (100 by default), the number of the threads (all the cores by default), the
+     * speed of the enemies in the first level and how much faster they are in every next level.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        Tournament tournament = new Tournament(games, HeadlessGame.DEFAULT_SEED, BotKeyboardSensor.policy());
+        if (args.length > 1) {
+            tournament.setParallelism(Integer.parseInt(args[1]));
+        }
+        if (args.length > 3) {
+            tournament.setEnemiesSpeed(Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+        }
+        HighScoresTable best = new HighScoresTable(5);
+        tournament.setHighScoresTable(best);
+        TournamentReport report = tournament.run();
+        report.writeReport(new PrintWriter(System.out));
+        for (ScoreInfo score : best.getHighScores()) {
+            if (score.getScore() >= 0) {
+                System.out.println(score.getName() + ": " + score.getScore());
+            }
+        }
+    }
+
+} // class Tournament
@@ -0,0 +1,151 @@
+package tournament;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * The TournamentReport class sums up the results of the games of a tournament: the distribution of the scores and of
+ * the cleared levels (of the games that ended), the simulated time, and how fast the games were played.
+ */
+public class TournamentReport {
+    // Declare the members of the class.
+    private GameResult[] results;
+    private long wallNanos;
+    private int parallelism;
+    // The scores of the games that ended, in ascending order.
+    private int[] sortedScores;
+    private int timeouts;
+    private long totalTicks;
+
+    /**
+     * Constructor.
+     * @param results the results of the games, by their index.
+     * @param wallNanos the real time that the tournament took, in nanoseconds.
+     * @param parallelism the number of the threads that played the games.
+     */
+    public TournamentReport(GameResult[] results, long wallNanos, int parallelism) {
+        this.results = results;
+        this.wallNanos = wallNanos;
+        this.parallelism = parallelism;
+        this.timeouts = 0;
+        this.totalTicks = 0;
+        int[] scores = new int[results.length];
+        int ended = 0;
+        for (GameResult result : results) {
+            this.totalTicks += result.getTicks();
+            if (result.isTimedOut()) {
+                this.timeouts++;
+            } else {
+                scores[ended++] = result.getScore();
+            }
+        }
+        this.sortedScores = Arrays.copyOf(scores, ended);
+        Arrays.sort(this.sortedScores);
+    }
+
+    /**
+     * @return the results of the games, by their index.
+     */
+    public GameResult[] getResults() {
+        return this.results.clone();
+    }
+
+    /**
+     * @return the number of the games that didn't end in the limit of the ticks.
+     */
+    public int getTimeouts() {
+        return this.timeouts;
+    }
+
+    /**
+     * @return the number of the ticks of all the games together.
+     */
+    public long getTotalTicks() {
+        return this.totalTicks;
+    }
+
+    /**
+     * @return the real time that the tournament took, in seconds.
+     */
+    public double getWallSeconds() {
+        return this.wallNanos / 1e9;
+    }
+
+    /**
+     * @return the number of the ticks that were played in a second of real time.
+     */
+    public double getTicksPerSecond() {
+        return this.totalTicks / this.getWallSeconds();
+    }
+
+    /**
+     * @param fraction the part of the scores (between 0 and 1) that are not larger than the result, e.g. 0.9.
+     * @return the percentile of the scores of the games that ended, or 0 if none ended.
+     */
+    public int getScorePercentile(double fraction) {
+        if (this.sortedScores.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * this.sortedScores.length) - 1;
+        return this.sortedScores[Math.max(0, Math.min(this.sortedScores.length - 1, index))];
+    }
+
+    /**
+     * @return the mean score of the games that ended, or 0 if none ended.
+     */
+    public double getMeanScore() {
+        if (this.sortedScores.length == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int score : this.sortedScores) {
+            sum += score;
+        }
+        return (double) sum / this.sortedScores.length;
+    }
+
+    /**
+     * @return the number of the games (that ended) by the number of the levels that they cleared.
+     */
+    public int[] getLevelsHistogram() {
+        int most = 0;
+        for (GameResult result : this.results) {
+            most = Math.max(most, result.getLevelsCleared());
+        }
+        int[] histogram = new int[most + 1];
+        for (GameResult result : this.results) {
+            if (!result.isTimedOut()) {
+                histogram[result.getLevelsCleared()]++;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Write the report.
+     * @param writer the writer to write the report to.
+     */
+    public void writeReport(Writer writer) {
+        PrintWriter out = new PrintWriter(writer);
+        out.printf("games      %d (%d timed out)%n", this.results.length, this.timeouts);
+        out.printf("score      mean %.1f, p10 %d, p50 %d, p90 %d, max %d%n", this.getMeanScore(),
+            this.getScorePercentile(0.1), this.getScorePercentile(0.5), this.getScorePercentile(0.9),
+            this.getScorePercentile(1));
+        int[] histogram = this.getLevelsHistogram();
+        out.print("levels    ");
+        for (int i = 0; i < histogram.length; i++) {
+            out.printf(" %d: %d", i, histogram[i]);
+        }
+        out.println();
+        double simSeconds = 0;
+        for (GameResult result : this.results) {
+            simSeconds += result.getSimSeconds();
+        }
+        out.printf("sim time   %.0f seconds (%d ticks)%n", simSeconds, this.totalTicks);
+        out.printf("wall time  %.2f seconds on %d threads (%.0f ticks per second, %.1fx real time)%n",
+            this.getWallSeconds(), this.parallelism, this.getTicksPerSecond(), simSeconds / this.getWallSeconds());
+        out.flush();
+    }
+
+} // class TournamentReport
@@ -0,0 +1,42 @@
+package training;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * The ActionKeyboardSensor class presses the keys of an action of a training environment: the action is a bit mask of
+ * BatchEnvironment.LEFT, BatchEnvironment.RIGHT and BatchEnvironment.FIRE, and it stays pressed until the next action
+ * is set. No other key is ever pressed.
+ */
+public class ActionKeyboardSensor implements KeyboardSensor {
+    // Declare the members of the class.
+    private int action;
+
+    /**
+     * Constructor - no key is pressed.
+     */
+    public ActionKeyboardSensor() {
+        this.action = BatchEnvironment.NOOP;
+    }
+
+    /**
+     * @param keys the bit mask of the keys of the action.
+     */
+    public void setAction(int keys) {
+        this.action = keys;
+    }
+
+    @Override
+    public boolean isPressed(String key) {
+        if (KeyboardSensor.LEFT_KEY.equals(key)) {
+            return (this.action & BatchEnvironment.LEFT) != 0;
+        }
+        if (KeyboardSensor.RIGHT_KEY.equals(key)) {
+            return (this.action & BatchEnvironment.RIGHT) != 0;
+        }
+        if (KeyboardSensor.SPACE_KEY.equals(key)) {
+            return (this.action & BatchEnvironment.FIRE) != 0;
+        }
+        return false;
+    }
+
+} // class ActionKeyboardSensor
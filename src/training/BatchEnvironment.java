@@ -0,0 +1,225 @@
+package training;
+
+import java.nio.FloatBuffer;
+import java.util.function.Supplier;
+
+import headless.HeadlessGame;
+import invadersgame.SplitMixRandom;
+import levels.BattleLevel;
+import levels.LevelInformation;
+
+/**
+ * The BatchEnvironment class steps many independent games together, for training bots. Every call of step takes an
+ * action for every game, performs a single step of each of them, and writes the observations, the rewards (the score
+ * that was gained in the step) and whether each game ended into arrays that belong to the environment. A game that
+ * ended is started again with a new seed right away, so the observation that is written for it is the first one of
+ * the new game.
+ * The games are stepped directly - the levels are built on GameLevel and EnemiesArmy, without a runner or a surface -
+ * and the arrays are reused, so stepping doesn't create objects of its own (a new level is created only when a level
+ * is cleared or a game is started again).
+ * An environment isn't thread-safe: to use all the cores, use an environment of its own in every thread.
+ *
+ * The observation of a game is OBSERVATION_HEADER floats (the x of the paddle, the score, the lives, the cleared
+ * levels and the origin of the army), the occupancy of the slots of the enemies (1 for an enemy that is still alive),
+ * and SHOT_SLOTS triples of (x, y, side) of the flying shots. The places are divided by the size of the screen.
+ */
+public class BatchEnvironment {
+    // The bits of the actions.
+    public static final int NOOP = 0;
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int FIRE = 1 << 2;
+    // The places of the values of a game in its observation.
+    public static final int PADDLE_X = 0;
+    public static final int SCORE = 1;
+    public static final int LIVES = 2;
+    public static final int LEVELS_CLEARED = 3;
+    public static final int ARMY_X = 4;
+    public static final int ARMY_Y = 5;
+    public static final int ENEMIES = 6;
+    public static final int OBSERVATION_HEADER = ENEMIES;
+    // The number of the shots in an observation (the first flying shots, the rest are left out).
+    public static final int SHOT_SLOTS = 16;
+    // The time of a step, in seconds.
+    public static final double DT = 1.0 / HeadlessGame.FRAMES_PER_SECOND;
+
+    // Declare the members of the class.
+    private GameInstance[] games;
+    private int enemySlots;
+    private int observationSize;
+    private float[] observations;
+    private FloatBuffer observationBuffer;
+    private float[] rewards;
+    private boolean[] dones;
+    private SplitMixRandom seeds;
+    private long steps;
+
+    /**
+     * Constructor - the games are battles that start with 3 lives.
+     * @param size the number of the games.
+     * @param seed the seed of the environment, which the seeds of all the games are taken from.
+     */
+    public BatchEnvironment(int size, long seed) {
+        this(size, seed, BattleLevel::new, 3);
+    }
+
+    /**
+     * Constructor.
+     * @param size the number of the games.
+     * @param seed the seed of the environment, which the seeds of all the games are taken from.
+     * @param levels creates the information of the levels of a game.
+     * @param lives the number of the lives that every game starts with.
+     */
+    public BatchEnvironment(int size, long seed, Supplier<LevelInformation> levels, int lives) {
+        this.games = new GameInstance[size];
+        LevelInformation first = levels.get();
+        this.enemySlots = GameInstance.enemySlots(first);
+        this.observationSize = OBSERVATION_HEADER + this.enemySlots + 3 * SHOT_SLOTS;
+        for (int i = 0; i < size; i++) {
+            this.games[i] = new GameInstance(i == 0 ? first : levels.get(), lives);
+        }
+        this.observations = new float[size * this.observationSize];
+        this.observationBuffer = FloatBuffer.wrap(this.observations);
+        this.rewards = new float[size];
+        this.dones = new boolean[size];
+        this.seeds = new SplitMixRandom(seed);
+        this.steps = 0;
+        this.reset();
+    }
+
+    /**
+     * Start all the games again, and write their first observations.
+     */
+    public void reset() {
+        for (int i = 0; i < this.games.length; i++) {
+            this.games[i].reset(this.seeds.nextLong());
+            this.games[i].observe(this.observationBuffer, i * this.observationSize, this.enemySlots);
+            this.rewards[i] = 0;
+            this.dones[i] = false;
+        }
+    }
+
+    /**
+     * Perform a single step of all the games.
+     * @param actions the action of every game (a bit mask of LEFT, RIGHT and FIRE).
+     */
+    public void step(int[] actions) {
+        if (actions.length != this.games.length) {
+            throw new IllegalArgumentException("Expected " + this.games.length + " actions, got " + actions.length);
+        }
+        for (int i = 0; i < this.games.length; i++) {
+            GameInstance game = this.games[i];
+            int scoreBefore = game.getScore();
+            boolean done = game.step(actions[i], DT);
+            this.rewards[i] = game.getScore() - scoreBefore;
+            this.dones[i] = done;
+            if (done) {
+                game.reset(this.seeds.nextLong());
+            }
+            game.observe(this.observationBuffer, i * this.observationSize, this.enemySlots);
+        }
+        this.steps += this.games.length;
+    }
+
+    /**
+     * @return the number of the games.
+     */
+    public int size() {
+        return this.games.length;
+    }
+
+    /**
+     * @return the number of the floats of the observation of a single game.
+     */
+    public int getObservationSize() {
+        return this.observationSize;
+    }
+
+    /**
+     * @return the number of the enemy slots in an observation.
+     */
+    public int getEnemySlots() {
+        return this.enemySlots;
+    }
+
+    /**
+     * @return the observations of all the games, one after the other. The array is rewritten by every step. It's null
+     * when the observations are written into a buffer that doesn't have an array.
+     */
+    public float[] getObservations() {
+        return this.observations;
+    }
+
+    /**
+     * @return the observations of all the games as a buffer (over the same array, unless they are written into a
+     * buffer of another owner).
+     */
+    public FloatBuffer getObservationBuffer() {
+        return this.observationBuffer;
+    }
+
+    /**
+     * Write the observations into the given buffer from now on, instead of into the array of the environment - e.g.
+     * straight into the direct buffer of a response of the EnvironmentServer, so they are never copied. The current
+     * observations are written into the buffer right away.
+     * @param buffer a buffer of getObservationSize() floats for every game, from its index 0.
+     */
+    void writeObservationsTo(FloatBuffer buffer) {
+        if (buffer.capacity() < this.games.length * this.observationSize) {
+            throw new IllegalArgumentException("The buffer is too small for the observations");
+        }
+        this.observationBuffer = buffer;
+        this.observations = buffer.hasArray() && buffer.arrayOffset() == 0 ? buffer.array() : null;
+        for (int i = 0; i < this.games.length; i++) {
+            this.games[i].observe(this.observationBuffer, i * this.observationSize, this.enemySlots);
+        }
+    }
+
+    /**
+     * @return the reward of every game in the last step - the score that it gained.
+     */
+    public float[] getRewards() {
+        return this.rewards;
+    }
+
+    /**
+     * @return for every game, true if it ended in the last step (and was started again), false otherwise.
+     */
+    public boolean[] getDones() {
+        return this.dones;
+    }
+
+    /**
+     * @return the number of the steps of all the games together so far.
+     */
+    public long getSteps() {
+        return this.steps;
+    }
+
+    /**
+     * Step an environment of random actions and print how many steps of the games were performed in a second.
+     * @param args the number of the games (64 by default) and the number of the steps (3000 by default).
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int steps = args.length > 1 ? Integer.parseInt(args[1]) : 3000;
+        BatchEnvironment environment = new BatchEnvironment(size, HeadlessGame.DEFAULT_SEED);
+        int[] actions = new int[size];
+        SplitMixRandom random = new SplitMixRandom(HeadlessGame.DEFAULT_SEED);
+        int games = 0;
+        long start = System.nanoTime();
+        for (int step = 0; step < steps; step++) {
+            for (int i = 0; i < size; i++) {
+                actions[i] = random.nextInt((LEFT | RIGHT | FIRE) + 1);
+            }
+            environment.step(actions);
+            for (boolean done : environment.getDones()) {
+                games += done ? 1 : 0;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d steps of %d games in %.2f seconds (%.0f steps per second), %d games ended%n",
+            environment.getSteps(), size, seconds, environment.getSteps() / seconds, games);
+    }
+
+} // class BatchEnvironment
@@ -0,0 +1,224 @@
+package training;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+import headless.HeadlessGame;
+import invadersgame.SplitMixRandom;
+
+/**
+ * The EnvironmentClient class is a trainer's end of a connection to an EnvironmentServer, for trainers that run in
+ * Java (and an example of the protocol for the others). A request may be sent before the response of the previous
+ * one is received, to pipeline them. The observations of the last response are read in place, from its direct buffer.
+ */
+public class EnvironmentClient implements Closeable {
+    // Declare the members of the class.
+    private SocketChannel channel;
+    private ByteBuffer request;
+    private ByteBuffer response;
+    private FloatBuffer observations;
+    private int size;
+    private int observationSize;
+
+    /**
+     * Constructor.
+     * @param address the address of the server.
+     * @throws IOException if the server can't be reached.
+     */
+    public EnvironmentClient(SocketAddress address) throws IOException {
+        this.channel = SocketChannel.open(address);
+        this.request = ByteBuffer.allocateDirect(16 + 4 * EnvironmentServer.MAX_GAMES).order(ByteOrder.LITTLE_ENDIAN);
+        this.response = ByteBuffer.allocateDirect(1024).order(ByteOrder.LITTLE_ENDIAN);
+        this.size = 0;
+        this.observationSize = 0;
+    }
+
+    /**
+     * Create a new environment and receive its first observations.
+     * @param games the number of the games.
+     * @param seed the seed of the environment.
+     * @throws IOException if the connection fails or the server answers with an error.
+     */
+    public void reset(int games, long seed) throws IOException {
+        this.sendReset(games, seed);
+        this.receive();
+    }
+
+    /**
+     * Step the environment and receive the results.
+     * @param actions the action of every game.
+     * @throws IOException if the connection fails or the server answers with an error.
+     */
+    public void step(int[] actions) throws IOException {
+        this.sendStep(actions);
+        this.receive();
+    }
+
+    /**
+     * Send a reset request, without waiting for its response.
+     * @param games the number of the games.
+     * @param seed the seed of the environment.
+     * @throws IOException if the connection fails.
+     */
+    public void sendReset(int games, long seed) throws IOException {
+        this.request.clear();
+        this.request.putInt(16).putInt(EnvironmentServer.RESET).putInt(games).putLong(seed);
+        this.send();
+    }
+
+    /**
+     * Send a step request, without waiting for its response.
+     * @param actions the action of every game.
+     * @throws IOException if the connection fails.
+     */
+    public void sendStep(int[] actions) throws IOException {
+        this.request.clear();
+        this.request.putInt(4 + 4 * actions.length).putInt(EnvironmentServer.STEP);
+        for (int action : actions) {
+            this.request.putInt(action);
+        }
+        this.send();
+    }
+
+    /**
+     * Write the request.
+     * @throws IOException if the connection fails.
+     */
+    private void send() throws IOException {
+        this.request.flip();
+        while (this.request.hasRemaining()) {
+            this.channel.write(this.request);
+        }
+    }
+
+    /**
+     * Receive the next response.
+     * @throws IOException if the connection fails or the response is an error.
+     */
+    public void receive() throws IOException {
+        this.response.clear().limit(4);
+        this.readFully();
+        int length = this.response.getInt(0);
+        if (this.response.capacity() < 4 + length) {
+            this.response = ByteBuffer.allocateDirect(4 + length).order(ByteOrder.LITTLE_ENDIAN);
+            this.response.putInt(length);
+        }
+        this.response.limit(4 + length);
+        this.readFully();
+        if (this.response.getInt(4) != EnvironmentServer.OK) {
+            byte[] message = new byte[length - 4];
+            this.response.position(8);
+            this.response.get(message);
+            throw new IOException("The server failed: " + new String(message, StandardCharsets.UTF_8));
+        }
+        this.size = this.response.getInt(8);
+        this.observationSize = this.response.getInt(12);
+        ByteBuffer view = this.response.duplicate();
+        view.position(EnvironmentServer.RESPONSE_HEADER).limit(this.getRewardsOffset());
+        this.observations = view.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+    }
+
+    /**
+     * Read until the response buffer is full up to its limit.
+     * @throws IOException if the connection fails or is closed.
+     */
+    private void readFully() throws IOException {
+        while (this.response.hasRemaining()) {
+            if (this.channel.read(this.response) < 0) {
+                throw new EOFException("The server closed the connection");
+            }
+        }
+    }
+
+    /**
+     * @return the index of the rewards in the response.
+     */
+    private int getRewardsOffset() {
+        return EnvironmentServer.RESPONSE_HEADER + 4 * this.size * this.observationSize;
+    }
+
+    /**
+     * @return the number of the games of the environment.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of the floats of the observation of a single game.
+     */
+    public int getObservationSize() {
+        return this.observationSize;
+    }
+
+    /**
+     * @return the observations of the last response, in place. The buffer is valid until the next response.
+     */
+    public FloatBuffer getObservations() {
+        return this.observations;
+    }
+
+    /**
+     * @param game the index of a game.
+     * @return the reward of the game in the last step.
+     */
+    public float getReward(int game) {
+        return this.response.getFloat(this.getRewardsOffset() + 4 * game);
+    }
+
+    /**
+     * @param game the index of a game.
+     * @return true if the game ended in the last step (and was started again), false otherwise.
+     */
+    public boolean isDone(int game) {
+        return this.response.get(this.getRewardsOffset() + 4 * this.size + game) != 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Step an environment of a server with random actions, and print how many steps of the games were performed in a
+     * second, through the connection.
+     * @param args the address of the server (5005 by default), the number of the games (64 by default) and the number
+     * of the steps (3000 by default).
+     * @throws IOException if the connection fails.
+     */
+    public static void main(String[] args) throws IOException {
+        SocketAddress address = EnvironmentServer.parseAddress(args.length > 0 ? args[0] : "5005");
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 3000;
+        try (EnvironmentClient client = new EnvironmentClient(address)) {
+            client.reset(games, HeadlessGame.DEFAULT_SEED);
+            int[] actions = new int[games];
+            SplitMixRandom random = new SplitMixRandom(HeadlessGame.DEFAULT_SEED);
+            int ended = 0;
+            double rewards = 0;
+            long start = System.nanoTime();
+            for (int step = 0; step < steps; step++) {
+                for (int i = 0; i < games; i++) {
+                    actions[i] = random.nextInt((BatchEnvironment.LEFT | BatchEnvironment.RIGHT
+                        | BatchEnvironment.FIRE) + 1);
+                }
+                client.step(actions);
+                for (int i = 0; i < games; i++) {
+                    ended += client.isDone(i) ? 1 : 0;
+                    rewards += client.getReward(i);
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d steps of %d games in %.2f seconds (%.0f steps per second), %d games ended, "
+                + "%.0f rewards%n", (long) games * steps, games, seconds, games * steps / seconds, ended, rewards);
+        }
+    }
+
+} // class EnvironmentClient
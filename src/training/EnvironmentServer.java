@@ -0,0 +1,470 @@
+package training;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import levels.BattleLevel;
+
+/**
+ * The EnvironmentServer class serves batch environments to trainers in other processes, over a loopback TCP port or a
+ * Unix domain socket. Every connection owns a BatchEnvironment, which it creates with a reset request and steps with
+ * step requests.
+ * A single selector thread accepts the connections and reads and writes all of them, and the requests are served by
+ * a pool of workers, so the environments of different connections are stepped on different cores at once. A client
+ * may pipeline its requests - they are read while it waits, and served in their order, one at a time.
+ * The buffers of a connection are direct, and its environment writes the observations straight into the buffer of
+ * the response, so the observations are sent without being copied.
+ *
+ * The protocol is binary and little-endian. Every message starts with an int of the number of the bytes after it.
+ * A request continues with an int of its operation:
+ * RESET - an int of the number of the games and a long of the seed. A new environment is created.
+ * STEP - an int of the action of every game (a bit mask of BatchEnvironment.LEFT, RIGHT and FIRE).
+ * A response continues with an int of its status. An OK response continues with an int of the number of the games,
+ * an int of the size of an observation, the float observations, a float reward for every game and a byte for every
+ * game which is 1 if it ended (and was started again) in the step. An ERROR response continues with a UTF-8 message.
+ */
+public class EnvironmentServer implements Closeable, Runnable {
+    // The operations of the requests.
+    public static final int RESET = 1;
+    public static final int STEP = 2;
+    // The statuses of the responses.
+    public static final int OK = 0;
+    public static final int ERROR = 1;
+    // The most games of a single connection.
+    public static final int MAX_GAMES = 4096;
+    // The bytes before the observations in an OK response.
+    public static final int RESPONSE_HEADER = 16;
+    // The room of the requests that were read and not served yet (the largest request is a step of MAX_GAMES).
+    private static final int REQUEST_BUFFER_SIZE = 2 * (8 + 4 * MAX_GAMES);
+    // The room of a response before the first reset, enough for an error.
+    private static final int INITIAL_RESPONSE_SIZE = 1024;
+
+    // Declare the members of the class.
+    private ServerSocketChannel serverChannel;
+    private Selector selector;
+    private ExecutorService workers;
+    // The connections whose responses are ready, handed back from the workers to the selector thread.
+    private Queue<Connection> served;
+    private volatile boolean running;
+    private int lives;
+
+    /**
+     * Constructor - the server is bound, and starts serving when it's run.
+     * @param address a loopback address, or the address of a Unix domain socket.
+     * @param threads the number of the workers that serve the requests.
+     * @throws IOException if the address can't be bound.
+     */
+    public EnvironmentServer(SocketAddress address, int threads) throws IOException {
+        this.serverChannel = openServerChannel(address);
+        this.serverChannel.bind(address);
+        this.serverChannel.configureBlocking(false);
+        this.selector = Selector.open();
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+        this.workers = Executors.newFixedThreadPool(threads);
+        this.served = new ConcurrentLinkedQueue<Connection>();
+        this.running = true;
+        this.lives = 3;
+    }
+
+    /**
+     * @param numberOfLives the number of the lives that the games of the environments start with.
+     */
+    public void setLives(int numberOfLives) {
+        this.lives = numberOfLives;
+    }
+
+    /**
+     * @return the address that the server is bound to.
+     * @throws IOException if the address can't be read.
+     */
+    public SocketAddress getLocalAddress() throws IOException {
+        return this.serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Serve the connections until the server is closed.
+     */
+    @Override
+    public void run() {
+        try {
+            while (this.running) {
+                this.selector.select();
+                Connection connection;
+                while ((connection = this.served.poll()) != null) {
+                    this.startWriting(connection);
+                }
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        this.accept();
+                    } else if (key.isReadable()) {
+                        this.read((Connection) key.attachment());
+                    } else if (key.isWritable()) {
+                        this.write((Connection) key.attachment());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            if (this.running) {
+                System.err.println("The environment server failed: " + e.getMessage());
+            }
+        } finally {
+            this.shutdown();
+        }
+    }
+
+    /**
+     * Stop serving. The connections are closed by the selector thread.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+    /**
+     * Close the connections, the selector and the workers.
+     */
+    private void shutdown() {
+        this.workers.shutdownNow();
+        for (SelectionKey key : this.selector.keys()) {
+            closeQuietly(key.channel());
+        }
+        closeQuietly(this.selector);
+        closeQuietly(this.serverChannel);
+    }
+
+    /**
+     * Accept a new connection, and wait for its first request.
+     * @throws IOException if the connection can't be accepted.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel = this.serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(this.selector, SelectionKey.OP_READ, connection);
+    }
+
+    /**
+     * Read what a connection sent, and serve its next request once it's all read.
+     * @param connection the connection.
+     */
+    private void read(Connection connection) {
+        try {
+            if (connection.channel.read(connection.requests) < 0) {
+                connection.close();
+                return;
+            }
+        } catch (IOException e) {
+            connection.close();
+            return;
+        }
+        int length = connection.nextRequestLength();
+        if (length >= 0 && (length < 4 || 4 + length > connection.requests.capacity())) {
+            // A request that can't be read is the end of the protocol, so the connection is dropped.
+            connection.close();
+        } else if (connection.hasRequest()) {
+            this.serve(connection);
+        }
+    }
+
+    /**
+     * Serve the next request of a connection on a worker. Nothing is read from the connection until its response is
+     * written, so only a single thread uses its buffers at any time.
+     * @param connection the connection.
+     */
+    private void serve(Connection connection) {
+        connection.key.interestOps(0);
+        this.workers.execute(() -> {
+            connection.serveRequest();
+            this.served.add(connection);
+            this.selector.wakeup();
+        });
+    }
+
+    /**
+     * Start writing the response of a connection, which a worker prepared.
+     * @param connection the connection.
+     */
+    private void startWriting(Connection connection) {
+        if (!connection.key.isValid()) {
+            return;
+        }
+        this.write(connection);
+        if (connection.key.isValid() && connection.response.hasRemaining()) {
+            connection.key.interestOps(SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Write what's left of the response of a connection, and go on to its next request once it's all written.
+     * @param connection the connection.
+     */
+    private void write(Connection connection) {
+        try {
+            connection.channel.write(connection.response);
+        } catch (IOException e) {
+            connection.close();
+            return;
+        }
+        if (connection.response.hasRemaining()) {
+            return;
+        }
+        if (connection.hasRequest()) {
+            this.serve(connection);
+        } else {
+            connection.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * The Connection class is the state of a single client: its buffers and its environment.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        // The requests that were read and not served yet, from index 0 to the position.
+        private ByteBuffer requests;
+        // The response that is written, from the position to the limit.
+        private ByteBuffer response;
+        private BatchEnvironment environment;
+        private int[] actions;
+
+        /**
+         * Constructor.
+         * @param channel the channel of the client.
+         */
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+            this.requests = ByteBuffer.allocateDirect(REQUEST_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            this.response = ByteBuffer.allocateDirect(INITIAL_RESPONSE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            this.response.limit(0);
+        }
+
+        /**
+         * @return the length of the next request that was read, or -1 if its length wasn't read yet.
+         */
+        private int nextRequestLength() {
+            return this.requests.position() < 4 ? -1 : this.requests.getInt(0);
+        }
+
+        /**
+         * @return true if the next request was read completely, false otherwise.
+         */
+        private boolean hasRequest() {
+            int length = this.nextRequestLength();
+            return length >= 0 && this.requests.position() >= 4 + length;
+        }
+
+        /**
+         * Serve the next request, which was read completely, and prepare its response.
+         */
+        private void serveRequest() {
+            int length = this.requests.getInt(0);
+            this.requests.flip();
+            this.requests.position(4);
+            int end = 4 + length;
+            try {
+                int operation = this.requests.getInt();
+                if (operation == RESET) {
+                    this.reset(end);
+                } else if (operation == STEP) {
+                    this.step(end);
+                } else {
+                    this.error("Unknown operation " + operation);
+                }
+            } catch (RuntimeException e) {
+                this.error(String.valueOf(e.getMessage()));
+            } finally {
+                this.requests.position(end);
+                this.requests.compact();
+            }
+        }
+
+        /**
+         * Create a new environment.
+         * @param end the index after the request.
+         */
+        private void reset(int end) {
+            if (end - this.requests.position() != 12) {
+                this.error("A reset has an int of the number of the games and a long of the seed");
+                return;
+            }
+            int size = this.requests.getInt();
+            long seed = this.requests.getLong();
+            if (size < 1 || size > MAX_GAMES) {
+                this.error("The number of the games must be between 1 and " + MAX_GAMES);
+                return;
+            }
+            this.environment = new BatchEnvironment(size, seed, BattleLevel::new, EnvironmentServer.this.lives);
+            this.actions = new int[size];
+            int observations = size * this.environment.getObservationSize();
+            int capacity = RESPONSE_HEADER + 4 * observations + 5 * size;
+            if (this.response.capacity() < capacity) {
+                this.response = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            ByteBuffer view = this.response.duplicate();
+            view.clear().position(RESPONSE_HEADER);
+            this.environment.writeObservationsTo(view.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer());
+            this.respond();
+        }
+
+        /**
+         * Step the environment.
+         * @param end the index after the request.
+         */
+        private void step(int end) {
+            if (this.environment == null) {
+                this.error("The environment must be reset before it's stepped");
+                return;
+            }
+            if (end - this.requests.position() != 4 * this.actions.length) {
+                this.error("A step has an action for each of the " + this.actions.length + " games");
+                return;
+            }
+            for (int i = 0; i < this.actions.length; i++) {
+                this.actions[i] = this.requests.getInt();
+            }
+            this.environment.step(this.actions);
+            this.respond();
+        }
+
+        /**
+         * Complete the OK response around the observations, which the environment already wrote.
+         */
+        private void respond() {
+            int size = this.environment.size();
+            int rewards = RESPONSE_HEADER + 4 * size * this.environment.getObservationSize();
+            int dones = rewards + 4 * size;
+            int total = dones + size;
+            ByteBuffer out = this.response;
+            out.clear();
+            out.putInt(0, total - 4);
+            out.putInt(4, OK);
+            out.putInt(8, size);
+            out.putInt(12, this.environment.getObservationSize());
+            float[] gained = this.environment.getRewards();
+            boolean[] ended = this.environment.getDones();
+            for (int i = 0; i < size; i++) {
+                out.putFloat(rewards + 4 * i, gained[i]);
+                out.put(dones + i, (byte) (ended[i] ? 1 : 0));
+            }
+            out.limit(total);
+        }
+
+        /**
+         * Prepare an ERROR response. The observations of the environment may be overwritten, and are written again by
+         * its next step.
+         * @param message the message of the error.
+         */
+        private void error(String message) {
+            byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(bytes.length, this.response.capacity() - 8);
+            this.response.clear();
+            this.response.putInt(4 + length).putInt(ERROR).put(bytes, 0, length);
+            this.response.flip();
+        }
+
+        /**
+         * Close the connection.
+         */
+        private void close() {
+            this.key.cancel();
+            closeQuietly(this.channel);
+        }
+    } // class Connection
+
+    /**
+     * @param address a loopback address, or the address of a Unix domain socket.
+     * @return a server channel of the family of the address.
+     * @throws IOException if the channel can't be opened.
+     */
+    private static ServerSocketChannel openServerChannel(SocketAddress address) throws IOException {
+        if (address instanceof InetSocketAddress) {
+            return ServerSocketChannel.open();
+        }
+        // Unix domain sockets are there only from Java 16, and the game is still built for Java 11.
+        try {
+            Method open = ServerSocketChannel.class.getMethod("open", ProtocolFamily.class);
+            return (ServerSocketChannel) open.invoke(null, StandardProtocolFamily.valueOf("UNIX"));
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            throw new IOException("Unix domain sockets need Java 16 or newer", e);
+        }
+    }
+
+    /**
+     * @param address a port number for a loopback port, or the path of a Unix domain socket.
+     * @return the address.
+     * @throws IOException if the address is a path and Unix domain sockets aren't supported.
+     */
+    public static SocketAddress parseAddress(String address) throws IOException {
+        if (address.matches("\\d+")) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+        }
+        try {
+            Method of = Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", String.class);
+            return (SocketAddress) of.invoke(null, address);
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Unix domain sockets need Java 16 or newer", e);
+        }
+    }
+
+    /**
+     * Close a resource, reporting a failure without stopping.
+     * @param resource the resource.
+     */
+    private static void closeQuietly(Closeable resource) {
+        try {
+            resource.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Serve environments until the process is stopped.
+     * @param args the address - a loopback port (5005 by default) or the path of a Unix domain socket, which is
+     * replaced if it's there - and the number of the workers (all the cores by default).
+     * @throws IOException if the address can't be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        String name = args.length > 0 ? args[0] : "5005";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        SocketAddress address = parseAddress(name);
+        if (!(address instanceof InetSocketAddress)) {
+            Files.deleteIfExists(Paths.get(name));
+        }
+        EnvironmentServer server = new EnvironmentServer(address, threads);
+        System.out.println("Serving environments on " + server.getLocalAddress() + " with " + threads + " workers");
+        server.run();
+    }
+
+} // class EnvironmentServer
@@ -0,0 +1,151 @@
+package training;
+
+import java.nio.FloatBuffer;
+import java.util.List;
+
+import collision.CollisionLayers;
+import invadersgame.Counter;
+import invadersgame.EnemiesArmy;
+import invadersgame.Paddle;
+import invadersgame.SplitMixRandom;
+import levels.GameFlow;
+import levels.GameLevel;
+import levels.LevelInformation;
+import sprites.Ball;
+
+/**
+ * The GameInstance class is a single game of a BatchEnvironment. It plays the levels the way GameFlow does - a new
+ * level with faster enemies after a level is cleared, and a new turn after the paddle is hit - but without the runner:
+ * the level is stepped directly, with no countdown and no screens between the turns, and the game ends when the lives
+ * run out.
+ */
+class GameInstance {
+    // Declare the members of the class.
+    private LevelInformation levelInformation;
+    private ActionKeyboardSensor keyboard;
+    private SplitMixRandom levelSeeds;
+    private GameLevel level;
+    private Counter score;
+    private Counter lives;
+    private int numberOfLives;
+    private int levelsCleared;
+    private int enemiesSpeed;
+
+    /**
+     * Constructor - the game starts when it's reset.
+     * @param levelInformation the information of the levels of the game.
+     * @param numberOfLives the number of the lives that the game starts with.
+     */
+    GameInstance(LevelInformation levelInformation, int numberOfLives) {
+        this.levelInformation = levelInformation;
+        this.numberOfLives = numberOfLives;
+        this.keyboard = new ActionKeyboardSensor();
+    }
+
+    /**
+     * Start a new game.
+     * @param seed the seed of the game.
+     */
+    void reset(long seed) {
+        this.levelSeeds = new SplitMixRandom(seed);
+        this.score = new Counter(0);
+        this.lives = new Counter(this.numberOfLives);
+        this.levelsCleared = 0;
+        this.enemiesSpeed = GameFlow.DEFAULT_ENEMIES_SPEED;
+        this.keyboard.setAction(BatchEnvironment.NOOP);
+        this.startLevel();
+    }
+
+    /**
+     * Create the next level and start its first turn.
+     */
+    private void startLevel() {
+        this.level = new GameLevel(this.levelInformation, this.keyboard, null, this.score, this.lives,
+            this.enemiesSpeed, this.levelSeeds.nextLong());
+        this.level.initialize();
+        this.level.startTurn();
+    }
+
+    /**
+     * Perform a single step of the game.
+     * @param action the bit mask of the keys that are pressed in the step.
+     * @param dt the time of the step, in seconds.
+     * @return true if the game is over, false otherwise.
+     */
+    boolean step(int action, double dt) {
+        this.keyboard.setAction(action);
+        this.level.step(dt);
+        if (!this.level.shouldStop()) {
+            return false;
+        }
+        this.level.endTurn();
+        if (this.level.getBlocksNumber() == 0) {
+            this.levelsCleared++;
+            this.enemiesSpeed += GameFlow.DEFAULT_SPEED_INCREMENT;
+            this.startLevel();
+            return false;
+        }
+        this.lives.decrease(1);
+        if (this.lives.getValue() <= 0) {
+            return true;
+        }
+        this.level.startTurn();
+        return false;
+    }
+
+    /**
+     * @return the current score of the game.
+     */
+    int getScore() {
+        return this.score.getValue();
+    }
+
+    /**
+     * @param levelInformation the information of the levels of a game.
+     * @return the number of the enemy slots that are observed (the number of the enemies of a level).
+     */
+    static int enemySlots(LevelInformation levelInformation) {
+        return levelInformation.numberOfBlocksToRemove();
+    }
+
+    /**
+     * Write the observation of the game into the given buffer, at the given offset.
+     * @param out the buffer of the observations.
+     * @param offset the place of the observation of the game in the buffer.
+     * @param enemySlots the number of the enemy slots in the observation.
+     */
+    void observe(FloatBuffer out, int offset, int enemySlots) {
+        Paddle paddle = this.level.getPaddle();
+        out.put(offset + BatchEnvironment.PADDLE_X, (float) ((paddle.getCollisionRectangle().getX()
+            + paddle.getCollisionRectangle().getWidth() / 2) / GameLevel.SURFACE_WIDTH));
+        out.put(offset + BatchEnvironment.SCORE, this.score.getValue());
+        out.put(offset + BatchEnvironment.LIVES, this.lives.getValue());
+        out.put(offset + BatchEnvironment.LEVELS_CLEARED, this.levelsCleared);
+        EnemiesArmy army = this.level.getEnemiesArmy();
+        out.put(offset + BatchEnvironment.ARMY_X, (float) (army.getOriginX() / GameLevel.SURFACE_WIDTH));
+        out.put(offset + BatchEnvironment.ARMY_Y, (float) (army.getOriginY() / GameLevel.SURFACE_HEIGHT));
+        int enemies = offset + BatchEnvironment.ENEMIES;
+        int slots = Math.min(enemySlots, army.getSlotCount());
+        for (int i = 0; i < slots; i++) {
+            out.put(enemies + i, army.isAlive(i) ? 1 : 0);
+        }
+        for (int i = slots; i < enemySlots; i++) {
+            out.put(enemies + i, 0);
+        }
+        // The shots are written as (x, y, side) - the side is 1 for the shots of the player, -1 for the shots of the
+        // enemies and 0 for an empty place.
+        int shots = enemies + enemySlots;
+        List<Ball> active = this.level.getShotPool().getActive();
+        int count = Math.min(active.size(), BatchEnvironment.SHOT_SLOTS);
+        for (int i = 0; i < count; i++) {
+            Ball shot = active.get(i);
+            out.put(shots + 3 * i, (float) (shot.getX() / GameLevel.SURFACE_WIDTH));
+            out.put(shots + 3 * i + 1, (float) (shot.getY() / GameLevel.SURFACE_HEIGHT));
+            out.put(shots + 3 * i + 2, shot.getLayer() == CollisionLayers.PLAYER_SHOT ? 1 : -1);
+        }
+        for (int i = 3 * count; i < 3 * BatchEnvironment.SHOT_SLOTS; i++) {
+            out.put(shots + i, 0);
+        }
+    }
+
+} // class GameInstance